@@ -0,0 +1,186 @@
+package sortpom.benchmark;
+
+import org.apache.commons.io.FileUtils;
+import org.apache.commons.io.IOUtils;
+import sortpom.XmlProcessor;
+import sortpom.parameter.PluginParameters;
+import sortpom.util.FileUtil;
+import sortpom.wrapper.WrapperFactoryImpl;
+
+import java.io.*;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.*;
+
+/**
+ * Measures the bytes that each phase of the sorting allocates per KB of pom, and fails if any phase allocates
+ * more than the checked in baseline allows. Run with mvn verify -Pallocation-gate in the benchmarks module.
+ * Verify is measured on the sorted pom, since it stops at the first misplaced element of an unsorted pom.
+ * <p/>
+ * Arguments: the baseline file, the allowed increase in percent, and optionally "update" to save the
+ * measured values as the new baseline.
+ */
+public class AllocationGate {
+    private static final int WARMUP_ITERATIONS = 20;
+    private static final int MEASURED_ITERATIONS = 10;
+    private static final String[] PHASES = {"parse", "sort", "format", "verify"};
+    private static final int VERIFY_PHASE = 3;
+    /** Bytes per KB that a phase may always allocate above its baseline, so that small values do not fail on noise */
+    private static final long MIN_ALLOWED_INCREASE = 256;
+
+    private final ThreadMXBean threadMXBean = ManagementFactory.getThreadMXBean();
+
+    public static void main(String[] args) throws Exception {
+        File baselineFile = new File(args[0]);
+        double allowedIncreasePercent = Double.parseDouble(args[1]);
+        boolean updateBaseline = args.length > 2 && "update".equals(args[2]);
+
+        Properties measured = new AllocationGate().measure();
+        if (updateBaseline) {
+            saveBaseline(baselineFile, measured);
+            System.out.println("Saved allocation baseline to " + baselineFile);
+            return;
+        }
+        List<String> regressions = compare(loadBaseline(baselineFile), measured, allowedIncreasePercent);
+        if (!regressions.isEmpty()) {
+            for (String regression : regressions) {
+                System.out.println("[ERROR] " + regression);
+            }
+            throw new IllegalStateException(String.format("%s phase(s) allocate more than %s%% above the baseline in %s",
+                    regressions.size(), allowedIncreasePercent, baselineFile));
+        }
+        System.out.println("Allocation per KB of pom is within " + allowedIncreasePercent + "% of the baseline");
+    }
+
+    /** Returns the allocated bytes per KB of pom for each phase and pom size */
+    private Properties measure() throws Exception {
+        if (!(threadMXBean instanceof com.sun.management.ThreadMXBean)) {
+            throw new IllegalStateException("The JVM cannot measure allocated bytes per thread");
+        }
+        SortPomState state = new SortPomState();
+        state.keepBlankLines = true;
+        state.sortEntities = "ALL";
+
+        Properties measured = new Properties();
+        for (PomSize pomSize : PomSize.values()) {
+            byte[] xmlBytes = pomSize.createUnsortedPom().getBytes("UTF-8");
+            PluginParameters pluginParameters = state.createPluginParametersBuilder(null).createPluginParameters();
+            XmlProcessor xmlProcessor = createXmlProcessor(pluginParameters);
+            XmlProcessor verifyProcessor = createXmlProcessor(pluginParameters);
+            byte[] sortedXmlBytes = sort(xmlProcessor, xmlBytes);
+            for (int i = 0; i < WARMUP_ITERATIONS; i++) {
+                runPhases(xmlProcessor, xmlBytes, verifyProcessor, sortedXmlBytes);
+            }
+            long[][] allocatedBytes = new long[PHASES.length][MEASURED_ITERATIONS];
+            for (int i = 0; i < MEASURED_ITERATIONS; i++) {
+                long[] phaseBytes = runPhases(xmlProcessor, xmlBytes, verifyProcessor, sortedXmlBytes);
+                for (int phase = 0; phase < PHASES.length; phase++) {
+                    allocatedBytes[phase][i] = phaseBytes[phase];
+                }
+            }
+            for (int phase = 0; phase < PHASES.length; phase++) {
+                double kilobytes = (phase == VERIFY_PHASE ? sortedXmlBytes.length : xmlBytes.length) / 1024.0;
+                long bytesPerKilobyte = Math.round(median(allocatedBytes[phase]) / kilobytes);
+                String key = pomSize + "." + PHASES[phase];
+                measured.setProperty(key, String.valueOf(bytesPerKilobyte));
+                System.out.println(String.format("%-14s %10d bytes per KB", key, bytesPerKilobyte));
+            }
+        }
+        return measured;
+    }
+
+    private XmlProcessor createXmlProcessor(PluginParameters pluginParameters) {
+        FileUtil fileUtil = new FileUtil();
+        fileUtil.setup(pluginParameters);
+        WrapperFactoryImpl wrapperFactory = new WrapperFactoryImpl(fileUtil);
+        wrapperFactory.setup(pluginParameters);
+        XmlProcessor xmlProcessor = new XmlProcessor(wrapperFactory);
+        xmlProcessor.setup(pluginParameters);
+        return xmlProcessor;
+    }
+
+    private static byte[] sort(XmlProcessor xmlProcessor, byte[] xmlBytes) throws Exception {
+        xmlProcessor.setOriginalXml(new ByteArrayInputStream(xmlBytes));
+        xmlProcessor.sortXml();
+        return xmlProcessor.getSortedXml().toByteArray();
+    }
+
+    /**
+     * Runs all phases once, and returns the allocated bytes of each phase. The unsorted pom is parsed, sorted
+     * and formatted, and the sorted pom is verified.
+     */
+    private long[] runPhases(XmlProcessor xmlProcessor, byte[] xmlBytes, XmlProcessor verifyProcessor,
+                             byte[] sortedXmlBytes) throws Exception {
+        long[] allocatedBytes = new long[PHASES.length];
+        long before = getAllocatedBytes();
+        xmlProcessor.setOriginalXml(new ByteArrayInputStream(xmlBytes));
+        long afterParse = getAllocatedBytes();
+        xmlProcessor.sortXml();
+        long afterSort = getAllocatedBytes();
+        xmlProcessor.getSortedXml();
+        long afterFormat = getAllocatedBytes();
+        verifyProcessor.setOriginalXml(new ByteArrayInputStream(sortedXmlBytes));
+        verifyProcessor.sortXml();
+        long beforeVerify = getAllocatedBytes();
+        if (!verifyProcessor.isXmlOrdered().isOrdered()) {
+            throw new IllegalStateException("The sorted pom is not verified as sorted");
+        }
+        long afterVerify = getAllocatedBytes();
+        allocatedBytes[0] = afterParse - before;
+        allocatedBytes[1] = afterSort - afterParse;
+        allocatedBytes[2] = afterFormat - afterSort;
+        allocatedBytes[VERIFY_PHASE] = afterVerify - beforeVerify;
+        return allocatedBytes;
+    }
+
+    private long getAllocatedBytes() {
+        return ((com.sun.management.ThreadMXBean) threadMXBean).getThreadAllocatedBytes(Thread.currentThread().getId());
+    }
+
+    private static long median(long[] values) {
+        long[] sorted = values.clone();
+        Arrays.sort(sorted);
+        return sorted[sorted.length / 2];
+    }
+
+    private static List<String> compare(Properties baseline, Properties measured, double allowedIncreasePercent) {
+        List<String> regressions = new ArrayList<String>();
+        for (String key : new TreeSet<String>(measured.stringPropertyNames())) {
+            String baselineValue = baseline.getProperty(key);
+            if (baselineValue == null) {
+                regressions.add(key + " has no baseline value, run the gate with update");
+                continue;
+            }
+            long baselineBytes = Long.parseLong(baselineValue);
+            long allowed = Math.max(Math.round(baselineBytes * (1 + allowedIncreasePercent / 100)),
+                    baselineBytes + MIN_ALLOWED_INCREASE);
+            long actual = Long.parseLong(measured.getProperty(key));
+            if (actual > allowed) {
+                regressions.add(String.format("%s allocates %s bytes per KB, the baseline is %s", key, actual, baselineValue));
+            }
+        }
+        return regressions;
+    }
+
+    private static Properties loadBaseline(File baselineFile) throws IOException {
+        Properties baseline = new Properties();
+        InputStream inputStream = null;
+        try {
+            inputStream = new FileInputStream(baselineFile);
+            baseline.load(inputStream);
+        } finally {
+            IOUtils.closeQuietly(inputStream);
+        }
+        return baseline;
+    }
+
+    /** The baseline is saved in key order without a timestamp, so that changes are easy to review */
+    private static void saveBaseline(File baselineFile, Properties measured) throws IOException {
+        List<String> lines = new ArrayList<String>();
+        lines.add("# Allocated bytes per KB of pom for each pom size and phase");
+        for (String key : new TreeSet<String>(measured.stringPropertyNames())) {
+            lines.add(key + "=" + measured.getProperty(key));
+        }
+        FileUtils.writeLines(baselineFile, "UTF-8", lines, "\n");
+    }
+}
@@ -0,0 +1,38 @@
+package sortpom.benchmark;
+
+import org.openjdk.jmh.annotations.*;
+import sortpom.SortPomImpl;
+import sortpom.util.BufferedLineSeparatorOutputStream;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures how fast the sorted xml is written with another line separator than \n.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class LineSeparatorBenchmark {
+    private byte[] sortedXmlBytes;
+
+    @Setup
+    public void setUp(SortPomState state) throws IOException {
+        SortPomImpl sortPomImpl = new SortPomImpl();
+        sortPomImpl.setup(SortPomState.createSilentLogger(), state.createPluginParametersBuilder(null).createPluginParameters());
+        sortedXmlBytes = sortPomImpl.sortXml(state.pomSize.createUnsortedPom()).getBytes("UTF-8");
+    }
+
+    @Benchmark
+    public ByteArrayOutputStream writeWithWindowsLineSeparator() throws IOException {
+        ByteArrayOutputStream output = new ByteArrayOutputStream(sortedXmlBytes.length * 2);
+        BufferedLineSeparatorOutputStream lineSeparatorOutputStream = new BufferedLineSeparatorOutputStream("\r\n", output);
+        lineSeparatorOutputStream.write(sortedXmlBytes);
+        lineSeparatorOutputStream.close();
+        return output;
+    }
+}
@@ -0,0 +1,35 @@
+package sortpom.benchmark;
+
+import sortpom.util.PomGenerator;
+
+/**
+ * The sizes of the generated poms that the benchmarks sort. The number of each repeated element grows with
+ * the size, so that the cost of the sorting can be compared between sizes.
+ */
+public enum PomSize {
+    /** About 3 KB, a module pom with a few dependencies */
+    SMALL(3000),
+    /** About 50 KB, a large parent pom */
+    MEDIUM(50000),
+    /** About 1 MB, far bigger than any hand written pom */
+    LARGE(1000000);
+
+    private static final long SEED = 20131123;
+
+    private final long nrOfBytes;
+
+    PomSize(long nrOfBytes) {
+        this.nrOfBytes = nrOfBytes;
+    }
+
+    /**
+     * Creates the pom, which is the same for every run so that the results of different runs can be compared.
+     * Half of the elements are misplaced and every tenth element is preceded by a blank line.
+     */
+    public String createUnsortedPom() {
+        return PomGenerator.withApproximateSize(SEED, nrOfBytes)
+                .setDisorder(0.5)
+                .setBlankLineDensity(0.1)
+                .generate();
+    }
+}
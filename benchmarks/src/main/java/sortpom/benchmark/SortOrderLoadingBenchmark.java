@@ -0,0 +1,39 @@
+package sortpom.benchmark;
+
+import org.jdom.Element;
+import org.openjdk.jmh.annotations.*;
+import sortpom.parameter.PluginParameters;
+import sortpom.util.FileUtil;
+import sortpom.wrapper.WrapperFactoryImpl;
+import sortpom.wrapper.WrapperOperations;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the loading of the sort order file into the wrapper factory, which is done once for every set up
+ * of the factory. The root element is empty, so that only the loading is measured.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SortOrderLoadingBenchmark {
+    private WrapperFactoryImpl wrapperFactory;
+    private PluginParameters pluginParameters;
+
+    @Setup
+    public void setUp(SortPomState state) {
+        pluginParameters = state.createPluginParametersBuilder(null).createPluginParameters();
+        FileUtil fileUtil = new FileUtil();
+        fileUtil.setup(pluginParameters);
+        wrapperFactory = new WrapperFactoryImpl(fileUtil);
+    }
+
+    @Benchmark
+    public WrapperOperations loadSortOrder() {
+        wrapperFactory.setup(pluginParameters);
+        return wrapperFactory.createFromRootElement(new Element("project"));
+    }
+}
@@ -0,0 +1,55 @@
+package sortpom.benchmark;
+
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import sortpom.logger.SortPomLogger;
+import sortpom.parameter.PluginParametersBuilder;
+
+import java.io.File;
+
+/**
+ * The parameters that all benchmarks are run with: the pom size, if blank lines are kept and which entities
+ * that are sorted.
+ */
+@State(Scope.Benchmark)
+public class SortPomState {
+    @Param({"SMALL", "MEDIUM", "LARGE"})
+    public PomSize pomSize;
+
+    @Param({"false", "true"})
+    public boolean keepBlankLines;
+
+    /** NONE sorts no dependencies, plugins or properties, ALL sorts all of them */
+    @Param({"NONE", "ALL"})
+    public String sortEntities;
+
+    /** The parameters that the sorter is set up with */
+    public PluginParametersBuilder createPluginParametersBuilder(File pomFile) {
+        boolean sortAll = "ALL".equals(sortEntities);
+        return new PluginParametersBuilder()
+                .setPomFile(pomFile)
+                .setEncoding("UTF-8")
+                .setFormatting("\n", true, keepBlankLines)
+                .setIndent(2, false)
+                .setSortOrder(null, "recommended_2008_06")
+                .setSortEntities(sortAll ? "groupId,artifactId" : "", sortAll ? "groupId,artifactId" : "", sortAll);
+    }
+
+    /** Drops all log output, so that logging is not measured */
+    public static SortPomLogger createSilentLogger() {
+        return new SortPomLogger() {
+            //@Override
+            public void warn(String content) {
+            }
+
+            //@Override
+            public void info(String content) {
+            }
+
+            //@Override
+            public void error(String content) {
+            }
+        };
+    }
+}
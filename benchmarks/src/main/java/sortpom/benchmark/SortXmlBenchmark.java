@@ -0,0 +1,32 @@
+package sortpom.benchmark;
+
+import org.openjdk.jmh.annotations.*;
+import sortpom.SortPomImpl;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the whole sorting of a pom, from xml text to sorted xml text.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SortXmlBenchmark {
+    private SortPomImpl sortPomImpl;
+    private String xml;
+
+    @Setup
+    public void setUp(SortPomState state) {
+        xml = state.pomSize.createUnsortedPom();
+        sortPomImpl = new SortPomImpl();
+        sortPomImpl.setup(SortPomState.createSilentLogger(), state.createPluginParametersBuilder(null).createPluginParameters());
+    }
+
+    @Benchmark
+    public String sortXml() {
+        return sortPomImpl.sortXml(xml);
+    }
+}
@@ -0,0 +1,42 @@
+package sortpom.benchmark;
+
+import org.apache.commons.io.FileUtils;
+import org.openjdk.jmh.annotations.*;
+import sortpom.SortPomImpl;
+import sortpom.util.XmlOrderedResult;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the verification of a pom file, which reads the file and compares it with the sorted pom.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class VerifyBenchmark {
+    private SortPomImpl sortPomImpl;
+    private File pomFile;
+
+    @Setup
+    public void setUp(SortPomState state) throws IOException {
+        pomFile = File.createTempFile("pom", ".xml");
+        FileUtils.writeStringToFile(pomFile, state.pomSize.createUnsortedPom(), "UTF-8");
+        sortPomImpl = new SortPomImpl();
+        sortPomImpl.setup(SortPomState.createSilentLogger(), state.createPluginParametersBuilder(pomFile).createPluginParameters());
+    }
+
+    @TearDown
+    public void tearDown() {
+        FileUtils.deleteQuietly(pomFile);
+    }
+
+    @Benchmark
+    public XmlOrderedResult isPomElementsSorted() {
+        return sortPomImpl.isPomElementsSorted();
+    }
+}
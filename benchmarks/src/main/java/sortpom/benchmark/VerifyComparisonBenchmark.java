@@ -0,0 +1,65 @@
+package sortpom.benchmark;
+
+import org.openjdk.jmh.annotations.*;
+import sortpom.SortPomImpl;
+import sortpom.XmlProcessor;
+import sortpom.parameter.PluginParameters;
+import sortpom.util.FileUtil;
+import sortpom.util.XmlOrderedResult;
+import sortpom.verify.MisplacedElement;
+import sortpom.wrapper.WrapperFactoryImpl;
+
+import java.io.ByteArrayInputStream;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the comparison of the original and the sorted pom, which is what verify adds to the sorting. An
+ * unsorted pom is compared until the first misplaced element, a sorted pom is compared in full. The pom is
+ * sorted again before each comparison, so that nothing that the comparison computes is reused between calls.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class VerifyComparisonBenchmark {
+    @Param({"UNSORTED", "SORTED"})
+    public String pomOrder;
+
+    private XmlProcessor xmlProcessor;
+
+    @Setup
+    public void setUp(SortPomState state) throws Exception {
+        PluginParameters pluginParameters = state.createPluginParametersBuilder(null).createPluginParameters();
+        String pom = state.pomSize.createUnsortedPom();
+        if ("SORTED".equals(pomOrder)) {
+            SortPomImpl sortPomImpl = new SortPomImpl();
+            sortPomImpl.setup(SortPomState.createSilentLogger(), pluginParameters);
+            pom = sortPomImpl.sortXml(pom);
+        }
+        FileUtil fileUtil = new FileUtil();
+        fileUtil.setup(pluginParameters);
+        WrapperFactoryImpl wrapperFactory = new WrapperFactoryImpl(fileUtil);
+        wrapperFactory.setup(pluginParameters);
+        xmlProcessor = new XmlProcessor(wrapperFactory);
+        xmlProcessor.setup(pluginParameters);
+        xmlProcessor.setOriginalXml(new ByteArrayInputStream(pom.getBytes("UTF-8")));
+    }
+
+    @Setup(Level.Invocation)
+    public void sortXml() {
+        xmlProcessor.sortXml(true);
+    }
+
+    @Benchmark
+    public XmlOrderedResult isXmlOrdered() {
+        return xmlProcessor.isXmlOrdered();
+    }
+
+    @Benchmark
+    public List<MisplacedElement> getMisplacedElements() {
+        return xmlProcessor.getMisplacedElements();
+    }
+}
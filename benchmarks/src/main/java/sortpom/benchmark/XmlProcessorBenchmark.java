@@ -0,0 +1,61 @@
+package sortpom.benchmark;
+
+import org.jdom.JDOMException;
+import org.openjdk.jmh.annotations.*;
+import sortpom.XmlProcessor;
+import sortpom.parameter.PluginParameters;
+import sortpom.util.FileUtil;
+import sortpom.wrapper.WrapperFactoryImpl;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures each step of the xml processor separately: parsing the xml, sorting the dom structure and
+ * formatting the sorted xml.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class XmlProcessorBenchmark {
+    private XmlProcessor xmlProcessor;
+    private byte[] xmlBytes;
+
+    @Setup
+    public void setUp(SortPomState state) throws Exception {
+        xmlBytes = state.pomSize.createUnsortedPom().getBytes("UTF-8");
+        PluginParameters pluginParameters = state.createPluginParametersBuilder(null).createPluginParameters();
+        FileUtil fileUtil = new FileUtil();
+        fileUtil.setup(pluginParameters);
+        WrapperFactoryImpl wrapperFactory = new WrapperFactoryImpl(fileUtil);
+        wrapperFactory.setup(pluginParameters);
+        xmlProcessor = new XmlProcessor(wrapperFactory);
+        xmlProcessor.setup(pluginParameters);
+
+        // The sort and format benchmarks use the parsed and sorted pom
+        xmlProcessor.setOriginalXml(new ByteArrayInputStream(xmlBytes));
+        xmlProcessor.sortXml();
+    }
+
+    @Benchmark
+    public XmlProcessor setOriginalXml() throws JDOMException, IOException {
+        xmlProcessor.setOriginalXml(new ByteArrayInputStream(xmlBytes));
+        return xmlProcessor;
+    }
+
+    @Benchmark
+    public XmlProcessor sortXml() {
+        xmlProcessor.sortXml();
+        return xmlProcessor;
+    }
+
+    @Benchmark
+    public ByteArrayOutputStream getSortedXml() throws IOException {
+        return xmlProcessor.getSortedXml();
+    }
+}
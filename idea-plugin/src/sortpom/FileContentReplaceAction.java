@@ -3,26 +3,45 @@ package sortpom;
 import com.intellij.openapi.editor.Document;
 import com.intellij.psi.PsiDocumentManager;
 import com.intellij.psi.PsiFile;
+import sortpom.diff.TextEdit;
+
+import java.util.List;
+import java.util.ListIterator;
 
 /**
- * Replaces the context of a file when the run method is invoked
+ * Replaces the context of a file when the run method is invoked. Only the changed parts of the file are
+ * replaced, so that the editor keeps folding, caret and undo information for the rest of the file. Nothing
+ * is replaced if the file was changed after it was sorted.
  *
  * @author bjorn
  * @since 2013-01-02
  */
 public class FileContentReplaceAction implements Runnable {
-    private final String mySortedXml;
+    private final List<TextEdit> myTextEdits;
     private final PsiFile myPsiFile;
+    private final long mySortedModificationStamp;
 
-    public FileContentReplaceAction(String sortedXml, PsiFile psiFile) {
-        this.mySortedXml = sortedXml;
+    public FileContentReplaceAction(List<TextEdit> textEdits, PsiFile psiFile, long sortedModificationStamp) {
+        this.myTextEdits = textEdits;
         this.myPsiFile = psiFile;
+        this.mySortedModificationStamp = sortedModificationStamp;
     }
 
     public void run() {
         PsiDocumentManager documentManager = PsiDocumentManager.getInstance(myPsiFile.getProject());
         Document document = documentManager.getDocument(myPsiFile);
-        document.setText(mySortedXml);
+        if (document == null || document.getModificationStamp() != mySortedModificationStamp) {
+            return;
+        }
+        // Pending PSI changes must be applied to the document before the document is edited
+        documentManager.doPostponedOperationsAndUnblockDocument(document);
+
+        // The offsets refer to the original text, so the last edit is applied first
+        ListIterator<TextEdit> iterator = myTextEdits.listIterator(myTextEdits.size());
+        while (iterator.hasPrevious()) {
+            TextEdit textEdit = iterator.previous();
+            document.replaceString(textEdit.getOffset(), textEdit.getEndOffset(), textEdit.getReplacement());
+        }
 
         documentManager.commitDocument(document);
     }
@@ -0,0 +1,21 @@
+package sortpom;
+
+import com.intellij.openapi.progress.ProgressIndicator;
+import sortpom.util.CancellationChecker;
+
+/**
+ * Cancels the sorting when the user cancels the background task in IntelliJ
+ */
+public class ProgressIndicatorCancellationChecker implements CancellationChecker {
+    private final ProgressIndicator myIndicator;
+
+    public ProgressIndicatorCancellationChecker(ProgressIndicator indicator) {
+        this.myIndicator = indicator;
+    }
+
+    /** Throws ProcessCanceledException if the task is canceled */
+    @Override
+    public void checkCanceled() {
+        myIndicator.checkCanceled();
+    }
+}
@@ -0,0 +1,215 @@
+package sortpom;
+
+import com.intellij.openapi.actionSystem.AnAction;
+import com.intellij.openapi.actionSystem.AnActionEvent;
+import com.intellij.openapi.actionSystem.PlatformDataKeys;
+import com.intellij.openapi.application.ApplicationManager;
+import com.intellij.openapi.command.CommandProcessor;
+import com.intellij.openapi.editor.Document;
+import com.intellij.openapi.progress.ProcessCanceledException;
+import com.intellij.openapi.progress.ProgressIndicator;
+import com.intellij.openapi.progress.ProgressManager;
+import com.intellij.openapi.progress.Task;
+import com.intellij.openapi.project.Project;
+import com.intellij.openapi.ui.Messages;
+import com.intellij.psi.PsiDocumentManager;
+import com.intellij.psi.PsiFile;
+import com.intellij.psi.search.FilenameIndex;
+import com.intellij.psi.search.GlobalSearchScope;
+import sortpom.diff.TextEdit;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Logic for the Sort all poms menu command, which sorts every pom.xml file in the project
+ */
+public class SortAllPomsMenuItem extends AnAction {
+    private static final String POM_FILE_NAME = "pom.xml";
+    private static final String COMMAND_NAME = "Sort all poms";
+    private static final String COMMAND_GROUP_ID = "SortPom";
+
+    /**
+     * Performed when the menu command is chosen
+     */
+    @Override
+    public void actionPerformed(final AnActionEvent e) {
+        Project project = e.getData(PlatformDataKeys.PROJECT);
+        if (project != null) {
+            sortAllPomFiles(project);
+        }
+    }
+
+    /**
+     * Takes a snapshot of all pom files, sorts the snapshots in parallel in a background task and applies
+     * all changes in one command. Pom files that could not be sorted are reported after the others are changed.
+     */
+    private void sortAllPomFiles(final Project project) {
+        final List<PomFileSnapshot> snapshots = createSnapshots(project);
+        if (snapshots.isEmpty()) {
+            return;
+        }
+
+        ProgressManager.getInstance().run(new Task.Backgroundable(project, COMMAND_NAME, true) {
+            private final List<String> failedFiles = new ArrayList<String>();
+            private List<FileContentReplaceAction> replaceActions;
+
+            @Override
+            public void run(ProgressIndicator indicator) {
+                replaceActions = sortInParallel(project, snapshots, indicator, failedFiles);
+            }
+
+            @Override
+            public void onSuccess() {
+                if (replaceActions != null && !replaceActions.isEmpty()) {
+                    replaceFileContents(project, replaceActions);
+                }
+                if (!failedFiles.isEmpty()) {
+                    showFailedFiles(project, failedFiles);
+                }
+            }
+        });
+    }
+
+    private List<PomFileSnapshot> createSnapshots(Project project) {
+        PsiDocumentManager documentManager = PsiDocumentManager.getInstance(project);
+        PsiFile[] pomFiles = FilenameIndex.getFilesByName(project, POM_FILE_NAME, GlobalSearchScope.projectScope(project));
+        List<PomFileSnapshot> snapshots = new ArrayList<PomFileSnapshot>();
+        for (PsiFile pomFile : pomFiles) {
+            Document document = documentManager.getDocument(pomFile);
+            if (document != null && document.isWritable()) {
+                snapshots.add(new PomFileSnapshot(pomFile, document.getText(), document.getModificationStamp()));
+            }
+        }
+        return snapshots;
+    }
+
+    /**
+     * Sorts the snapshots on the pooled threads of the platform, with at most one worker per processor. The
+     * sorter of SortPomService sorts one file at a time, so every worker gets a sorter of its own with the
+     * configuration of the service. A file that could not be sorted is added to the failed files, so that
+     * the other files can still be changed.
+     */
+    private List<FileContentReplaceAction> sortInParallel(Project project, final List<PomFileSnapshot> snapshots,
+                                                          final ProgressIndicator indicator,
+                                                          List<String> failedFiles) {
+        final SortPomService sortPomService = SortPomService.getInstance(project);
+        final int nrOfFiles = snapshots.size();
+        final AtomicInteger nextFile = new AtomicInteger();
+        final AtomicInteger nrOfSortedFiles = new AtomicInteger();
+        final FileContentReplaceAction[] replaceActions = new FileContentReplaceAction[nrOfFiles];
+        final String[] failures = new String[nrOfFiles];
+        indicator.setIndeterminate(false);
+
+        int nrOfWorkers = Math.min(nrOfFiles, Runtime.getRuntime().availableProcessors());
+        List<Future<?>> workers = new ArrayList<Future<?>>();
+        for (int i = 0; i < nrOfWorkers; i++) {
+            workers.add(ApplicationManager.getApplication().executeOnPooledThread(new Runnable() {
+                @Override
+                public void run() {
+                    SortPomImpl sortPomImpl = sortPomService.createSortPomImpl();
+                    sortPomImpl.setCancellationChecker(new ProgressIndicatorCancellationChecker(indicator));
+                    int index;
+                    while ((index = nextFile.getAndIncrement()) < nrOfFiles) {
+                        indicator.checkCanceled();
+                        PomFileSnapshot snapshot = snapshots.get(index);
+                        try {
+                            List<TextEdit> textEdits = sortPomImpl.sortXmlAsTextEdits(snapshot.text);
+                            if (!textEdits.isEmpty()) {
+                                replaceActions[index] = new FileContentReplaceAction(textEdits, snapshot.psiFile,
+                                        snapshot.modificationStamp);
+                            }
+                        } catch (ProcessCanceledException e) {
+                            throw e;
+                        } catch (RuntimeException e) {
+                            failures[index] = snapshot.psiFile.getVirtualFile().getPresentableUrl() + ": " +
+                                    e.getMessage();
+                        }
+                        indicator.setFraction((double) nrOfSortedFiles.incrementAndGet() / nrOfFiles);
+                    }
+                }
+            }));
+        }
+        waitForWorkers(workers);
+
+        List<FileContentReplaceAction> sortedFiles = new ArrayList<FileContentReplaceAction>();
+        for (int i = 0; i < nrOfFiles; i++) {
+            if (replaceActions[i] != null) {
+                sortedFiles.add(replaceActions[i]);
+            }
+            if (failures[i] != null) {
+                failedFiles.add(failures[i]);
+            }
+        }
+        return sortedFiles;
+    }
+
+    /** Waits for all workers to finish. A canceled task is canceled for all files. */
+    private void waitForWorkers(List<Future<?>> workers) {
+        for (Future<?> worker : workers) {
+            try {
+                worker.get();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new RuntimeException(e);
+            } catch (ExecutionException e) {
+                if (e.getCause() instanceof ProcessCanceledException) {
+                    throw (ProcessCanceledException) e.getCause();
+                }
+                throw new RuntimeException(e.getCause());
+            }
+        }
+    }
+
+    /**
+     * Applies the changes of all files in one write action and one command, so that they are undone in one step
+     */
+    private void replaceFileContents(Project project, final List<FileContentReplaceAction> replaceActions) {
+        CommandProcessor.getInstance().executeCommand(project, new Runnable() {
+            @Override
+            public void run() {
+                ApplicationManager.getApplication().runWriteAction(new Runnable() {
+                    @Override
+                    public void run() {
+                        for (FileContentReplaceAction replaceAction : replaceActions) {
+                            replaceAction.run();
+                        }
+                    }
+                });
+            }
+        }, COMMAND_NAME, COMMAND_GROUP_ID);
+    }
+
+    private void showFailedFiles(Project project, List<String> failedFiles) {
+        StringBuilder message = new StringBuilder("Could not sort these pom files:");
+        for (String failedFile : failedFiles) {
+            message.append('\n').append(failedFile);
+        }
+        Messages.showErrorDialog(project, message.toString(), COMMAND_NAME);
+    }
+
+    /**
+     * The command is shown when a project is open
+     *
+     * @param e Carries information on the invocation place and data available
+     */
+    @Override
+    public void update(AnActionEvent e) {
+        e.getPresentation().setEnabledAndVisible(e.getData(PlatformDataKeys.PROJECT) != null);
+    }
+
+    private static class PomFileSnapshot {
+        private final PsiFile psiFile;
+        private final String text;
+        private final long modificationStamp;
+
+        PomFileSnapshot(PsiFile psiFile, String text, long modificationStamp) {
+            this.psiFile = psiFile;
+            this.text = text;
+            this.modificationStamp = modificationStamp;
+        }
+    }
+}
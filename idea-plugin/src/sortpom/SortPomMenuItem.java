@@ -4,10 +4,22 @@ import com.intellij.openapi.actionSystem.AnAction;
 import com.intellij.openapi.actionSystem.AnActionEvent;
 import com.intellij.openapi.actionSystem.LangDataKeys;
 import com.intellij.openapi.application.ApplicationManager;
+import com.intellij.openapi.command.CommandProcessor;
+import com.intellij.openapi.editor.Document;
+import com.intellij.openapi.progress.ProgressIndicator;
+import com.intellij.openapi.progress.ProgressManager;
+import com.intellij.openapi.progress.Task;
+import com.intellij.psi.PsiDocumentManager;
 import com.intellij.psi.PsiFile;
-import sortpom.logger.IdeaPluginLogger;
-import sortpom.parameter.PluginParameters;
-import sortpom.parameter.PluginParametersBuilder;
+import com.intellij.psi.util.PsiTreeUtil;
+import com.intellij.psi.xml.XmlFile;
+import org.jdom.Element;
+import sortpom.diff.TextEdit;
+import sortpom.psi.XmlTagDocumentBuilder;
+import sortpom.psi.XmlTagMoveAction;
+
+import java.util.List;
+import java.util.Map;
 
 /**
  * Logic for the Sort menu command
@@ -16,6 +28,8 @@ import sortpom.parameter.PluginParametersBuilder;
  * @since 2012-12-21
  */
 public class SortPomMenuItem extends AnAction {
+    private static final String COMMAND_NAME = "Sort pom";
+    private static final String COMMAND_GROUP_ID = "SortPom";
 
     /**
      * Performed when the menu command is chosen
@@ -23,33 +37,100 @@ public class SortPomMenuItem extends AnAction {
     @Override
     public void actionPerformed(final AnActionEvent e) {
         final PsiFile psiFile = e.getData(LangDataKeys.PSI_FILE);
-        if (isPomFile(psiFile)) {
+        if (!isPomFile(psiFile)) {
+            return;
+        }
+        if (psiFile instanceof XmlFile && !PsiTreeUtil.hasErrorElements(psiFile)
+                && SortPomService.getInstance(psiFile.getProject()).isKeepFormatting()) {
+            sortXmlTree((XmlFile) psiFile);
+        } else {
             sortFileContentAndSave(psiFile);
         }
 
     }
 
+    /**
+     * Sorts the xml tree that IntelliJ already has parsed, and moves the tags into sorted order. The text of
+     * the file is neither parsed nor replaced, so the formatting of the moved tags is kept. Only used when the
+     * configuration keeps the formatting, since the indent and the other formatting settings are not applied.
+     */
+    private void sortXmlTree(final XmlFile xmlFile) {
+        PsiDocumentManager documentManager = PsiDocumentManager.getInstance(xmlFile.getProject());
+        Document document = documentManager.getDocument(xmlFile);
+        if (document == null) {
+            return;
+        }
+        documentManager.commitDocument(document);
+        final long modificationStamp = document.getModificationStamp();
+        final XmlTagDocumentBuilder documentBuilder = new XmlTagDocumentBuilder();
+        final org.jdom.Document xmlDocument = documentBuilder.build(xmlFile);
+        if (xmlDocument == null) {
+            return;
+        }
+
+        ProgressManager.getInstance().run(new Task.Backgroundable(xmlFile.getProject(), "Sorting " + xmlFile.getName(), true) {
+            private Map<Element, List<Element>> moves;
+
+            @Override
+            public void run(ProgressIndicator indicator) {
+                indicator.setIndeterminate(true);
+                moves = SortPomService.getInstance(xmlFile.getProject())
+                        .sortDocumentAsElementMoves(xmlDocument, new ProgressIndicatorCancellationChecker(indicator));
+            }
+
+            @Override
+            public void onSuccess() {
+                if (moves == null || moves.isEmpty()) {
+                    return;
+                }
+                replaceFileContent(xmlFile, new XmlTagMoveAction(moves, documentBuilder.getTags(), xmlFile, modificationStamp));
+            }
+        });
+    }
+
+    /**
+     * Sorts the file content in a cancellable background task. Only the update of the file is done in a write
+     * action, and the update is skipped if the file was changed while it was sorted.
+     */
     private void sortFileContentAndSave(final PsiFile psiFile) {
-        String sortedXml = createSortedXml(psiFile.getText());
+        PsiDocumentManager documentManager = PsiDocumentManager.getInstance(psiFile.getProject());
+        Document document = documentManager.getDocument(psiFile);
+        if (document == null) {
+            return;
+        }
+        final String fileContent = document.getText();
+        final long modificationStamp = document.getModificationStamp();
+
+        ProgressManager.getInstance().run(new Task.Backgroundable(psiFile.getProject(), "Sorting " + psiFile.getName(), true) {
+            private List<TextEdit> textEdits;
+
+            @Override
+            public void run(ProgressIndicator indicator) {
+                indicator.setIndeterminate(true);
+                textEdits = SortPomService.getInstance(psiFile.getProject())
+                        .sortXmlAsTextEdits(fileContent, new ProgressIndicatorCancellationChecker(indicator));
+            }
 
-        FileContentReplaceAction fileContentReplaceAction = new FileContentReplaceAction(sortedXml, psiFile);
-        ApplicationManager.getApplication().runWriteAction(fileContentReplaceAction);
+            @Override
+            public void onSuccess() {
+                if (textEdits == null || textEdits.isEmpty()) {
+                    return;
+                }
+                replaceFileContent(psiFile, new FileContentReplaceAction(textEdits, psiFile, modificationStamp));
+            }
+        });
     }
 
     /**
-     * Instantiate SortPom and sort the file content
+     * Runs all document edits in one command, so that the sorting can be undone in one step
      */
-    private String createSortedXml(String fileContent) {
-        SortPomImpl sortPom = new SortPomImpl();
-        PluginParameters pluginParameters = new PluginParametersBuilder()
-                .setEncoding("UTF-8")
-                .setFormatting("\n", true, true)
-                .setIndent(2, false)
-                .setSortEntities("", "", true)
-                .setSortOrder("default_0_4_0.xml", "")
-                .createPluginParameters();
-        sortPom.setup(new IdeaPluginLogger(), pluginParameters);
-        return sortPom.sortXml(fileContent);
+    private void replaceFileContent(PsiFile psiFile, final Runnable replaceAction) {
+        CommandProcessor.getInstance().executeCommand(psiFile.getProject(), new Runnable() {
+            @Override
+            public void run() {
+                ApplicationManager.getApplication().runWriteAction(replaceAction);
+            }
+        }, COMMAND_NAME, COMMAND_GROUP_ID);
     }
 
     /**
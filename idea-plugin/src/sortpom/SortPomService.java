@@ -0,0 +1,172 @@
+package sortpom;
+
+import com.intellij.ide.util.PropertiesComponent;
+import com.intellij.openapi.components.ServiceManager;
+import com.intellij.openapi.project.Project;
+import org.jdom.Document;
+import org.jdom.Element;
+import sortpom.configuration.SortPomConfigurationData;
+import sortpom.diff.TextEdit;
+import sortpom.logger.IdeaPluginLogger;
+import sortpom.parameter.PluginParameters;
+import sortpom.parameter.PluginParametersBuilder;
+import sortpom.util.CancellationChecker;
+import sortpom.verify.MisplacedElement;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Keeps a sorter that is set up with the saved SortPom configuration of the project, so that the sort order
+ * file is only read when the configuration changes.
+ */
+public class SortPomService {
+    private final Project myProject;
+    private PluginParameters myPluginParameters;
+    private SortPomImpl mySortPomImpl;
+    private final Object myInspectionLock = new Object();
+    private SortPomImpl myInspectionSortPomImpl;
+    private volatile int myConfigurationVersion;
+
+    public SortPomService(Project project) {
+        this.myProject = project;
+    }
+
+    public static SortPomService getInstance(Project project) {
+        return ServiceManager.getService(project, SortPomService.class);
+    }
+
+    /** Makes the next sort use the newly saved configuration */
+    public synchronized void configurationChanged() {
+        myPluginParameters = null;
+        mySortPomImpl = null;
+        synchronized (myInspectionLock) {
+            myInspectionSortPomImpl = null;
+        }
+        myConfigurationVersion++;
+    }
+
+    /** Is increased every time the configuration is saved, so that cached inspection results can be dropped */
+    public int getConfigurationVersion() {
+        return myConfigurationVersion;
+    }
+
+    /**
+     * Creates a new sorter with the project configuration, for sorting in a thread of its own
+     */
+    public SortPomImpl createSortPomImpl() {
+        SortPomImpl sortPom = new SortPomImpl();
+        sortPom.setup(new IdeaPluginLogger(), getPluginParameters());
+        return sortPom;
+    }
+
+    /**
+     * Sorts the file content. The sorter is not thread safe, so sorts of different files are done one at a
+     * time.
+     *
+     * @return the edits that turn the file content into the sorted content
+     */
+    public synchronized List<TextEdit> sortXmlAsTextEdits(String fileContent, CancellationChecker cancellationChecker) {
+        SortPomImpl sortPomImpl = getSortPomImpl();
+        sortPomImpl.setCancellationChecker(cancellationChecker);
+        try {
+            return sortPomImpl.sortXmlAsTextEdits(fileContent);
+        } finally {
+            sortPomImpl.setCancellationChecker(CancellationChecker.NONE);
+        }
+    }
+
+    /**
+     * Is the formatting of the pom file kept when it is sorted. Then the tags of the file can be moved into
+     * sorted order, otherwise the sorted content must be formatted with the configured settings.
+     */
+    public boolean isKeepFormatting() {
+        return getPluginParameters().keepFormatting;
+    }
+
+    /**
+     * Sorts a document that was created from the xml tree of a file, one document at a time.
+     *
+     * @return the elements whose children must be moved, mapped to their children in sorted order
+     */
+    public synchronized Map<Element, List<Element>> sortDocumentAsElementMoves(Document document,
+                                                                              CancellationChecker cancellationChecker) {
+        SortPomImpl sortPomImpl = getSortPomImpl();
+        sortPomImpl.setCancellationChecker(cancellationChecker);
+        try {
+            return sortPomImpl.sortDocumentAsElementMoves(document);
+        } finally {
+            sortPomImpl.setCancellationChecker(CancellationChecker.NONE);
+        }
+    }
+
+    /**
+     * Finds the misplaced elements for the inspection. The inspection has a sorter of its own, so that it is
+     * not blocked by a sort that runs in the background.
+     */
+    public List<MisplacedElement> findMisplacedElements(String xml) {
+        synchronized (myInspectionLock) {
+            return getInspectionSortPomImpl().findMisplacedElements(xml);
+        }
+    }
+
+    /**
+     * Sorts the xml by moving its elements, so that the formatting of the xml is kept. Used to sort a part of
+     * a pom file.
+     */
+    public String sortXmlKeepingFormatting(String xml) {
+        synchronized (myInspectionLock) {
+            return getInspectionSortPomImpl().sortXml(xml);
+        }
+    }
+
+    private SortPomImpl getInspectionSortPomImpl() {
+        if (myInspectionSortPomImpl == null) {
+            SortPomConfigurationData configuration = loadConfiguration();
+            myInspectionSortPomImpl = new SortPomImpl();
+            myInspectionSortPomImpl.setup(new IdeaPluginLogger(), createPluginParametersBuilder(configuration)
+                    .setKeepFormatting(true)
+                    .createPluginParameters());
+        }
+        return myInspectionSortPomImpl;
+    }
+
+    private SortPomImpl getSortPomImpl() {
+        if (mySortPomImpl == null) {
+            mySortPomImpl = createSortPomImpl();
+        }
+        return mySortPomImpl;
+    }
+
+    private synchronized PluginParameters getPluginParameters() {
+        if (myPluginParameters == null) {
+            myPluginParameters = createPluginParameters(loadConfiguration());
+        }
+        return myPluginParameters;
+    }
+
+    private SortPomConfigurationData loadConfiguration() {
+        SortPomConfigurationData configuration = SortPomConfigurationData.createDefaultConfiguration();
+        PropertiesComponent.getInstance(myProject).loadFields(configuration);
+        return configuration;
+    }
+
+    /**
+     * Creates SortPom parameters from the configuration. IntelliJ documents always use \n as line separator,
+     * the configured line separator is used by IntelliJ when the file is saved.
+     */
+    private PluginParameters createPluginParameters(SortPomConfigurationData configuration) {
+        return createPluginParametersBuilder(configuration)
+                .setKeepFormatting(configuration.keepFormatting)
+                .createPluginParameters();
+    }
+
+    private PluginParametersBuilder createPluginParametersBuilder(SortPomConfigurationData configuration) {
+        return new PluginParametersBuilder()
+                .setEncoding("UTF-8")
+                .setFormatting("\n", configuration.expandEmptyElements, configuration.keepBlankLines)
+                .setIndent(configuration.nrOfIndentSpace, configuration.indentBlankLines)
+                .setSortEntities(configuration.sortDependencies, configuration.sortPlugins, configuration.sortProperties)
+                .setSortOrder(null, configuration.predefinedSortOrder);
+    }
+}
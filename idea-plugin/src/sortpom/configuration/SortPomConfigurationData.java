@@ -27,8 +27,10 @@ public class SortPomConfigurationData {
     public final boolean keepBlankLines;
     @PropertyName(value = "SortPom.indentBlankLines")
     public final boolean indentBlankLines;
+    @PropertyName(value = "SortPom.keepFormatting")
+    public final boolean keepFormatting;
 
-    public SortPomConfigurationData(String sortDependencies, String sortPlugins, String predefinedSortOrder, String lineSeparator, int nrOfIndentSpace, boolean sortProperties, boolean expandEmptyElements, boolean keepBlankLines, boolean indentBlankLines) {
+    public SortPomConfigurationData(String sortDependencies, String sortPlugins, String predefinedSortOrder, String lineSeparator, int nrOfIndentSpace, boolean sortProperties, boolean expandEmptyElements, boolean keepBlankLines, boolean indentBlankLines, boolean keepFormatting) {
         this.sortDependencies = sortDependencies;
         this.sortPlugins = sortPlugins;
         this.predefinedSortOrder = predefinedSortOrder;
@@ -38,5 +40,21 @@ public class SortPomConfigurationData {
         this.expandEmptyElements = expandEmptyElements;
         this.keepBlankLines = keepBlankLines;
         this.indentBlankLines = indentBlankLines;
+        this.keepFormatting = keepFormatting;
+    }
+
+    /** The values that are used until the configuration is saved */
+    public static SortPomConfigurationData createDefaultConfiguration() {
+        return new SortPomConfigurationData(
+                "",
+                "",
+                "default_1_0_0",
+                "\\n",
+                2,
+                false,
+                true,
+                false,
+                false,
+                false);
     }
 }
@@ -7,6 +7,7 @@ import com.intellij.openapi.project.Project;
 import com.intellij.uiDesigner.core.GridConstraints;
 import com.intellij.uiDesigner.core.GridLayoutManager;
 import com.intellij.uiDesigner.core.Spacer;
+import sortpom.SortPomService;
 
 import javax.swing.*;
 import java.awt.*;
@@ -33,6 +34,7 @@ public class SortPomProjectConfiguration implements Configurable {
     private JCheckBox expandEmptyElementsField;
     private JCheckBox keepBlankLinesField;
     private JCheckBox indentBlankLines;
+    private JCheckBox keepFormattingField;
 
 
     /**
@@ -65,6 +67,7 @@ public class SortPomProjectConfiguration implements Configurable {
         expandEmptyElementsField.addItemListener(new CheckBoxLabelChangeListener("Expand", "Do not expand"));
         keepBlankLinesField.addItemListener(new CheckBoxLabelChangeListener("Keep", "Do not keep"));
         indentBlankLines.addItemListener(new CheckBoxLabelChangeListener("Yes", "No"));
+        keepFormattingField.addItemListener(new CheckBoxLabelChangeListener("Keep", "Do not keep"));
 
         keepBlankLinesField.addItemListener(new ItemListener() {
             @Override
@@ -101,20 +104,12 @@ public class SortPomProjectConfiguration implements Configurable {
         expandEmptyElementsField.setSelected(store.expandEmptyElements);
         keepBlankLinesField.setSelected(store.keepBlankLines);
         indentBlankLines.setSelected(store.indentBlankLines);
+        keepFormattingField.setSelected(store.keepFormatting);
 
     }
 
     private SortPomConfigurationData createDefaultConfiguration() {
-        return new SortPomConfigurationData(
-                "",
-                "",
-                "default_1_0_0",
-                "\\n",
-                2,
-                false,
-                true,
-                false,
-                false);
+        return SortPomConfigurationData.createDefaultConfiguration();
     }
 
     public String getDisplayName() {
@@ -144,7 +139,8 @@ public class SortPomProjectConfiguration implements Configurable {
                 sortPropertiesField.isSelected(),
                 expandEmptyElementsField.isSelected(),
                 keepBlankLinesField.isSelected(),
-                indentBlankLines.isSelected());
+                indentBlankLines.isSelected(),
+                keepFormattingField.isSelected());
 
         PropertiesComponent propertiesComponent = PropertiesComponent.getInstance(project);
         boolean success = propertiesComponent.saveFields(store);
@@ -152,6 +148,7 @@ public class SortPomProjectConfiguration implements Configurable {
         if (!success) {
             LOG.error("Could not save SortPom configuration");
         }
+        SortPomService.getInstance(project).configurationChanged();
     }
 
     public void disposeUIResources() {
@@ -337,6 +334,21 @@ public class SortPomProjectConfiguration implements Configurable {
         gbc.anchor = GridBagConstraints.WEST;
         gbc.fill = GridBagConstraints.HORIZONTAL;
         myPanel.add(indentField, gbc);
+        final JLabel label11 = new JLabel();
+        label11.setText("Formatting:");
+        gbc = new GridBagConstraints();
+        gbc.gridx = 0;
+        gbc.gridy = 10;
+        gbc.anchor = GridBagConstraints.EAST;
+        myPanel.add(label11, gbc);
+        keepFormattingField = new JCheckBox();
+        keepFormattingField.setText("Do not keep");
+        gbc = new GridBagConstraints();
+        gbc.gridx = 1;
+        gbc.gridy = 10;
+        gbc.weightx = 1.0;
+        gbc.anchor = GridBagConstraints.WEST;
+        myPanel.add(keepFormattingField, gbc);
     }
 
     /**
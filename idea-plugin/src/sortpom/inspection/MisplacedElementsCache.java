@@ -0,0 +1,88 @@
+package sortpom.inspection;
+
+import com.intellij.openapi.util.Key;
+import com.intellij.openapi.util.TextRange;
+import com.intellij.psi.xml.XmlFile;
+import sortpom.SortPomService;
+import sortpom.verify.MisplacedElement;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Keeps the misplaced elements of a pom file for the document modification stamp they were found for. When
+ * the document is changed, only the element group that contains the changed text is verified again and the
+ * rest of the cached result is kept.
+ */
+public class MisplacedElementsCache {
+    private static final Key<MisplacedElementsCache> CACHE_KEY = Key.create("sortpom.misplacedElements");
+
+    private final long myModificationStamp;
+    private final int myConfigurationVersion;
+    private final String myText;
+    private final List<MisplacedElement> myMisplacedElements;
+
+    private MisplacedElementsCache(long modificationStamp, int configurationVersion, String text,
+                                   List<MisplacedElement> misplacedElements) {
+        this.myModificationStamp = modificationStamp;
+        this.myConfigurationVersion = configurationVersion;
+        this.myText = text;
+        this.myMisplacedElements = misplacedElements;
+    }
+
+    /**
+     * Returns the misplaced elements of the pom file, from the cache if the document has not been changed.
+     *
+     * @param modificationStamp the modification stamp of the committed document
+     * @param text              the text of the committed document
+     */
+    public static List<MisplacedElement> getMisplacedElements(XmlFile xmlFile, long modificationStamp, String text) {
+        SortPomService sortPomService = SortPomService.getInstance(xmlFile.getProject());
+        int configurationVersion = sortPomService.getConfigurationVersion();
+        MisplacedElementsCache cache = xmlFile.getUserData(CACHE_KEY);
+
+        List<MisplacedElement> misplacedElements;
+        if (cache == null || cache.myConfigurationVersion != configurationVersion) {
+            misplacedElements = sortPomService.findMisplacedElements(text);
+        } else if (cache.myModificationStamp == modificationStamp) {
+            return cache.myMisplacedElements;
+        } else {
+            misplacedElements = cache.verifyChangedGroup(xmlFile, sortPomService, text);
+        }
+        xmlFile.putUserData(CACHE_KEY, new MisplacedElementsCache(modificationStamp, configurationVersion, text, misplacedElements));
+        return misplacedElements;
+    }
+
+    private List<MisplacedElement> verifyChangedGroup(XmlFile xmlFile, SortPomService sortPomService, String text) {
+        PomElementGroup changedGroup = PomElementGroup.findChangedGroup(xmlFile, findChangedRange(myText, text));
+        if (changedGroup == null) {
+            return sortPomService.findMisplacedElements(text);
+        }
+        List<MisplacedElement> misplacedElements = new ArrayList<MisplacedElement>();
+        for (MisplacedElement misplacedElement : myMisplacedElements) {
+            if (!changedGroup.contains(misplacedElement.getPath())) {
+                misplacedElements.add(misplacedElement);
+            }
+        }
+        for (MisplacedElement misplacedElement : sortPomService.findMisplacedElements(changedGroup.getXml())) {
+            misplacedElements.add(new MisplacedElement(changedGroup.toPomPath(misplacedElement.getPath()),
+                    misplacedElement.getExpectedPosition(), misplacedElement.getActualPosition(), 0));
+        }
+        return misplacedElements;
+    }
+
+    /** The range in the new text that differs from the old text */
+    static TextRange findChangedRange(String oldText, String newText) {
+        int maxLength = Math.min(oldText.length(), newText.length());
+        int prefixLength = 0;
+        while (prefixLength < maxLength && oldText.charAt(prefixLength) == newText.charAt(prefixLength)) {
+            prefixLength++;
+        }
+        int suffixLength = 0;
+        while (suffixLength < maxLength - prefixLength
+                && oldText.charAt(oldText.length() - 1 - suffixLength) == newText.charAt(newText.length() - 1 - suffixLength)) {
+            suffixLength++;
+        }
+        return new TextRange(prefixLength, newText.length() - suffixLength);
+    }
+}
@@ -0,0 +1,167 @@
+package sortpom.inspection;
+
+import com.intellij.openapi.util.TextRange;
+import com.intellij.psi.PsiElement;
+import com.intellij.psi.util.PsiTreeUtil;
+import com.intellij.psi.xml.XmlFile;
+import com.intellij.psi.xml.XmlTag;
+import sortpom.exception.FailureException;
+
+import java.util.*;
+
+/**
+ * A tag in the pom file whose child elements are verified or sorted without the rest of the pom file. The tag
+ * text is placed inside empty ancestor elements, so that the sorter uses the same sort order as for the
+ * whole pom file.
+ */
+public class PomElementGroup {
+    /** The position of these elements depends on the text of their children, e.g. groupId and artifactId */
+    private static final Set<String> ELEMENTS_SORTED_BY_CONTENT = new HashSet<String>(Arrays.asList("dependency", "plugin"));
+
+    private final XmlTag myTag;
+    private final List<String> myAncestorNames;
+    private final String myPath;
+
+    public PomElementGroup(XmlTag tag) {
+        this.myTag = tag;
+        this.myAncestorNames = getAncestorNames(tag);
+        this.myPath = getPath(tag);
+    }
+
+    /**
+     * Finds the smallest group that must be verified again when the text within the range has been changed.
+     *
+     * @return the group, or null if the whole pom file must be verified
+     */
+    public static PomElementGroup findChangedGroup(XmlFile xmlFile, TextRange changedRange) {
+        XmlTag changedTag = findTagContaining(xmlFile, changedRange);
+        if (changedTag == null) {
+            return null;
+        }
+        // The changed tag may have to be moved among its siblings, so the group is the parent of the tag
+        XmlTag groupTag = changedTag.getParentTag();
+        while (groupTag != null && ELEMENTS_SORTED_BY_CONTENT.contains(groupTag.getName())) {
+            groupTag = groupTag.getParentTag();
+        }
+        if (groupTag == null || groupTag.getParentTag() == null) {
+            return null;
+        }
+        return new PomElementGroup(groupTag);
+    }
+
+    private static XmlTag findTagContaining(XmlFile xmlFile, TextRange range) {
+        PsiElement element = xmlFile.findElementAt(range.getStartOffset());
+        XmlTag tag = PsiTreeUtil.getParentOfType(element, XmlTag.class, false);
+        while (tag != null && !tag.getTextRange().contains(range)) {
+            tag = tag.getParentTag();
+        }
+        return tag;
+    }
+
+    public XmlTag getTag() {
+        return myTag;
+    }
+
+    /** The path of the group, in the same form as the paths of misplaced elements in the whole pom file */
+    public String getPath() {
+        return myPath;
+    }
+
+    /** The group text inside empty ancestor elements */
+    public String getXml() {
+        return getAncestorStartTags() + myTag.getText() + getAncestorEndTags();
+    }
+
+    /** Returns the text of the group from a sorted xml that was created from the getXml text */
+    public String getGroupText(String sortedXml) {
+        String startTags = getAncestorStartTags();
+        String endTags = getAncestorEndTags();
+        if (!sortedXml.startsWith(startTags) || !sortedXml.endsWith(endTags)) {
+            throw new FailureException("Could not find the sorted element " + myPath);
+        }
+        return sortedXml.substring(startTags.length(), sortedXml.length() - endTags.length());
+    }
+
+    /** Converts a path of a misplaced element in the getXml text into a path in the whole pom file */
+    public String toPomPath(String groupXmlPath) {
+        StringBuilder groupPrefix = new StringBuilder();
+        for (String ancestorName : myAncestorNames) {
+            groupPrefix.append('/').append(ancestorName);
+        }
+        groupPrefix.append('/').append(myTag.getName());
+        return myPath + groupXmlPath.substring(groupPrefix.length());
+    }
+
+    /** Returns true if the path in the whole pom file is an element within the group */
+    public boolean contains(String pomPath) {
+        return pomPath.startsWith(myPath + "/");
+    }
+
+    private String getAncestorStartTags() {
+        StringBuilder startTags = new StringBuilder();
+        for (String ancestorName : myAncestorNames) {
+            startTags.append('<').append(ancestorName).append('>');
+        }
+        return startTags.toString();
+    }
+
+    private String getAncestorEndTags() {
+        StringBuilder endTags = new StringBuilder();
+        ListIterator<String> iterator = myAncestorNames.listIterator(myAncestorNames.size());
+        while (iterator.hasPrevious()) {
+            endTags.append("</").append(iterator.previous()).append('>');
+        }
+        return endTags.toString();
+    }
+
+    private static List<String> getAncestorNames(XmlTag tag) {
+        LinkedList<String> ancestorNames = new LinkedList<String>();
+        for (XmlTag parent = tag.getParentTag(); parent != null; parent = parent.getParentTag()) {
+            ancestorNames.addFirst(parent.getName());
+        }
+        return ancestorNames;
+    }
+
+    /**
+     * Creates the path of a tag the same way as the verify report does, where an index is only added when
+     * several siblings have the same name
+     */
+    static String getPath(XmlTag tag) {
+        XmlTag parent = tag.getParentTag();
+        if (parent == null) {
+            return "/" + tag.getName();
+        }
+        XmlTag[] sameNameSiblings = parent.findSubTags(tag.getName(), tag.getNamespace());
+        if (sameNameSiblings.length == 1) {
+            return getPath(parent) + "/" + tag.getName();
+        }
+        int index = Arrays.asList(sameNameSiblings).indexOf(tag) + 1;
+        return getPath(parent) + "/" + tag.getName() + "[" + index + "]";
+    }
+
+    /**
+     * Finds the tag in the pom file from the path of a misplaced element
+     *
+     * @return the tag, or null if the pom file has been changed so that the path does not exist
+     */
+    static XmlTag findTag(XmlFile xmlFile, String pomPath) {
+        XmlTag rootTag = xmlFile.getRootTag();
+        String[] names = pomPath.substring(1).split("/");
+        if (rootTag == null || !rootTag.getName().equals(names[0])) {
+            return null;
+        }
+        XmlTag tag = rootTag;
+        for (int i = 1; i < names.length && tag != null; i++) {
+            tag = findSubTag(tag, names[i]);
+        }
+        return tag;
+    }
+
+    private static XmlTag findSubTag(XmlTag parent, String nameWithIndex) {
+        int indexStart = nameWithIndex.indexOf('[');
+        String name = indexStart == -1 ? nameWithIndex : nameWithIndex.substring(0, indexStart);
+        int index = indexStart == -1 ? 1 : Integer.parseInt(nameWithIndex.substring(indexStart + 1, nameWithIndex.length() - 1));
+        XmlTag[] subTags = parent.findSubTags(name, parent.getNamespace());
+        return index <= subTags.length ? subTags[index - 1] : null;
+    }
+}
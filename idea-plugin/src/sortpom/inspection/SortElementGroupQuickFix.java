@@ -0,0 +1,62 @@
+package sortpom.inspection;
+
+import com.intellij.codeInspection.LocalQuickFix;
+import com.intellij.codeInspection.ProblemDescriptor;
+import com.intellij.openapi.editor.Document;
+import com.intellij.openapi.project.Project;
+import com.intellij.psi.PsiDocumentManager;
+import com.intellij.psi.PsiFile;
+import com.intellij.psi.util.PsiTreeUtil;
+import com.intellij.psi.xml.XmlTag;
+import org.jetbrains.annotations.NotNull;
+import sortpom.FileContentReplaceAction;
+import sortpom.SortPomService;
+import sortpom.diff.LineDiff;
+import sortpom.diff.TextEdit;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Sorts the element group that contains a misplaced element, without touching the rest of the pom file. The
+ * elements are moved as text, so that the formatting of the group is kept.
+ */
+public class SortElementGroupQuickFix implements LocalQuickFix {
+
+    @NotNull
+    @Override
+    public String getName() {
+        return "Sort the elements in this group";
+    }
+
+    @NotNull
+    @Override
+    public String getFamilyName() {
+        return "SortPom";
+    }
+
+    @Override
+    public void applyFix(@NotNull Project project, @NotNull ProblemDescriptor descriptor) {
+        XmlTag misplacedTag = PsiTreeUtil.getParentOfType(descriptor.getPsiElement(), XmlTag.class, false);
+        if (misplacedTag == null || misplacedTag.getParentTag() == null) {
+            return;
+        }
+        PsiFile psiFile = misplacedTag.getContainingFile();
+        Document document = PsiDocumentManager.getInstance(project).getDocument(psiFile);
+        if (document == null) {
+            return;
+        }
+        PomElementGroup group = new PomElementGroup(misplacedTag.getParentTag());
+        String groupText = group.getTag().getText();
+        String sortedGroupText = group.getGroupText(SortPomService.getInstance(project).sortXmlKeepingFormatting(group.getXml()));
+
+        int groupOffset = group.getTag().getTextRange().getStartOffset();
+        List<TextEdit> textEdits = new ArrayList<TextEdit>();
+        for (TextEdit textEdit : new LineDiff(groupText, sortedGroupText).getTextEdits()) {
+            textEdits.add(new TextEdit(groupOffset + textEdit.getOffset(), textEdit.getLength(), textEdit.getReplacement()));
+        }
+        if (!textEdits.isEmpty()) {
+            new FileContentReplaceAction(textEdits, psiFile, document.getModificationStamp()).run();
+        }
+    }
+}
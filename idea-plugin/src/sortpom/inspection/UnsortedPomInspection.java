@@ -0,0 +1,94 @@
+package sortpom.inspection;
+
+import com.intellij.codeInspection.InspectionManager;
+import com.intellij.codeInspection.LocalInspectionTool;
+import com.intellij.codeInspection.ProblemDescriptor;
+import com.intellij.codeInspection.ProblemHighlightType;
+import com.intellij.lang.ASTNode;
+import com.intellij.openapi.editor.Document;
+import com.intellij.psi.PsiDocumentManager;
+import com.intellij.psi.PsiElement;
+import com.intellij.psi.PsiFile;
+import com.intellij.psi.xml.XmlChildRole;
+import com.intellij.psi.xml.XmlFile;
+import com.intellij.psi.xml.XmlTag;
+import org.jetbrains.annotations.Nls;
+import org.jetbrains.annotations.NotNull;
+import sortpom.SortPomService;
+import sortpom.exception.FailureException;
+import sortpom.verify.MisplacedElement;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Highlights the elements in pom.xml that are not placed where SortPom would place them. The highlight has
+ * a quick fix that sorts the element group that contains the misplaced element.
+ */
+public class UnsortedPomInspection extends LocalInspectionTool {
+
+    @Nls
+    @NotNull
+    @Override
+    public String getGroupDisplayName() {
+        return "SortPom";
+    }
+
+    @Nls
+    @NotNull
+    @Override
+    public String getDisplayName() {
+        return "Unsorted pom elements";
+    }
+
+    @NotNull
+    @Override
+    public String getShortName() {
+        return "UnsortedPom";
+    }
+
+    @Override
+    public boolean isEnabledByDefault() {
+        return true;
+    }
+
+    @Override
+    public ProblemDescriptor[] checkFile(@NotNull PsiFile file, @NotNull InspectionManager manager, boolean isOnTheFly) {
+        if (!(file instanceof XmlFile) || !"pom.xml".equalsIgnoreCase(file.getName())) {
+            return null;
+        }
+        XmlFile xmlFile = (XmlFile) file;
+        List<MisplacedElement> misplacedElements;
+        try {
+            misplacedElements = findMisplacedElements(xmlFile, isOnTheFly);
+        } catch (FailureException e) {
+            // The pom file cannot be parsed while it is being edited
+            return null;
+        }
+
+        List<ProblemDescriptor> problems = new ArrayList<ProblemDescriptor>();
+        for (MisplacedElement misplacedElement : misplacedElements) {
+            XmlTag tag = PomElementGroup.findTag(xmlFile, misplacedElement.getPath());
+            if (tag != null) {
+                problems.add(manager.createProblemDescriptor(getTagNameElement(tag), misplacedElement.getMessage(),
+                        new SortElementGroupQuickFix(), ProblemHighlightType.GENERIC_ERROR_OR_WARNING, isOnTheFly));
+            }
+        }
+        return problems.toArray(new ProblemDescriptor[problems.size()]);
+    }
+
+    /** The cache is only used while editing, a batch inspection always verifies the whole pom file */
+    private List<MisplacedElement> findMisplacedElements(XmlFile xmlFile, boolean isOnTheFly) {
+        Document document = PsiDocumentManager.getInstance(xmlFile.getProject()).getDocument(xmlFile);
+        if (!isOnTheFly || document == null) {
+            return SortPomService.getInstance(xmlFile.getProject()).findMisplacedElements(xmlFile.getText());
+        }
+        return MisplacedElementsCache.getMisplacedElements(xmlFile, document.getModificationStamp(), document.getText());
+    }
+
+    /** Only the name in the start tag is highlighted, instead of the whole element */
+    private PsiElement getTagNameElement(XmlTag tag) {
+        ASTNode tagName = XmlChildRole.START_TAG_NAME_FINDER.findChild(tag.getNode());
+        return tagName == null ? tag : tagName.getPsi();
+    }
+}
@@ -0,0 +1,68 @@
+package sortpom.psi;
+
+import com.intellij.psi.PsiElement;
+import com.intellij.psi.xml.XmlAttribute;
+import com.intellij.psi.xml.XmlFile;
+import com.intellij.psi.xml.XmlTag;
+import com.intellij.psi.xml.XmlText;
+import org.jdom.Document;
+import org.jdom.Element;
+import org.jdom.Namespace;
+import org.jdom.Text;
+
+import java.util.IdentityHashMap;
+import java.util.Map;
+
+/**
+ * Creates a dom document from the xml tree that IntelliJ already has parsed, so that the pom file text does
+ * not have to be parsed again by the sorter. Comments are left out, since they are moved together with the
+ * tags and do not affect the sort order.
+ */
+public class XmlTagDocumentBuilder {
+    private final Map<Element, XmlTag> myTags = new IdentityHashMap<Element, XmlTag>();
+
+    /**
+     * Must be called within a read action
+     *
+     * @return the document, or null if the file has no root tag
+     */
+    public Document build(XmlFile xmlFile) {
+        myTags.clear();
+        XmlTag rootTag = xmlFile.getRootTag();
+        if (rootTag == null) {
+            return null;
+        }
+        return new Document(createElement(rootTag));
+    }
+
+    /** The tags that the elements in the latest built document were created from */
+    public Map<Element, XmlTag> getTags() {
+        return myTags;
+    }
+
+    private Element createElement(XmlTag tag) {
+        Element element = new Element(tag.getLocalName());
+        myTags.put(element, tag);
+        for (XmlAttribute attribute : tag.getAttributes()) {
+            if (!attribute.isNamespaceDeclaration()) {
+                element.setAttribute(attribute.getLocalName(), attribute.getValue(), getNamespace(attribute));
+            }
+        }
+        for (PsiElement child : tag.getChildren()) {
+            if (child instanceof XmlTag) {
+                element.addContent(createElement((XmlTag) child));
+            } else if (child instanceof XmlText) {
+                element.addContent(new Text(((XmlText) child).getValue()));
+            }
+        }
+        return element;
+    }
+
+    private Namespace getNamespace(XmlAttribute attribute) {
+        String prefix = attribute.getNamespacePrefix();
+        if (prefix.length() == 0) {
+            return Namespace.NO_NAMESPACE;
+        }
+        return Namespace.getNamespace(prefix, attribute.getNamespace());
+    }
+}
@@ -0,0 +1,98 @@
+package sortpom.psi;
+
+import com.intellij.openapi.editor.Document;
+import com.intellij.psi.PsiDocumentManager;
+import com.intellij.psi.PsiElement;
+import com.intellij.psi.PsiFile;
+import com.intellij.psi.PsiWhiteSpace;
+import com.intellij.psi.xml.XmlComment;
+import com.intellij.psi.xml.XmlTag;
+import com.intellij.psi.xml.XmlText;
+import org.jdom.Element;
+
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Sorts the xml tree of a file by moving its tags when the run method is invoked. Each tag is moved together
+ * with the comments and whitespace before it, so the formatting of the file is kept and IntelliJ does not
+ * have to reparse the whole file. Nothing is moved if the file was changed after it was sorted.
+ */
+public class XmlTagMoveAction implements Runnable {
+    private final Map<Element, List<Element>> myMoves;
+    private final Map<Element, XmlTag> myTags;
+    private final PsiFile myPsiFile;
+    private final long mySortedModificationStamp;
+
+    /**
+     * @param moves                   the moves from the sorter, deeper elements before their ancestors
+     * @param tags                    the tags that the sorted elements were created from
+     * @param sortedModificationStamp the modification stamp of the document when the tags were read
+     */
+    public XmlTagMoveAction(Map<Element, List<Element>> moves, Map<Element, XmlTag> tags, PsiFile psiFile,
+                            long sortedModificationStamp) {
+        this.myMoves = moves;
+        this.myTags = tags;
+        this.myPsiFile = psiFile;
+        this.mySortedModificationStamp = sortedModificationStamp;
+    }
+
+    public void run() {
+        PsiDocumentManager documentManager = PsiDocumentManager.getInstance(myPsiFile.getProject());
+        Document document = documentManager.getDocument(myPsiFile);
+        if (document == null || document.getModificationStamp() != mySortedModificationStamp || !myPsiFile.isValid()) {
+            return;
+        }
+        documentManager.commitDocument(document);
+
+        // Deeper tags are moved first, so that their ancestors are still in place
+        for (Map.Entry<Element, List<Element>> move : myMoves.entrySet()) {
+            moveSubTags(myTags.get(move.getKey()), getTags(move.getValue()));
+        }
+
+        documentManager.doPostponedOperationsAndUnblockDocument(document);
+    }
+
+    private List<XmlTag> getTags(List<Element> elements) {
+        List<XmlTag> tags = new ArrayList<XmlTag>(elements.size());
+        for (Element element : elements) {
+            tags.add(myTags.get(element));
+        }
+        return tags;
+    }
+
+    /**
+     * Copies the sub tags in sorted order after the last sub tag, and then removes the original sub tags
+     */
+    private void moveSubTags(XmlTag parentTag, List<XmlTag> sortedSubTags) {
+        XmlTag[] originalSubTags = parentTag.getSubTags();
+        Map<XmlTag, PsiElement> segmentStarts = new IdentityHashMap<XmlTag, PsiElement>();
+        for (XmlTag subTag : originalSubTags) {
+            segmentStarts.put(subTag, getSegmentStart(subTag));
+        }
+        PsiElement anchor = originalSubTags[originalSubTags.length - 1].getNextSibling();
+        for (XmlTag subTag : sortedSubTags) {
+            parentTag.addRangeBefore(segmentStarts.get(subTag), subTag, anchor);
+        }
+        for (XmlTag subTag : originalSubTags) {
+            parentTag.deleteChildRange(segmentStarts.get(subTag), subTag);
+        }
+    }
+
+    /** A tag is moved together with the whitespace, comments and blank text between the previous tag and itself */
+    private PsiElement getSegmentStart(XmlTag tag) {
+        PsiElement segmentStart = tag;
+        PsiElement previous = tag.getPrevSibling();
+        while (previous instanceof PsiWhiteSpace || previous instanceof XmlComment || isBlankText(previous)) {
+            segmentStart = previous;
+            previous = previous.getPrevSibling();
+        }
+        return segmentStart;
+    }
+
+    private boolean isBlankText(PsiElement element) {
+        return element instanceof XmlText && element.getText().trim().length() == 0;
+    }
+}
@@ -1,12 +1,19 @@
 package sortpom;
 
+import org.apache.maven.execution.MavenSession;
 import org.apache.maven.plugin.AbstractMojo;
 import org.apache.maven.plugin.MojoFailureException;
 import sortpom.exception.ExceptionHandler;
 import sortpom.exception.FailureException;
 import sortpom.logger.MavenLogger;
+import sortpom.metrics.SortStatistics;
 import sortpom.parameter.PluginParameters;
 import sortpom.parameter.PluginParametersBuilder;
+import sortpom.reactor.PomOutcome;
+import sortpom.reactor.SessionEndListener;
+import sortpom.reactor.SharedAsyncPomWriter;
+import sortpom.reactor.SharedPhaseListener;
+import sortpom.reactor.SharedReactorSummary;
 
 import java.io.File;
 
@@ -80,6 +87,21 @@ public class VerifyMojo extends AbstractMojo {
      */
     private String verifyFail;
 
+    /**
+     * Saves a report with all misplaced elements in the pom file, so that they can be fixed in one go. No
+     * report is saved if the parameter is omitted.
+     *
+     * @parameter expression="${sort.verifyReportFile}"
+     */
+    private File verifyReportFile;
+
+    /**
+     * The format of the verify report. Can be either 'json' or 'checkstyle'
+     *
+     * @parameter expression="${sort.verifyReportFormat}" default-value="json"
+     */
+    private String verifyReportFormat;
+
 
     /**
      * Should a backup copy be created for the sorted pom.
@@ -133,8 +155,84 @@ public class VerifyMojo extends AbstractMojo {
      */
     private boolean indentBlankLines;
 
+    /**
+     * Sorts large independent parts of the pom, such as dependencyManagement, each profile or the build plugins,
+     * in parallel. The value is the minimum number of xml elements that such a part must contain to be sorted
+     * in a thread of its own. The value 0 turns parallel sorting off.
+     *
+     * @parameter expression="${sort.parallelSortThreshold}" default-value="0"
+     */
+    private int parallelSortThreshold;
+
+    /**
+     * Should the formatting of the pom file be kept. The elements are then only moved to their sorted places,
+     * and indentation, comments and attributes are kept as they are. The formatting parameters, such as
+     * lineSeparator and nrOfIndentSpace, are not used in this mode.
+     *
+     * @parameter expression="${sort.keepFormatting}" default-value="false"
+     */
+    private boolean keepFormatting;
+
+    /**
+     * Should the pom file only be saved if its content changes. The new content is then written to a
+     * temporary file that is moved into place, which leaves the file untouched for file watchers and
+     * incremental builds when nothing changed.
+     *
+     * @parameter expression="${sort.atomicWrite}" default-value="false"
+     */
+    private boolean atomicWrite;
+
+    /**
+     * Should the saved pom file be forced to disk (fsync) before the plugin continues.
+     *
+     * @parameter expression="${sort.syncWrite}" default-value="false"
+     */
+    private boolean syncWrite;
+
+    /**
+     * Should the sorted pom files be saved in the background, while the build continues with the next
+     * module. All pom files are saved when the build ends, and a pom file that could not be saved fails the
+     * build then.
+     *
+     * @parameter expression="${sort.asyncWrite}" default-value="false"
+     */
+    private boolean asyncWrite;
+
+    /**
+     * The Maven session, the summaries of all modules are logged when it ends.
+     *
+     * @parameter expression="${session}"
+     * @readonly
+     */
+    private MavenSession session;
+
+    /**
+     * Should a summary of all pom files in the reactor be saved as json, to track the plugin between builds.
+     * The summary is saved to target/sortpom-summary.json in the directory where the build was started.
+     *
+     * @parameter expression="${sort.saveSummary}" default-value="false"
+     */
+    private boolean saveSummary;
+
+    /**
+     * Saves the phase times of all pom files in the reactor to this file, in the Chrome trace event format
+     * that can be opened in chrome://tracing. No trace is recorded if the parameter is not set.
+     *
+     * @parameter expression="${sort.traceFile}"
+     */
+    private File traceFile;
+
+    /**
+     * The directory where the build was started.
+     *
+     * @parameter expression="${session.executionRootDirectory}"
+     * @readonly
+     */
+    private String executionRootDirectory;
+
 
     private final SortPomImpl sortPomImpl = new SortPomImpl();
+    private SortStatistics sortStatistics;
 
     public VerifyMojo() {
     }
@@ -159,12 +257,24 @@ public class VerifyMojo extends AbstractMojo {
                 .setEncoding(encoding)
                 .setFormatting(lineSeparator, expandEmptyElements, keepBlankLines)
                 .setIndent(nrOfIndentSpace, indentBlankLines)
+                .setKeepFormatting(keepFormatting)
                 .setSortOrder(sortOrderFile, predefinedSortOrder)
                 .setSortEntities(sortDependencies, sortPlugins, sortProperties)
                 .setVerifyFail(verifyFail)
+                .setVerifyReport(verifyReportFile, verifyReportFormat)
+                .setParallelSortThreshold(parallelSortThreshold)
+                .setWriteMode(atomicWrite, syncWrite)
                 .createPluginParameters();
         try {
             sortPomImpl.setup(new MavenLogger(getLog()), pluginParameters);
+            if (asyncWrite) {
+                sortPomImpl.setAsyncPomWriter(SharedAsyncPomWriter.getInstance());
+            }
+            sortPomImpl.setPhaseListener(SharedPhaseListener.getInstance(getLog(), traceFile));
+            if (getLog().isDebugEnabled()) {
+                sortStatistics = new SortStatistics();
+                sortPomImpl.setSortStatistics(sortStatistics);
+            }
         } catch (FailureException fex) {
             ExceptionHandler.throwMojoFailureException(fex);
         }
@@ -172,10 +282,38 @@ public class VerifyMojo extends AbstractMojo {
 
     private void sortPom() throws MojoFailureException {
         try {
-            sortPomImpl.verifyPom();
+            long start = System.nanoTime();
+            boolean sorted = sortPomImpl.verifyPom();
+            SharedReactorSummary.getInstance().add(pomFile, sortPomImpl.getPomFileSize(),
+                    System.nanoTime() - start, getOutcome(sorted));
+            logSortStatistics();
+            SessionEndListener.finishAtSessionEnd(session, new MavenLogger(getLog()), getSummaryFile());
         } catch (FailureException fex) {
             ExceptionHandler.throwMojoFailureException(fex);
         }
     }
 
+    private PomOutcome getOutcome(boolean sorted) {
+        if (sorted) {
+            return PomOutcome.ALREADY_SORTED;
+        }
+        return "sort".equalsIgnoreCase(verifyFail) ? PomOutcome.REWRITTEN : PomOutcome.NOT_SORTED;
+    }
+
+    private void logSortStatistics() {
+        if (sortStatistics != null) {
+            for (String line : sortStatistics.createReport()) {
+                getLog().debug(line);
+            }
+        }
+    }
+
+    private File getSummaryFile() {
+        if (!saveSummary) {
+            return null;
+        }
+        File rootDirectory = executionRootDirectory == null ? new File(".") : new File(executionRootDirectory);
+        return new File(new File(rootDirectory, "target"), "sortpom-summary.json");
+    }
+
 }
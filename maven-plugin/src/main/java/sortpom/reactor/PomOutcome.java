@@ -0,0 +1,13 @@
+package sortpom.reactor;
+
+/**
+ * What the plugin did with a pom file.
+ */
+public enum PomOutcome {
+    /** The pom file was already sorted and was not touched */
+    ALREADY_SORTED,
+    /** The pom file was sorted and saved */
+    REWRITTEN,
+    /** The pom file was verified and found unsorted, but was not sorted */
+    NOT_SORTED
+}
@@ -0,0 +1,165 @@
+package sortpom.reactor;
+
+import org.apache.commons.io.IOUtils;
+import sortpom.exception.FailureException;
+import sortpom.logger.SortPomLogger;
+import sortpom.util.JsonUtil;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.util.*;
+
+/**
+ * Collects what the plugin did with each pom file in the reactor, so that the whole build can be summarized
+ * at the end: how many pom files that were rewritten, how big they were, and how long they took.
+ */
+public class ReactorSummary {
+    private static final int NR_OF_SLOWEST_POMS = 5;
+    private static final double NANOS_PER_MILLI = 1000000.0;
+    private static final String JSON_ENCODING = "UTF-8";
+
+    private final List<PomTime> pomTimes = new ArrayList<PomTime>();
+
+    /**
+     * Adds a processed pom file, may be called from several modules at the same time
+     *
+     * @param bytes the size of the pom file as it was read, before it was rewritten
+     */
+    public synchronized void add(File pomFile, long bytes, long nanos, PomOutcome outcome) {
+        pomTimes.add(new PomTime(pomFile.getAbsolutePath(), bytes, nanos, outcome));
+    }
+
+    public synchronized int getNrOfPoms() {
+        return pomTimes.size();
+    }
+
+    public synchronized int count(PomOutcome outcome) {
+        int count = 0;
+        for (PomTime pomTime : pomTimes) {
+            if (pomTime.outcome == outcome) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    public synchronized long getTotalBytes() {
+        long totalBytes = 0;
+        for (PomTime pomTime : pomTimes) {
+            totalBytes += pomTime.bytes;
+        }
+        return totalBytes;
+    }
+
+    public synchronized long getTotalNanos() {
+        long totalNanos = 0;
+        for (PomTime pomTime : pomTimes) {
+            totalNanos += pomTime.nanos;
+        }
+        return totalNanos;
+    }
+
+    /**
+     * Returns the time per pom that the given percentage of the pom files stay within (nearest rank)
+     *
+     * @param percentile between 0 and 100, 100 gives the max time
+     */
+    public synchronized long getPercentileNanos(int percentile) {
+        if (pomTimes.isEmpty()) {
+            return 0;
+        }
+        long[] sortedNanos = new long[pomTimes.size()];
+        for (int i = 0; i < sortedNanos.length; i++) {
+            sortedNanos[i] = pomTimes.get(i).nanos;
+        }
+        Arrays.sort(sortedNanos);
+        int rank = (int) Math.ceil(percentile / 100.0 * sortedNanos.length);
+        return sortedNanos[Math.max(0, rank - 1)];
+    }
+
+    /** Returns the slowest pom files, the slowest first */
+    synchronized List<PomTime> getSlowestPoms() {
+        List<PomTime> slowestPoms = new ArrayList<PomTime>(pomTimes);
+        Collections.sort(slowestPoms, new Comparator<PomTime>() {
+            //@Override
+            public int compare(PomTime pomTime1, PomTime pomTime2) {
+                return pomTime1.nanos < pomTime2.nanos ? 1 : (pomTime1.nanos == pomTime2.nanos ? 0 : -1);
+            }
+        });
+        return slowestPoms.subList(0, Math.min(NR_OF_SLOWEST_POMS, slowestPoms.size()));
+    }
+
+    public synchronized void log(SortPomLogger log) {
+        log.info(String.format("Processed %s pom file(s) with %s bytes: %s rewritten, %s already sorted, %s not sorted",
+                getNrOfPoms(), getTotalBytes(), count(PomOutcome.REWRITTEN), count(PomOutcome.ALREADY_SORTED),
+                count(PomOutcome.NOT_SORTED)));
+        log.info(String.format(Locale.ENGLISH, "Time per pom file: total %.1f ms, p50 %.1f ms, p95 %.1f ms, max %.1f ms",
+                getTotalNanos() / NANOS_PER_MILLI, getPercentileNanos(50) / NANOS_PER_MILLI,
+                getPercentileNanos(95) / NANOS_PER_MILLI, getPercentileNanos(100) / NANOS_PER_MILLI));
+        log.info("Slowest pom files:");
+        for (PomTime pomTime : getSlowestPoms()) {
+            log.info(String.format(Locale.ENGLISH, "%10.1f ms  %s (%s bytes)", pomTime.nanos / NANOS_PER_MILLI,
+                    pomTime.pomFileName, pomTime.bytes));
+        }
+    }
+
+    /** Saves the summary as json, so that it can be compared between builds */
+    public synchronized void saveJson(File jsonFile) {
+        File directory = jsonFile.getAbsoluteFile().getParentFile();
+        if (directory != null && !directory.isDirectory() && !directory.mkdirs()) {
+            throw new FailureException("Could not create directory for summary: " + directory.getAbsolutePath());
+        }
+        Writer writer = null;
+        try {
+            writer = new OutputStreamWriter(new FileOutputStream(jsonFile), JSON_ENCODING);
+            writeJson(writer);
+        } catch (IOException e) {
+            throw new FailureException("Could not save summary: " + jsonFile.getAbsolutePath(), e);
+        } finally {
+            IOUtils.closeQuietly(writer);
+        }
+    }
+
+    private void writeJson(Writer writer) throws IOException {
+        writer.write("{\n");
+        writer.write("  \"poms\": " + getNrOfPoms() + ",\n");
+        writer.write("  \"alreadySorted\": " + count(PomOutcome.ALREADY_SORTED) + ",\n");
+        writer.write("  \"rewritten\": " + count(PomOutcome.REWRITTEN) + ",\n");
+        writer.write("  \"notSorted\": " + count(PomOutcome.NOT_SORTED) + ",\n");
+        writer.write("  \"totalBytes\": " + getTotalBytes() + ",\n");
+        writer.write("  \"totalNanos\": " + getTotalNanos() + ",\n");
+        writer.write("  \"p50Nanos\": " + getPercentileNanos(50) + ",\n");
+        writer.write("  \"p95Nanos\": " + getPercentileNanos(95) + ",\n");
+        writer.write("  \"maxNanos\": " + getPercentileNanos(100) + ",\n");
+        writer.write("  \"slowestPoms\": [");
+        String separator = "\n";
+        List<PomTime> slowestPoms = getSlowestPoms();
+        for (PomTime pomTime : slowestPoms) {
+            writer.write(separator);
+            writer.write("    {\"file\": " + JsonUtil.toJsonString(pomTime.pomFileName) +
+                    ", \"bytes\": " + pomTime.bytes +
+                    ", \"nanos\": " + pomTime.nanos +
+                    ", \"outcome\": " + JsonUtil.toJsonString(pomTime.outcome.name()) + "}");
+            separator = ",\n";
+        }
+        writer.write(slowestPoms.isEmpty() ? "]\n" : "\n  ]\n");
+        writer.write("}\n");
+    }
+
+    static class PomTime {
+        final String pomFileName;
+        final long bytes;
+        final long nanos;
+        final PomOutcome outcome;
+
+        PomTime(String pomFileName, long bytes, long nanos, PomOutcome outcome) {
+            this.pomFileName = pomFileName;
+            this.bytes = bytes;
+            this.nanos = nanos;
+            this.outcome = outcome;
+        }
+    }
+}
@@ -0,0 +1,164 @@
+package sortpom.reactor;
+
+import org.apache.maven.execution.AbstractExecutionListener;
+import org.apache.maven.execution.ExecutionEvent;
+import org.apache.maven.execution.ExecutionListener;
+import org.apache.maven.execution.MavenExecutionRequest;
+import org.apache.maven.execution.MavenSession;
+import sortpom.exception.FailureException;
+import sortpom.logger.SortPomLogger;
+
+import java.io.File;
+
+/**
+ * Waits for the pom files that are saved in the background and logs the summaries of all modules in the
+ * reactor when the Maven session ends. The listener is chained in front of the execution listener of the
+ * session, so that it runs after the last module even when the modules are built in parallel (-T).
+ */
+public class SessionEndListener implements ExecutionListener {
+    private final ExecutionListener delegate;
+    private final SortPomLogger log;
+    private File summaryFile;
+
+    SessionEndListener(ExecutionListener delegate, SortPomLogger log, File summaryFile) {
+        this.delegate = delegate == null ? new AbstractExecutionListener() : delegate;
+        this.log = log;
+        this.summaryFile = summaryFile;
+    }
+
+    /**
+     * Makes sure that the pom files are saved and the summaries are logged when the session ends. If the
+     * session is unknown, this is done at once.
+     *
+     * @throws FailureException if the session is unknown and a pom file could not be saved
+     */
+    public static synchronized void finishAtSessionEnd(MavenSession session, SortPomLogger log, File summaryFile) {
+        MavenExecutionRequest request = session == null ? null : session.getRequest();
+        if (request == null) {
+            finish(log, summaryFile);
+            return;
+        }
+        ExecutionListener executionListener = request.getExecutionListener();
+        if (executionListener instanceof SessionEndListener) {
+            SessionEndListener sessionEndListener = (SessionEndListener) executionListener;
+            if (summaryFile != null) {
+                sessionEndListener.summaryFile = summaryFile;
+            }
+            return;
+        }
+        request.setExecutionListener(new SessionEndListener(executionListener, log, summaryFile));
+    }
+
+    private static void finish(SortPomLogger log, File summaryFile) {
+        try {
+            SharedAsyncPomWriter.close();
+        } finally {
+            SharedPhaseListener.sortingFinished();
+            SharedReactorSummary.finish(log, summaryFile);
+        }
+    }
+
+    /** Fails the build if any pom file could not be saved */
+    //@Override
+    public void sessionEnded(ExecutionEvent event) {
+        try {
+            SharedAsyncPomWriter.close();
+        } catch (FailureException e) {
+            log.error(e.getMessage());
+            if (event != null && event.getSession() != null) {
+                event.getSession().getResult().addException(e);
+            }
+        }
+        try {
+            File file;
+            synchronized (SessionEndListener.class) {
+                file = summaryFile;
+            }
+            SharedPhaseListener.sortingFinished();
+            SharedReactorSummary.finish(log, file);
+        } catch (RuntimeException e) {
+            log.error("Could not summarize the sorted pom files: " + e.getMessage());
+        }
+        delegate.sessionEnded(event);
+    }
+
+    //@Override
+    public void projectDiscoveryStarted(ExecutionEvent event) {
+        delegate.projectDiscoveryStarted(event);
+    }
+
+    //@Override
+    public void sessionStarted(ExecutionEvent event) {
+        delegate.sessionStarted(event);
+    }
+
+    //@Override
+    public void projectSkipped(ExecutionEvent event) {
+        delegate.projectSkipped(event);
+    }
+
+    //@Override
+    public void projectStarted(ExecutionEvent event) {
+        delegate.projectStarted(event);
+    }
+
+    //@Override
+    public void projectSucceeded(ExecutionEvent event) {
+        delegate.projectSucceeded(event);
+    }
+
+    //@Override
+    public void projectFailed(ExecutionEvent event) {
+        delegate.projectFailed(event);
+    }
+
+    //@Override
+    public void mojoSkipped(ExecutionEvent event) {
+        delegate.mojoSkipped(event);
+    }
+
+    //@Override
+    public void mojoStarted(ExecutionEvent event) {
+        delegate.mojoStarted(event);
+    }
+
+    //@Override
+    public void mojoSucceeded(ExecutionEvent event) {
+        delegate.mojoSucceeded(event);
+    }
+
+    //@Override
+    public void mojoFailed(ExecutionEvent event) {
+        delegate.mojoFailed(event);
+    }
+
+    //@Override
+    public void forkStarted(ExecutionEvent event) {
+        delegate.forkStarted(event);
+    }
+
+    //@Override
+    public void forkSucceeded(ExecutionEvent event) {
+        delegate.forkSucceeded(event);
+    }
+
+    //@Override
+    public void forkFailed(ExecutionEvent event) {
+        delegate.forkFailed(event);
+    }
+
+    //@Override
+    public void forkedProjectStarted(ExecutionEvent event) {
+        delegate.forkedProjectStarted(event);
+    }
+
+    //@Override
+    public void forkedProjectSucceeded(ExecutionEvent event) {
+        delegate.forkedProjectSucceeded(event);
+    }
+
+    //@Override
+    public void forkedProjectFailed(ExecutionEvent event) {
+        delegate.forkedProjectFailed(event);
+    }
+}
@@ -0,0 +1,78 @@
+package sortpom.reactor;
+
+import sortpom.exception.FailureException;
+import sortpom.util.AsyncPomWriter;
+
+/**
+ * Holds the asynchronous pom writer that all modules in the reactor share. The modules do not wait for their
+ * pom files, the writer is closed when the Maven session ends, which reports all pom files that could not be
+ * saved.
+ */
+public final class SharedAsyncPomWriter {
+    private static AsyncPomWriter asyncPomWriter;
+    private static Thread flushAtShutdown;
+
+    private SharedAsyncPomWriter() {
+    }
+
+    public static synchronized AsyncPomWriter getInstance() {
+        if (asyncPomWriter == null) {
+            asyncPomWriter = new AsyncPomWriter();
+            flushAtShutdown = new FlushAtShutdown(asyncPomWriter);
+            Runtime.getRuntime().addShutdownHook(flushAtShutdown);
+        }
+        return asyncPomWriter;
+    }
+
+    /**
+     * Waits for all pom files and lets the next build start over with a new writer.
+     *
+     * @throws FailureException if any pom file could not be saved
+     */
+    public static synchronized void close() {
+        if (asyncPomWriter == null) {
+            return;
+        }
+        try {
+            asyncPomWriter.close();
+        } finally {
+            removeShutdownHook();
+            asyncPomWriter = null;
+        }
+    }
+
+    private static void removeShutdownHook() {
+        try {
+            Runtime.getRuntime().removeShutdownHook(flushAtShutdown);
+        } catch (IllegalStateException e) {
+            // The JVM is already shutting down and runs the hook
+        }
+        flushAtShutdown = null;
+    }
+
+    /**
+     * If the build is stopped before the session ends, the writer thread must still finish its pom files
+     * before the JVM exits. Otherwise a pom file could be left half written. The Maven log is gone at this
+     * point, so failures are written to standard error.
+     */
+    private static class FlushAtShutdown extends Thread {
+        private final AsyncPomWriter asyncPomWriter;
+
+        FlushAtShutdown(AsyncPomWriter asyncPomWriter) {
+            super("sortpom-writer-shutdown");
+            this.asyncPomWriter = asyncPomWriter;
+        }
+
+        @Override
+        public void run() {
+            try {
+                asyncPomWriter.close();
+            } catch (FailureException e) {
+                System.err.println("[ERROR] " + e.getMessage());
+                if (e.getCause() != null) {
+                    System.err.println("[ERROR] " + e.getCause());
+                }
+            }
+        }
+    }
+}
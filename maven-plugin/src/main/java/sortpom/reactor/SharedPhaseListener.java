@@ -0,0 +1,44 @@
+package sortpom.reactor;
+
+import org.apache.maven.plugin.logging.Log;
+import sortpom.logger.MavenLogger;
+import sortpom.metrics.ChromeTracePhaseListener;
+import sortpom.metrics.CompositePhaseListener;
+import sortpom.metrics.LoggingPhaseListener;
+import sortpom.metrics.PhaseListener;
+
+import java.io.File;
+
+/**
+ * Holds the phase listener that all modules in the reactor share, so that the summary of the phase times
+ * covers all pom files. The summary is logged when the Maven session ends.
+ */
+public final class SharedPhaseListener {
+    private static PhaseListener phaseListener;
+
+    private SharedPhaseListener() {
+    }
+
+    /**
+     * The phase times of each pom file are only logged when debug is enabled in Maven.
+     *
+     * @param traceFile the file that the phase times are also saved to as a trace, or null
+     */
+    public static synchronized PhaseListener getInstance(Log log, File traceFile) {
+        if (phaseListener == null) {
+            phaseListener = new LoggingPhaseListener(new MavenLogger(log), log.isDebugEnabled());
+            if (traceFile != null) {
+                phaseListener = new CompositePhaseListener(phaseListener, new ChromeTracePhaseListener(traceFile));
+            }
+        }
+        return phaseListener;
+    }
+
+    /** Logs the summary of all modules, and lets the next build start over */
+    public static synchronized void sortingFinished() {
+        if (phaseListener != null) {
+            phaseListener.sortingFinished();
+            phaseListener = null;
+        }
+    }
+}
@@ -0,0 +1,41 @@
+package sortpom.reactor;
+
+import sortpom.logger.SortPomLogger;
+
+import java.io.File;
+
+/**
+ * Holds the summary that all modules in the reactor add their pom files to. The summary is logged when the
+ * Maven session ends.
+ */
+public final class SharedReactorSummary {
+    private static ReactorSummary reactorSummary;
+
+    private SharedReactorSummary() {
+    }
+
+    public static synchronized ReactorSummary getInstance() {
+        if (reactorSummary == null) {
+            reactorSummary = new ReactorSummary();
+        }
+        return reactorSummary;
+    }
+
+    /**
+     * Logs the summary if more than one pom file was processed, and saves it as json if a file is given. The
+     * next build starts over with an empty summary.
+     */
+    public static synchronized void finish(SortPomLogger log, File jsonFile) {
+        if (reactorSummary == null) {
+            return;
+        }
+        if (reactorSummary.getNrOfPoms() > 1) {
+            reactorSummary.log(log);
+        }
+        if (jsonFile != null) {
+            reactorSummary.saveJson(jsonFile);
+            log.info("Saved summary to " + jsonFile.getAbsolutePath());
+        }
+        reactorSummary = null;
+    }
+}
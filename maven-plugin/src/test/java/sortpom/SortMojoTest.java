@@ -2,9 +2,12 @@ package sortpom;
 
 import org.junit.Test;
 import sortpom.logger.SortPomLogger;
+import sortpom.metrics.PhaseListener;
 import sortpom.parameter.PluginParameters;
 import sortpom.util.ReflectionHelper;
 
+import java.io.File;
+
 import static org.mockito.Matchers.any;
 import static org.mockito.Mockito.*;
 
@@ -22,11 +25,14 @@ public class SortMojoTest {
         mojoHelper.setField(sortPom);
 
         mojoHelper.setField("lineSeparator", "\n");
+        mojoHelper.setField("pomFile", new File("pom.xml"));
 
         sortMojo.execute();
 
         verify(sortPom).setup(any(SortPomLogger.class), any(PluginParameters.class));
         verify(sortPom).sortPom();
+        verify(sortPom).getPomFileSize();
+        verify(sortPom).setPhaseListener(any(PhaseListener.class));
         verifyNoMoreInteractions(sortPom);
     }
 }
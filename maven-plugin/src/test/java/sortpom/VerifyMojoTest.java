@@ -2,9 +2,12 @@ package sortpom;
 
 import org.junit.Test;
 import sortpom.logger.SortPomLogger;
+import sortpom.metrics.PhaseListener;
 import sortpom.parameter.PluginParameters;
 import sortpom.util.ReflectionHelper;
 
+import java.io.File;
+
 import static org.mockito.Matchers.any;
 import static org.mockito.Mockito.*;
 
@@ -22,12 +25,15 @@ public class VerifyMojoTest {
         mojoHelper.setField(sortPom);
 
         mojoHelper.setField("lineSeparator", "\n");
+        mojoHelper.setField("pomFile", new File("pom.xml"));
         mojoHelper.setField("verifyFail", "SORT");
 
         sortMojo.execute();
 
         verify(sortPom).setup(any(SortPomLogger.class), any(PluginParameters.class));
         verify(sortPom).verifyPom();
+        verify(sortPom).getPomFileSize();
+        verify(sortPom).setPhaseListener(any(PhaseListener.class));
         verifyNoMoreInteractions(sortPom);
     }
 }
@@ -0,0 +1,106 @@
+package sortpom.reactor;
+
+import org.apache.commons.io.FileUtils;
+import org.junit.After;
+import org.junit.Test;
+import sortpom.logger.SortPomLogger;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.hamcrest.Matchers.*;
+import static org.junit.Assert.assertThat;
+
+public class ReactorSummaryTest {
+    private final File directory = new File("target/reactorsummarytest");
+    private final List<String> logs = new ArrayList<String>();
+
+    @After
+    public void cleanup() throws Exception {
+        FileUtils.deleteDirectory(directory);
+    }
+
+    @Test
+    public void summaryShouldAggregateAllPomFiles() throws Exception {
+        ReactorSummary reactorSummary = createSummaryWithTenPoms();
+
+        assertThat(reactorSummary.getNrOfPoms(), is(10));
+        assertThat(reactorSummary.count(PomOutcome.REWRITTEN), is(3));
+        assertThat(reactorSummary.count(PomOutcome.ALREADY_SORTED), is(6));
+        assertThat(reactorSummary.count(PomOutcome.NOT_SORTED), is(1));
+        assertThat(reactorSummary.getTotalBytes(), is(550L));
+        assertThat(reactorSummary.getTotalNanos(), is(55000000L));
+        assertThat(reactorSummary.getPercentileNanos(50), is(5000000L));
+        assertThat(reactorSummary.getPercentileNanos(95), is(10000000L));
+        assertThat(reactorSummary.getPercentileNanos(100), is(10000000L));
+    }
+
+    @Test
+    public void logShouldShowCountsTimesAndSlowestPoms() throws Exception {
+        createSummaryWithTenPoms().log(createLogger());
+
+        assertThat(logs.get(0), is("Processed 10 pom file(s) with 550 bytes: 3 rewritten, 6 already sorted, 1 not sorted"));
+        assertThat(logs.get(1), is("Time per pom file: total 55.0 ms, p50 5.0 ms, p95 10.0 ms, max 10.0 ms"));
+        assertThat(logs.get(2), is("Slowest pom files:"));
+        assertThat(logs.size(), is(8));
+        assertThat(logs.get(3), containsString("pom10.xml (100 bytes)"));
+        assertThat(logs.get(7), containsString("pom6.xml (60 bytes)"));
+    }
+
+    @Test
+    public void jsonShouldContainSummary() throws Exception {
+        File jsonFile = new File(directory, "target/sortpom-summary.json");
+
+        createSummaryWithTenPoms().saveJson(jsonFile);
+
+        String json = FileUtils.readFileToString(jsonFile, "UTF-8");
+        assertThat(json, startsWith("{\n  \"poms\": 10,\n  \"alreadySorted\": 6,\n  \"rewritten\": 3,\n"));
+        assertThat(json, containsString("\"p95Nanos\": 10000000,"));
+        assertThat(json, containsString("{\"file\": " + jsonPath("pom10.xml") +
+                ", \"bytes\": 100, \"nanos\": 10000000, \"outcome\": \"ALREADY_SORTED\"}"));
+    }
+
+    @Test
+    public void sharedSummaryShouldStartOverWhenFinished() throws Exception {
+        SharedReactorSummary.getInstance().add(new File(directory, "pom1.xml"), 10, 1000, PomOutcome.REWRITTEN);
+        SharedReactorSummary.getInstance().add(new File(directory, "pom2.xml"), 10, 1000, PomOutcome.REWRITTEN);
+
+        SharedReactorSummary.finish(createLogger(), null);
+
+        assertThat(logs.get(0), startsWith("Processed 2 pom file(s)"));
+        assertThat(SharedReactorSummary.getInstance().getNrOfPoms(), is(0));
+    }
+
+    private ReactorSummary createSummaryWithTenPoms() throws Exception {
+        ReactorSummary reactorSummary = new ReactorSummary();
+        for (int i = 1; i <= 10; i++) {
+            PomOutcome outcome = i <= 3 ? PomOutcome.REWRITTEN : (i == 4 ? PomOutcome.NOT_SORTED : PomOutcome.ALREADY_SORTED);
+            reactorSummary.add(new File(directory, "pom" + i + ".xml"), i * 10, i * 1000000L, outcome);
+        }
+        return reactorSummary;
+    }
+
+    private String jsonPath(String name) {
+        return "\"" + new File(directory, name).getAbsolutePath().replace("\\", "\\\\") + "\"";
+    }
+
+    private SortPomLogger createLogger() {
+        return new SortPomLogger() {
+            //@Override
+            public void warn(String content) {
+                logs.add(content);
+            }
+
+            //@Override
+            public void info(String content) {
+                logs.add(content);
+            }
+
+            //@Override
+            public void error(String content) {
+                logs.add(content);
+            }
+        };
+    }
+}
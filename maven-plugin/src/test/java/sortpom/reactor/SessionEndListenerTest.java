@@ -0,0 +1,189 @@
+package sortpom.reactor;
+
+import org.apache.commons.io.FileUtils;
+import org.apache.maven.execution.AbstractExecutionListener;
+import org.apache.maven.execution.DefaultMavenExecutionRequest;
+import org.apache.maven.execution.DefaultMavenExecutionResult;
+import org.apache.maven.execution.ExecutionEvent;
+import org.apache.maven.execution.MavenExecutionRequest;
+import org.apache.maven.execution.MavenSession;
+import org.apache.maven.plugin.logging.SystemStreamLog;
+import org.junit.After;
+import org.junit.Test;
+import sortpom.exception.FailureException;
+import sortpom.logger.SortPomLogger;
+import sortpom.metrics.PhaseEvent;
+import sortpom.metrics.PhaseListener;
+import sortpom.metrics.SortPhase;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.hamcrest.Matchers.*;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.fail;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class SessionEndListenerTest {
+    private final List<String> logs = new ArrayList<String>();
+    private final List<String> events = new ArrayList<String>();
+
+    @After
+    public void cleanup() {
+        SharedAsyncPomWriter.close();
+        SharedReactorSummary.finish(createLogger(), null);
+        logs.clear();
+    }
+
+    @Test
+    public void summaryShouldBeLoggedAtOnceWithoutSession() {
+        addTwoPoms();
+
+        SessionEndListener.finishAtSessionEnd(null, createLogger(), null);
+
+        assertThat(logs.get(0), startsWith("Processed 2 pom file(s)"));
+    }
+
+    @Test
+    public void summaryShouldBeLoggedWhenSessionEnds() {
+        MavenExecutionRequest request = new DefaultMavenExecutionRequest();
+        MavenSession session = new MavenSession(null, null, request, null);
+        addTwoPoms();
+
+        SessionEndListener.finishAtSessionEnd(session, createLogger(), null);
+        SessionEndListener.finishAtSessionEnd(session, createLogger(), null);
+
+        assertThat(logs.size(), is(0));
+        assertThat(request.getExecutionListener(), instanceOf(SessionEndListener.class));
+
+        request.getExecutionListener().sessionEnded(null);
+
+        assertThat(logs.get(0), startsWith("Processed 2 pom file(s)"));
+        assertThat(SharedReactorSummary.getInstance().getNrOfPoms(), is(0));
+    }
+
+    @Test
+    public void previousListenerShouldStillGetEvents() {
+        MavenExecutionRequest request = new DefaultMavenExecutionRequest();
+        request.setExecutionListener(new AbstractExecutionListener() {
+            @Override
+            public void projectSucceeded(ExecutionEvent event) {
+                events.add("projectSucceeded");
+            }
+
+            @Override
+            public void sessionEnded(ExecutionEvent event) {
+                events.add("sessionEnded");
+            }
+        });
+
+        SessionEndListener.finishAtSessionEnd(new MavenSession(null, null, request, null), createLogger(), null);
+        request.getExecutionListener().projectSucceeded(null);
+        request.getExecutionListener().sessionEnded(null);
+
+        assertThat(events, is(Arrays.asList("projectSucceeded", "sessionEnded")));
+    }
+
+    @Test
+    public void pomFilesShouldBeSavedWhenSessionEnds() {
+        MavenExecutionRequest request = new DefaultMavenExecutionRequest();
+        MavenSession session = new MavenSession(null, null, request, new DefaultMavenExecutionResult());
+        SharedAsyncPomWriter.getInstance().write(new File("pom1.xml"), new Runnable() {
+            //@Override
+            public void run() {
+                events.add("saved");
+            }
+        });
+
+        SessionEndListener.finishAtSessionEnd(session, createLogger(), null);
+        request.getExecutionListener().sessionEnded(createEvent(session));
+
+        assertThat(events, is(Arrays.asList("saved")));
+        assertThat(session.getResult().hasExceptions(), is(false));
+    }
+
+    @Test
+    public void pomFileThatCouldNotBeSavedShouldFailBuildWhenSessionEnds() {
+        MavenExecutionRequest request = new DefaultMavenExecutionRequest();
+        MavenSession session = new MavenSession(null, null, request, new DefaultMavenExecutionResult());
+        SharedAsyncPomWriter.getInstance().write(new File("pom1.xml"), new Runnable() {
+            //@Override
+            public void run() {
+                throw new IllegalStateException("Gurka");
+            }
+        });
+
+        SessionEndListener.finishAtSessionEnd(session, createLogger(), null);
+        request.getExecutionListener().sessionEnded(createEvent(session));
+
+        String expectedMessage = "Could not save 1 pom file(s): [" + new File("pom1.xml").getAbsolutePath() + "]";
+        assertThat(logs.get(0), is(expectedMessage));
+        assertThat(session.getResult().getExceptions().size(), is(1));
+        assertThat(session.getResult().getExceptions().get(0).getMessage(), is(expectedMessage));
+    }
+
+    @Test
+    public void pomFileThatCouldNotBeSavedShouldFailAtOnceWithoutSession() {
+        SharedAsyncPomWriter.getInstance().write(new File("pom1.xml"), new Runnable() {
+            //@Override
+            public void run() {
+                throw new IllegalStateException("Gurka");
+            }
+        });
+        addTwoPoms();
+
+        try {
+            SessionEndListener.finishAtSessionEnd(null, createLogger(), null);
+            fail();
+        } catch (FailureException e) {
+            assertThat(e.getMessage(), startsWith("Could not save 1 pom file(s)"));
+        }
+        assertThat(logs.get(0), startsWith("Processed 2 pom file(s)"));
+    }
+
+    @Test
+    public void traceShouldBeSavedWhenSessionEndsIfTraceFileIsSet() throws Exception {
+        File traceFile = new File("target/sessionendlistenertest/trace.json");
+        traceFile.delete();
+        PhaseListener phaseListener = SharedPhaseListener.getInstance(new SystemStreamLog(), traceFile);
+        phaseListener.phaseFinished(new PhaseEvent("pom.xml", SortPhase.READ, 1000, 2000, 10, 0, 0));
+        phaseListener.pomFinished("pom.xml");
+
+        SessionEndListener.finishAtSessionEnd(null, createLogger(), null);
+
+        assertThat(FileUtils.readFileToString(traceFile, "UTF-8"), containsString("\"name\": \"read\""));
+    }
+
+    private ExecutionEvent createEvent(MavenSession session) {
+        ExecutionEvent event = mock(ExecutionEvent.class);
+        when(event.getSession()).thenReturn(session);
+        return event;
+    }
+
+    private void addTwoPoms() {
+        SharedReactorSummary.getInstance().add(new File("pom1.xml"), 10, 1000, PomOutcome.REWRITTEN);
+        SharedReactorSummary.getInstance().add(new File("pom2.xml"), 10, 1000, PomOutcome.REWRITTEN);
+    }
+
+    private SortPomLogger createLogger() {
+        return new SortPomLogger() {
+            //@Override
+            public void warn(String content) {
+                logs.add(content);
+            }
+
+            //@Override
+            public void info(String content) {
+                logs.add(content);
+            }
+
+            //@Override
+            public void error(String content) {
+                logs.add(content);
+            }
+        };
+    }
+}
@@ -6,6 +6,8 @@ import org.junit.Test;
 import sortpom.SortMojo;
 import sortpom.SortPomImpl;
 import sortpom.XmlProcessor;
+import sortpom.reactor.SharedAsyncPomWriter;
+import sortpom.util.AsyncPomWriter;
 import sortpom.util.FileUtil;
 import sortpom.util.ReflectionHelper;
 import sortpom.wrapper.ElementWrapperCreator;
@@ -126,6 +128,37 @@ public class SortMojoParametersTest {
         testParameterMoveFromMojoToRestOfApplicationForBoolean("indentBlankLines", true, xmlProcessor);
     }
 
+    @Test
+    public void parameterParallelSortThresholdShouldEndUpInXmlProcessor() throws Exception {
+        testParameterMoveFromMojoToRestOfApplication("parallelSortThreshold", 500);
+
+        assertEquals(500, new ReflectionHelper(xmlProcessor).getField("parallelSortThreshold"));
+    }
+
+    @Test
+    public void parameterKeepFormattingShouldEndUpInXmlProcessor() throws Exception {
+        testParameterMoveFromMojoToRestOfApplicationForBoolean("keepFormatting", true, xmlProcessor);
+    }
+
+    @Test
+    public void parameterAtomicWriteShouldEndUpInFileUtil() throws Exception {
+        testParameterMoveFromMojoToRestOfApplicationForBoolean("atomicWrite", true, fileUtil);
+    }
+
+    @Test
+    public void parameterSyncWriteShouldEndUpInFileUtil() throws Exception {
+        testParameterMoveFromMojoToRestOfApplicationForBoolean("syncWrite", true, fileUtil);
+    }
+
+    @Test
+    public void parameterAsyncWriteShouldGiveSortPomImplAnAsyncPomWriter() throws Exception {
+        assertNull(new ReflectionHelper(sortPomImpl).getField(AsyncPomWriter.class));
+
+        testParameterMoveFromMojoToRestOfApplication("asyncWrite", true);
+
+        assertSame(SharedAsyncPomWriter.getInstance(), new ReflectionHelper(sortPomImpl).getField(AsyncPomWriter.class));
+    }
+
     private void testParameterMoveFromMojoToRestOfApplication(String parameterName, Object parameterValue,
                                                               Object... whereParameterCanBeFound) throws
             Exception {
@@ -7,8 +7,12 @@ import sortpom.SortPomImpl;
 import sortpom.VerifyMojo;
 import sortpom.XmlProcessor;
 import sortpom.parameter.VerifyFailType;
+import sortpom.parameter.VerifyReportFormat;
+import sortpom.reactor.SharedAsyncPomWriter;
+import sortpom.util.AsyncPomWriter;
 import sortpom.util.FileUtil;
 import sortpom.util.ReflectionHelper;
+import sortpom.verify.VerifyReportWriter;
 import sortpom.wrapper.ElementWrapperCreator;
 import sortpom.wrapper.TextWrapperCreator;
 import sortpom.wrapper.WrapperFactoryImpl;
@@ -128,6 +132,37 @@ public class VerifyMojoParametersTest {
         testParameterMoveFromMojoToRestOfApplicationForBoolean("indentBlankLines", true, xmlProcessor);
     }
 
+    @Test
+    public void parameterParallelSortThresholdShouldEndUpInXmlProcessor() throws Exception {
+        testParameterMoveFromMojoToRestOfApplication("parallelSortThreshold", 500);
+
+        assertEquals(500, new ReflectionHelper(xmlProcessor).getField("parallelSortThreshold"));
+    }
+
+    @Test
+    public void parameterKeepFormattingShouldEndUpInXmlProcessor() throws Exception {
+        testParameterMoveFromMojoToRestOfApplicationForBoolean("keepFormatting", true, xmlProcessor);
+    }
+
+    @Test
+    public void parameterAtomicWriteShouldEndUpInFileUtil() throws Exception {
+        testParameterMoveFromMojoToRestOfApplicationForBoolean("atomicWrite", true, fileUtil);
+    }
+
+    @Test
+    public void parameterSyncWriteShouldEndUpInFileUtil() throws Exception {
+        testParameterMoveFromMojoToRestOfApplicationForBoolean("syncWrite", true, fileUtil);
+    }
+
+    @Test
+    public void parameterAsyncWriteShouldGiveSortPomImplAnAsyncPomWriter() throws Exception {
+        assertNull(new ReflectionHelper(sortPomImpl).getField(AsyncPomWriter.class));
+
+        testParameterMoveFromMojoToRestOfApplication("asyncWrite", true);
+
+        assertSame(SharedAsyncPomWriter.getInstance(), new ReflectionHelper(sortPomImpl).getField(AsyncPomWriter.class));
+    }
+
     @Test
     public void parameterVerifyFailShouldEndUpInXmlProcessor() throws Exception {
         testParameterMoveFromMojoToRestOfApplication("verifyFail", "STOP");
@@ -135,6 +170,23 @@ public class VerifyMojoParametersTest {
         assertEquals(VerifyFailType.STOP, new ReflectionHelper(sortPomImpl).getField("verifyFailType"));
     }
 
+    @Test
+    public void parameterVerifyReportFileShouldEndUpInSortPomImpl() throws Exception {
+        new ReflectionHelper(verifyMojo).setField("verifyReportFormat", "json");
+        testParameterMoveFromMojoToRestOfApplication("verifyReportFile", new File("target/report.json"), sortPomImpl);
+
+        assertTrue((Boolean) new ReflectionHelper(xmlProcessor).getField("recordLineNumbers"));
+    }
+
+    @Test
+    public void parameterVerifyReportFormatShouldEndUpInVerifyReportWriter() throws Exception {
+        new ReflectionHelper(verifyMojo).setField("verifyReportFile", new File("target/report.xml"));
+        testParameterMoveFromMojoToRestOfApplication("verifyReportFormat", "checkstyle");
+
+        VerifyReportWriter verifyReportWriter = new ReflectionHelper(sortPomImpl).getField(VerifyReportWriter.class);
+        assertEquals(VerifyReportFormat.CHECKSTYLE, new ReflectionHelper(verifyReportWriter).getField("reportFormat"));
+    }
+
     private void testParameterMoveFromMojoToRestOfApplication(String parameterName, Object parameterValue,
                                                               Object... whereParameterCanBeFound) throws
             Exception {
@@ -1,19 +1,35 @@
 package sortpom;
 
 import org.apache.commons.io.IOUtils;
+import org.jdom.Document;
+import org.jdom.Element;
 import org.jdom.JDOMException;
+import sortpom.diff.LineDiff;
+import sortpom.diff.TextEdit;
 import sortpom.exception.FailureException;
+import sortpom.jfr.PomOperationEvent;
+import sortpom.jfr.SortEvents;
 import sortpom.logger.SortPomLogger;
+import sortpom.metrics.PhaseListener;
+import sortpom.metrics.PhaseTimer;
+import sortpom.metrics.SortPhase;
+import sortpom.metrics.SortStatistics;
 import sortpom.parameter.PluginParameters;
 import sortpom.parameter.VerifyFailType;
+import sortpom.util.AsyncPomWriter;
+import sortpom.util.CancellationChecker;
 import sortpom.util.FileUtil;
 import sortpom.util.XmlOrderedResult;
+import sortpom.verify.MisplacedElement;
+import sortpom.verify.VerifyReportWriter;
 import sortpom.wrapper.WrapperFactoryImpl;
 
 import java.io.ByteArrayInputStream;
 import java.io.ByteArrayOutputStream;
 import java.io.File;
 import java.io.IOException;
+import java.util.List;
+import java.util.Map;
 
 /**
  * The implementation of the Mojo (Maven plugin) that sorts the pom file for a
@@ -32,6 +48,12 @@ public class SortPomImpl {
     private boolean createBackupFile;
     private String backupFileExtension;
     private VerifyFailType verifyFailType;
+    private File verifyReportFile;
+    private VerifyReportWriter verifyReportWriter;
+    private PluginParameters pluginParameters;
+    private AsyncPomWriter asyncPomWriter;
+    private CancellationChecker cancellationChecker = CancellationChecker.NONE;
+    private final PhaseTimer phaseTimer = new PhaseTimer();
 
     /**
      * Instantiates a new sort pom mojo and initiates dependencies to other
@@ -41,6 +63,7 @@ public class SortPomImpl {
         fileUtil = new FileUtil();
         wrapperFactory = new WrapperFactoryImpl(fileUtil);
         xmlProcessor = new XmlProcessor(wrapperFactory);
+        xmlProcessor.setPhaseTimer(phaseTimer);
     }
 
     public void setup(SortPomLogger log, PluginParameters pluginParameters) {
@@ -53,9 +76,47 @@ public class SortPomImpl {
         createBackupFile = pluginParameters.createBackupFile;
         backupFileExtension = pluginParameters.backupFileExtension;
         verifyFailType = pluginParameters.verifyFailType;
+        verifyReportFile = pluginParameters.verifyReportFile;
+        verifyReportWriter = new VerifyReportWriter(pluginParameters.verifyReportFormat);
+        this.pluginParameters = pluginParameters;
         warnAboutDeprecatedArguments(log, pluginParameters);
     }
 
+    /**
+     * Lets the sorted pom file be saved by an asynchronous writer instead of by the calling thread. The caller
+     * of the writer is responsible for flushing it.
+     */
+    public void setAsyncPomWriter(AsyncPomWriter asyncPomWriter) {
+        this.asyncPomWriter = asyncPomWriter;
+    }
+
+    /**
+     * Lets the sorting be canceled, when it runs in the background. The checker is called regularly during
+     * the sorting.
+     */
+    public void setCancellationChecker(CancellationChecker cancellationChecker) {
+        this.cancellationChecker = cancellationChecker;
+        wrapperFactory.setCancellationChecker(cancellationChecker);
+        xmlProcessor.setCancellationChecker(cancellationChecker);
+    }
+
+    /**
+     * Lets the comparisons and moves of each sibling group be counted, e.g. to find the sections of a pom that
+     * make the sorting slow. The statistics are added to for each sorted or verified pom, null turns the
+     * counting off.
+     */
+    public void setSortStatistics(SortStatistics sortStatistics) {
+        wrapperFactory.setSortStatistics(sortStatistics);
+    }
+
+    /**
+     * Lets the time of each phase be measured, e.g. to find out where the time goes in a slow build. The
+     * listener gets an event for each phase of each sorted or verified pom file.
+     */
+    public void setPhaseListener(PhaseListener phaseListener) {
+        phaseTimer.setPhaseListener(phaseListener);
+    }
+
     private void warnAboutDeprecatedArguments(SortPomLogger log, PluginParameters pluginParameters) {
         if (pluginParameters.sortDependencies.isDeprecatedValueTrue()) {
             log.warn("[DEPRECATED] The 'true' value in sortDependencies is not used anymore, please use value 'groupId,artifactId' instead. In the next major version 'true' or 'false' will cause an error!");
@@ -73,18 +134,60 @@ public class SortPomImpl {
 
     /**
      * Sorts the pom file.
+     *
+     * @return true if the pom file was changed, false if it already was sorted
      */
-    public void sortPom() {
+    public boolean sortPom() {
         log.info("Sorting file " + pomFile.getAbsolutePath());
+        PomOperationEvent pomOperationEvent = SortEvents.getInstance().beginPomOperation();
+        phaseTimer.startPom(pomFile.getAbsolutePath(), pomOperationEvent.isEnabled());
+        String result = "failed";
+        try {
+            String originalXml = readPomFile();
+            String sortedXml = sortXml(originalXml);
+            phaseTimer.start();
+            boolean sorted = pomFileIsSorted(originalXml, sortedXml);
+            phaseTimer.finish(SortPhase.COMPARE);
+            if (sorted) {
+                log.info("Pom file is already sorted, exiting");
+                result = "already sorted";
+                return false;
+            }
+            if (asyncPomWriter == null) {
+                createBackupFile();
+                saveSortedPomFile(sortedXml);
+            } else {
+                saveSortedPomFileInBackground(sortedXml);
+            }
+            phaseTimer.finish(SortPhase.WRITE);
+            result = "sorted";
+            return true;
+        } finally {
+            phaseTimer.finishPom();
+            commitPomOperationEvent(pomOperationEvent, "sort", result);
+        }
+    }
 
-        String originalXml = fileUtil.getPomFileContent();
-        String sortedXml = sortXml(originalXml);
-        if (pomFileIsSorted(originalXml, sortedXml)) {
-            log.info("Pom file is already sorted, exiting");
-            return;
+    /**
+     * The size in bytes of the pom file as it was read by the last sortPom or verifyPom, before it was sorted.
+     */
+    public long getPomFileSize() {
+        return fileUtil.getPomFileSize();
+    }
+
+    private void commitPomOperationEvent(PomOperationEvent pomOperationEvent, String operation, String result) {
+        if (pomOperationEvent.isEnabled()) {
+            pomOperationEvent.commit(operation, pomFile.getAbsolutePath(), fileUtil.getPomFileSize(),
+                    phaseTimer.getNodeCount(), result);
         }
-        createBackupFile();
-        saveSortedPomFile(sortedXml);
+    }
+
+    private String readPomFile() {
+        phaseTimer.start();
+        String originalXml = fileUtil.getPomFileContent();
+        phaseTimer.setInputSize(originalXml.length());
+        phaseTimer.finish(SortPhase.READ);
+        return originalXml;
     }
 
     /**
@@ -109,7 +212,34 @@ public class SortPomImpl {
 
     }
 
-    private boolean pomFileIsSorted(String xml, String sortedXml) {
+    /**
+     * Sorts the incoming xml, and returns the difference as a minimal list of edits of the incoming xml.
+     *
+     * @param xml the xml that should be sorted.
+     * @return edits in ascending offset order, that turn the xml into the sorted xml
+     */
+    public List<TextEdit> sortXmlAsTextEdits(final String xml) {
+        String sortedXml = sortXml(xml);
+        cancellationChecker.checkCanceled();
+        return new LineDiff(xml, sortedXml).getTextEdits();
+    }
+
+    /**
+     * Sorts a document that already has been parsed, and returns the sorting as moves of the original
+     * elements. The document is not changed.
+     *
+     * @param document the document that should be sorted.
+     * @return the elements whose children must be moved, mapped to their children in sorted order
+     */
+    public Map<Element, List<Element>> sortDocumentAsElementMoves(final Document document) {
+        xmlProcessor.setOriginalDocument(document);
+        xmlProcessor.sortXml(true);
+        cancellationChecker.checkCanceled();
+        return xmlProcessor.getElementMoves();
+    }
+
+    /** Compares the original and the sorted xml, ignoring line separators */
+    public static boolean pomFileIsSorted(String xml, String sortedXml) {
         return xml.replaceAll("\\n|\\r", "").equals(sortedXml.replaceAll("\\n|\\r", ""));
     }
 
@@ -117,13 +247,29 @@ public class SortPomImpl {
      * Creates the backup file for pom.
      */
     private void createBackupFile() {
-        if (createBackupFile) {
-            if (backupFileExtension.trim().length() == 0) {
-                throw new FailureException("Could not create backup file, extension name was empty");
-            }
+        createBackupFile(log, fileUtil, pluginParameters);
+    }
+
+    /**
+     * Creates the backup file for the pom file in the parameters, if a backup should be created.
+     *
+     * @param log              where the saved backup file is reported
+     * @param fileUtil         a file util that is set up with the parameters
+     * @param pluginParameters the parameters of the pom file
+     */
+    public static void createBackupFile(SortPomLogger log, FileUtil fileUtil, PluginParameters pluginParameters) {
+        if (pluginParameters.createBackupFile) {
+            checkBackupFileExtension(pluginParameters.backupFileExtension);
             fileUtil.backupFile();
-            log.info(String.format("Saved backup of %s to %s%s", pomFile.getAbsolutePath(), 
-                    pomFile.getAbsolutePath(), backupFileExtension));
+            String pomFileName = pluginParameters.pomFile.getAbsolutePath();
+            log.info(String.format("Saved backup of %s to %s%s", pomFileName, pomFileName,
+                    pluginParameters.backupFileExtension));
+        }
+    }
+
+    private static void checkBackupFileExtension(String backupFileExtension) {
+        if (backupFileExtension.trim().length() == 0) {
+            throw new FailureException("Could not create backup file, extension name was empty");
         }
     }
 
@@ -133,18 +279,51 @@ public class SortPomImpl {
      * @param sortedXml the sorted xml
      */
     private void saveSortedPomFile(final String sortedXml) {
-        fileUtil.savePomFile(sortedXml);
-        log.info("Saved sorted pom file to " + pomFile.getAbsolutePath());
+        logSaveResult(log, fileUtil.savePomFile(sortedXml), pomFile.getAbsolutePath());
+    }
+
+    private static void logSaveResult(SortPomLogger log, boolean saved, String pomFileName) {
+        if (saved) {
+            log.info("Saved sorted pom file to " + pomFileName);
+        } else {
+            log.info("Sorted pom file has the same content as " + pomFileName + ", file not touched");
+        }
+    }
+
+    /**
+     * Hands the backup and the sorted pom file to the asynchronous writer. The writer gets a file util of its
+     * own, so that this instance can be set up for another pom file before the write is done.
+     *
+     * @param sortedXml the sorted xml
+     */
+    private void saveSortedPomFileInBackground(final String sortedXml) {
+        if (createBackupFile) {
+            checkBackupFileExtension(backupFileExtension);
+        }
+        final FileUtil writerFileUtil = new FileUtil();
+        writerFileUtil.setup(pluginParameters);
+        final SortPomLogger writerLog = log;
+        final PluginParameters writerPluginParameters = pluginParameters;
+        final String pomFileName = pomFile.getAbsolutePath();
+
+        asyncPomWriter.write(pomFile, new Runnable() {
+            //@Override
+            public void run() {
+                createBackupFile(writerLog, writerFileUtil, writerPluginParameters);
+                logSaveResult(writerLog, writerFileUtil.savePomFile(sortedXml), pomFileName);
+            }
+        });
     }
 
     /**
      * Verify that the pom-file is sorted regardless of formatting
+     *
+     * @return true if the pom file was sorted, false if it was not (even if it has been sorted now)
      */
-    public void verifyPom() {
+    public boolean verifyPom() {
         String pomFileName = pomFile.getAbsolutePath();
         log.info("Verifying file " + pomFileName);
-
-        XmlOrderedResult xmlOrderedResult = isPomElementsSorted();
+        XmlOrderedResult xmlOrderedResult = verifyPomFile();
         if (!xmlOrderedResult.isOrdered()) {
             switch (verifyFailType) {
                 case WARN:
@@ -165,10 +344,55 @@ public class SortPomImpl {
                     throw new IllegalStateException(verifyFailType.toString());
             }
         }
+        return xmlOrderedResult.isOrdered();
+    }
+
+    /**
+     * Verifies the pom file and saves the verify report, measured as a pom operation of its own. A pom file
+     * that is sorted because it failed the verification is measured as another pom operation.
+     */
+    private XmlOrderedResult verifyPomFile() {
+        PomOperationEvent pomOperationEvent = SortEvents.getInstance().beginPomOperation();
+        phaseTimer.startPom(pomFile.getAbsolutePath(), pomOperationEvent.isEnabled());
+        String result = "failed";
+        try {
+            XmlOrderedResult xmlOrderedResult = isPomElementsSorted();
+            if (verifyReportFile != null) {
+                saveVerifyReport();
+            }
+            result = xmlOrderedResult.isOrdered() ? "ordered" : "not ordered";
+            return xmlOrderedResult;
+        } finally {
+            phaseTimer.finishPom();
+            commitPomOperationEvent(pomOperationEvent, "verify", result);
+        }
+    }
+
+    /**
+     * Saves a report with all misplaced elements, so that they can be fixed at once
+     */
+    private void saveVerifyReport() {
+        List<MisplacedElement> misplacedElements = xmlProcessor.getMisplacedElements();
+        verifyReportWriter.saveReport(verifyReportFile, pomFile, misplacedElements);
+        log.info(String.format("Found %s misplaced element(s), saved verify report to %s",
+                misplacedElements.size(), verifyReportFile.getAbsolutePath()));
+    }
+
+    /**
+     * Finds every misplaced element in the incoming xml, without reading or saving the pom file.
+     *
+     * @param xml the xml that should be verified.
+     * @return all misplaced elements, in the order they appear in the xml
+     */
+    public List<MisplacedElement> findMisplacedElements(final String xml) {
+        insertXmlInXmlProcessor(xml, "Could not verify pom files content: ");
+        xmlProcessor.sortXml(true);
+        cancellationChecker.checkCanceled();
+        return xmlProcessor.getMisplacedElements();
     }
 
     public XmlOrderedResult isPomElementsSorted() {
-        String originalXml = fileUtil.getPomFileContent();
+        String originalXml = readPomFile();
         insertXmlInXmlProcessor(originalXml, "Could not verify pom files content: ");
         xmlProcessor.sortXml();
 
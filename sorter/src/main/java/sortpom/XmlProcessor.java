@@ -9,18 +9,31 @@ import org.jdom.input.SAXBuilder;
 import org.jdom.output.Format;
 import org.jdom.output.XMLOutputter;
 import sortpom.jdomcontent.NewlineText;
+import sortpom.metrics.PhaseTimer;
+import sortpom.metrics.SortPhase;
 import sortpom.parameter.LineSeparatorUtil;
 import sortpom.parameter.PluginParameters;
+import sortpom.splice.ElementMoveFinder;
+import sortpom.splice.SplicingXmlWriter;
 import sortpom.util.BufferedLineSeparatorOutputStream;
+import sortpom.util.CancellationChecker;
 import sortpom.util.XmlOrderedResult;
 import sortpom.verify.ElementComparator;
+import sortpom.verify.ElementOrigins;
+import sortpom.verify.LineNumberSAXBuilder;
+import sortpom.verify.MisplacedElement;
+import sortpom.verify.MisplacedElementCollector;
 import sortpom.wrapper.WrapperFactory;
 import sortpom.wrapper.WrapperOperations;
 
+import java.io.ByteArrayInputStream;
 import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.Writer;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
 
 /**
  * Creates xml structure and sorts it.
@@ -37,6 +50,14 @@ public class XmlProcessor {
     private String indentCharacters;
     private boolean expandEmptyElements;
     private boolean indentBlankLines;
+    private int parallelSortThreshold;
+    private boolean recordLineNumbers;
+    private boolean keepFormatting;
+    private String originalXmlText;
+    private ElementOrigins elementOrigins;
+    private CancellationChecker cancellationChecker = CancellationChecker.NONE;
+    private Map<Element, Integer> lineNumbers = Collections.emptyMap();
+    private PhaseTimer phaseTimer = new PhaseTimer();
 
     public XmlProcessor(WrapperFactory factory) {
         this.factory = factory;
@@ -51,6 +72,19 @@ public class XmlProcessor {
         this.encoding = pluginParameters.encoding;
         this.expandEmptyElements = pluginParameters.expandEmptyElements;
         this.indentBlankLines = pluginParameters.indentBlankLines;
+        this.parallelSortThreshold = pluginParameters.parallelSortThreshold;
+        this.recordLineNumbers = pluginParameters.verifyReportFile != null;
+        this.keepFormatting = pluginParameters.keepFormatting;
+    }
+
+    /** Lets the sorting be canceled between and within the sort steps */
+    public void setCancellationChecker(CancellationChecker cancellationChecker) {
+        this.cancellationChecker = cancellationChecker;
+    }
+
+    /** Lets the time of the parse, wrap, sort, serialize and compare phases be measured */
+    public void setPhaseTimer(PhaseTimer phaseTimer) {
+        this.phaseTimer = phaseTimer;
     }
 
     /**
@@ -62,28 +96,99 @@ public class XmlProcessor {
      * @throws java.io.IOException   Signals that an I/O exception has occurred.
      */
     public void setOriginalXml(final InputStream originalXml) throws JDOMException, IOException {
-        SAXBuilder parser = new SAXBuilder();
-        originalDocument = parser.build(originalXml);
+        phaseTimer.start();
+        InputStream xmlToParse = originalXml;
+        if (keepFormatting) {
+            byte[] originalXmlBytes = IOUtils.toByteArray(originalXml);
+            originalXmlText = new String(originalXmlBytes, encoding);
+            xmlToParse = new ByteArrayInputStream(originalXmlBytes);
+        }
+        if (recordLineNumbers) {
+            LineNumberSAXBuilder parser = new LineNumberSAXBuilder();
+            originalDocument = parser.build(xmlToParse);
+            lineNumbers = parser.getLineNumbers();
+        } else {
+            SAXBuilder parser = new SAXBuilder();
+            originalDocument = parser.build(xmlToParse);
+        }
+        phaseTimer.setDocument(originalDocument);
+        phaseTimer.finish(SortPhase.PARSE);
+    }
+
+    /**
+     * Sets an original document that was created from the xml by someone else, e.g. by an editor that has
+     * already parsed the xml. The document is not changed by the sorting.
+     */
+    public void setOriginalDocument(final Document originalDocument) {
+        this.originalDocument = originalDocument;
+        this.originalXmlText = null;
+        this.lineNumbers = Collections.emptyMap();
+        phaseTimer.setDocument(originalDocument);
     }
 
     /** Creates a new dom document that contains the sorted xml. */
     public void sortXml() {
+        sortXml(keepFormatting || recordLineNumbers);
+    }
+
+    /**
+     * Creates a new dom document that contains the sorted xml.
+     *
+     * @param recordElementOrigins if the element that each sorted element was cloned from should be
+     *                             recorded, which the misplaced elements and the element moves need
+     */
+    public void sortXml(boolean recordElementOrigins) {
+        phaseTimer.start();
         newDocument = (Document) originalDocument.clone();
         final Element rootElement = (Element) originalDocument.getRootElement().clone();
+        elementOrigins = null;
+        if (recordElementOrigins) {
+            elementOrigins = new ElementOrigins();
+            elementOrigins.addClone(originalDocument.getRootElement(), rootElement);
+        }
 
         WrapperOperations rootWrapper = factory.createFromRootElement(rootElement);
 
         rootWrapper.createWrappedStructure(factory);
+        cancellationChecker.checkCanceled();
         rootWrapper.detachStructure();
+        phaseTimer.finish(SortPhase.WRAP);
         rootWrapper.sortStructureAttributes();
-        rootWrapper.sortStructureElements();
+        cancellationChecker.checkCanceled();
+        if (parallelSortThreshold > 0) {
+            rootWrapper.sortStructureElementsInParallel(parallelSortThreshold);
+        } else {
+            rootWrapper.sortStructureElements();
+        }
 
+        cancellationChecker.checkCanceled();
         newDocument.setRootElement((Element) rootWrapper.getWrappedStructure().get(0));
+        phaseTimer.finish(SortPhase.SORT);
     }
 
     public XmlOrderedResult isXmlOrdered() {
-        ElementComparator elementComparator = new ElementComparator(originalDocument.getRootElement(), newDocument.getRootElement());
-        return elementComparator.isElementOrdered();
+        phaseTimer.start();
+        ElementComparator elementComparator = new ElementComparator(originalDocument.getRootElement(),
+                newDocument.getRootElement());
+        XmlOrderedResult xmlOrderedResult = elementComparator.isElementOrdered();
+        phaseTimer.finish(SortPhase.COMPARE);
+        return xmlOrderedResult;
+    }
+
+    /** Returns every element in the original xml that is not placed where the sorted xml places it */
+    public List<MisplacedElement> getMisplacedElements() {
+        MisplacedElementCollector collector = new MisplacedElementCollector(lineNumbers, getElementOrigins());
+        return collector.collect(originalDocument.getRootElement(), newDocument.getRootElement());
+    }
+
+    /**
+     * Returns how the elements in the original document should be moved to get the sorted document
+     *
+     * @see ElementMoveFinder#findMoves(org.jdom.Element, org.jdom.Element)
+     */
+    public Map<Element, List<Element>> getElementMoves() {
+        ElementMoveFinder elementMoveFinder = new ElementMoveFinder(getElementOrigins());
+        return elementMoveFinder.findMoves(originalDocument.getRootElement(), newDocument.getRootElement());
     }
 
     /**
@@ -93,6 +198,13 @@ public class XmlProcessor {
      * @throws java.io.IOException
      */
     public ByteArrayOutputStream getSortedXml() throws IOException {
+        cancellationChecker.checkCanceled();
+        phaseTimer.start();
+        if (keepFormatting) {
+            ByteArrayOutputStream sortedXml = getSortedXmlKeepingFormatting();
+            phaseTimer.finish(SortPhase.SERIALIZE);
+            return sortedXml;
+        }
         ByteArrayOutputStream sortedXml = new ByteArrayOutputStream();
         BufferedLineSeparatorOutputStream bufferedLineOutputStream =
                 new BufferedLineSeparatorOutputStream(lineSeparatorUtil.toString(), sortedXml);
@@ -102,9 +214,31 @@ public class XmlProcessor {
         xmlOutputter.output(newDocument, bufferedLineOutputStream);
 
         IOUtils.closeQuietly(bufferedLineOutputStream);
+        phaseTimer.finish(SortPhase.SERIALIZE);
         return sortedXml;
     }
 
+    /**
+     * Creates the sorted xml by moving the elements in the original xml text, so that the original formatting
+     * is kept.
+     */
+    private ByteArrayOutputStream getSortedXmlKeepingFormatting() throws IOException {
+        SplicingXmlWriter splicingXmlWriter = new SplicingXmlWriter(originalXmlText, getElementOrigins());
+        String sortedXmlText = splicingXmlWriter.write(originalDocument.getRootElement(), newDocument.getRootElement());
+
+        ByteArrayOutputStream sortedXml = new ByteArrayOutputStream(sortedXmlText.length());
+        sortedXml.write(sortedXmlText.getBytes(encoding));
+        return sortedXml;
+    }
+
+    /** Sorts again if the last sorting did not record the element origins */
+    private ElementOrigins getElementOrigins() {
+        if (elementOrigins == null) {
+            sortXml(true);
+        }
+        return elementOrigins;
+    }
+
     private Format createPrettyFormat() {
         final Format prettyFormat = Format.getPrettyFormat();
         prettyFormat.setExpandEmptyElements(expandEmptyElements);
@@ -0,0 +1,72 @@
+package sortpom.batch;
+
+import java.io.File;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The outcome of sorting one pom file in a batch.
+ */
+public final class BatchSortResult {
+    private final File pomFile;
+    private final long fileSize;
+    private final long elapsedNanos;
+    private final boolean changed;
+    private final RuntimeException failure;
+
+    static BatchSortResult sorted(File pomFile, long fileSize, long elapsedNanos, boolean changed) {
+        return new BatchSortResult(pomFile, fileSize, elapsedNanos, changed, null);
+    }
+
+    static BatchSortResult failed(File pomFile, long fileSize, long elapsedNanos, RuntimeException failure) {
+        return new BatchSortResult(pomFile, fileSize, elapsedNanos, false, failure);
+    }
+
+    private BatchSortResult(File pomFile, long fileSize, long elapsedNanos, boolean changed, RuntimeException failure) {
+        this.pomFile = pomFile;
+        this.fileSize = fileSize;
+        this.elapsedNanos = elapsedNanos;
+        this.changed = changed;
+        this.failure = failure;
+    }
+
+    public File getPomFile() {
+        return pomFile;
+    }
+
+    /** Size of the pom file in bytes before it was sorted */
+    public long getFileSize() {
+        return fileSize;
+    }
+
+    public long getElapsedNanos() {
+        return elapsedNanos;
+    }
+
+    public long getElapsedMillis() {
+        return TimeUnit.NANOSECONDS.toMillis(elapsedNanos);
+    }
+
+    /** True if the pom file was rewritten, false if it already was sorted or if the sorting failed */
+    public boolean isChanged() {
+        return changed;
+    }
+
+    public boolean isFailed() {
+        return failure != null;
+    }
+
+    public RuntimeException getFailure() {
+        return failure;
+    }
+
+    @Override
+    public String toString() {
+        return "BatchSortResult{" +
+                "pomFile=" + pomFile +
+                ", fileSize=" + fileSize +
+                ", elapsedMillis=" + getElapsedMillis() +
+                ", changed=" + changed +
+                ", failure=" + failure +
+                '}';
+    }
+}
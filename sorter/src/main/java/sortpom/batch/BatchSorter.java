@@ -0,0 +1,142 @@
+package sortpom.batch;
+
+import sortpom.SortPomImpl;
+import sortpom.exception.FailureException;
+import sortpom.logger.SortPomLogger;
+import sortpom.metrics.PhaseListener;
+import sortpom.parameter.PluginParameters;
+import sortpom.util.AsyncPomWriter;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Sorts many pom files concurrently. Each pom file is held in memory several times while it is sorted, so
+ * pom files are only started when their estimated memory usage fits within a memory budget. The largest
+ * pom files are started first and small pom files fill up the remaining threads.
+ */
+public class BatchSorter {
+    private SortPomLogger log;
+    private PluginParameters pluginParameters;
+    private long memoryBudget = Runtime.getRuntime().maxMemory() / 2;
+    private int nrOfThreads = Runtime.getRuntime().availableProcessors();
+    private AsyncPomWriter asyncPomWriter;
+    private PhaseListener phaseListener = PhaseListener.NONE;
+
+    /**
+     * Initializes the batch sorter with sortpom parameters. The pom file in the parameters is not used,
+     * all other parameters are applied to each pom file in the batch.
+     */
+    public void setup(SortPomLogger log, PluginParameters pluginParameters) {
+        this.log = log;
+        this.pluginParameters = pluginParameters;
+    }
+
+    /** The estimated amount of heap, in bytes, that pom files that are sorted at the same time may use */
+    public void setMemoryBudget(long memoryBudget) {
+        this.memoryBudget = memoryBudget;
+    }
+
+    public void setNrOfThreads(int nrOfThreads) {
+        this.nrOfThreads = nrOfThreads;
+    }
+
+    /**
+     * Lets the sorted pom files be saved by an asynchronous writer, so that a thread can continue with the next
+     * pom file right away. The writer is flushed before sortPoms returns.
+     */
+    public void setAsyncPomWriter(AsyncPomWriter asyncPomWriter) {
+        this.asyncPomWriter = asyncPomWriter;
+    }
+
+    /**
+     * Lets the time of each phase of each pom file be measured. The listener is called from several threads,
+     * and is told that the sorting is finished before sortPoms returns.
+     */
+    public void setPhaseListener(PhaseListener phaseListener) {
+        this.phaseListener = phaseListener;
+    }
+
+    /**
+     * Sorts all pom files. A failure for one pom file does not stop the others from being sorted.
+     *
+     * @param pomFiles the pom files to sort
+     * @return the result for each pom file, in the same order as the pom files
+     * @throws FailureException if an asynchronous writer is used and any sorted pom file could not be saved
+     */
+    public List<BatchSortResult> sortPoms(List<File> pomFiles) {
+        MemoryBudgetScheduler scheduler = new MemoryBudgetScheduler(pomFiles, memoryBudget, nrOfThreads);
+        ExecutorService executorService = Executors.newFixedThreadPool(nrOfThreads);
+        try {
+            List<Future<BatchSortResult>> futures = new ArrayList<Future<BatchSortResult>>(pomFiles.size());
+            for (int i = 0; i < pomFiles.size(); i++) {
+                futures.add(null);
+            }
+            while (scheduler.hasPendingTasks()) {
+                MemoryBudgetScheduler.PomFileTask task = scheduler.admitNextTask();
+                futures.set(task.index, executorService.submit(new SortTask(scheduler, task)));
+            }
+            List<BatchSortResult> results = getResults(futures);
+            if (asyncPomWriter != null) {
+                asyncPomWriter.flush();
+            }
+            phaseListener.sortingFinished();
+            return results;
+        } finally {
+            executorService.shutdown();
+        }
+    }
+
+    private List<BatchSortResult> getResults(List<Future<BatchSortResult>> futures) {
+        List<BatchSortResult> results = new ArrayList<BatchSortResult>(futures.size());
+        try {
+            for (Future<BatchSortResult> future : futures) {
+                results.add(future.get());
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new FailureException("Interrupted while waiting for pom files to be sorted", e);
+        } catch (ExecutionException e) {
+            throw new FailureException("Could not sort pom files", e.getCause());
+        }
+        return results;
+    }
+
+    /** Sorts one pom file and releases its memory reservation when done */
+    private class SortTask implements Callable<BatchSortResult> {
+        private final MemoryBudgetScheduler scheduler;
+        private final MemoryBudgetScheduler.PomFileTask task;
+
+        SortTask(MemoryBudgetScheduler scheduler, MemoryBudgetScheduler.PomFileTask task) {
+            this.scheduler = scheduler;
+            this.task = task;
+        }
+
+        //@Override
+        public BatchSortResult call() {
+            long start = System.nanoTime();
+            try {
+                SortPomImpl sortPomImpl = new SortPomImpl();
+                sortPomImpl.setup(log, pluginParameters.createCopyForPomFile(task.pomFile));
+                sortPomImpl.setAsyncPomWriter(asyncPomWriter);
+                sortPomImpl.setPhaseListener(phaseListener);
+                boolean changed = sortPomImpl.sortPom();
+                BatchSortResult result = BatchSortResult.sorted(task.pomFile, task.fileSize, System.nanoTime() - start, changed);
+                log.info(String.format("Sorted %s (%s bytes) in %s ms", task.pomFile.getAbsolutePath(),
+                        task.fileSize, result.getElapsedMillis()));
+                return result;
+            } catch (RuntimeException e) {
+                log.error(String.format("Could not sort %s: %s", task.pomFile.getAbsolutePath(), e.getMessage()));
+                return BatchSortResult.failed(task.pomFile, task.fileSize, System.nanoTime() - start, e);
+            } finally {
+                scheduler.taskDone(task);
+            }
+        }
+    }
+}
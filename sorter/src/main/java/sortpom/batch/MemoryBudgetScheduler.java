@@ -0,0 +1,116 @@
+package sortpom.batch;
+
+import sortpom.exception.FailureException;
+
+import java.io.File;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Decides in which order pom files are sorted in a batch. The largest pom file that fits within the remaining
+ * memory budget is admitted first, which keeps the total time down since the largest files are not left
+ * until the end. A pom file that is larger than the whole budget is admitted when nothing else is running.
+ */
+class MemoryBudgetScheduler {
+    /**
+     * Estimated heap usage per byte of pom file while it is sorted: the file content as String and bytes,
+     * the original jdom tree, the sorted clone and the sorted output.
+     */
+    static final int MEMORY_PER_FILE_BYTE = 40;
+
+    /** Estimated heap usage for each sorting regardless of file size, such as the parsed sort order file */
+    static final long MEMORY_PER_FILE = 256 * 1024;
+
+    /** Pending pom files ordered by estimated memory usage */
+    private final TreeMap<Long, Deque<PomFileTask>> pendingTasks = new TreeMap<Long, Deque<PomFileTask>>();
+    private final int maxRunningTasks;
+
+    private int nrOfPendingTasks;
+    private int nrOfRunningTasks;
+    private long availableMemory;
+
+    MemoryBudgetScheduler(List<File> pomFiles, long memoryBudget, int maxRunningTasks) {
+        this.maxRunningTasks = maxRunningTasks;
+        this.availableMemory = memoryBudget;
+        for (int i = 0; i < pomFiles.size(); i++) {
+            addPendingTask(new PomFileTask(i, pomFiles.get(i)));
+        }
+    }
+
+    static long estimateMemoryUsage(long fileSize) {
+        return MEMORY_PER_FILE + fileSize * MEMORY_PER_FILE_BYTE;
+    }
+
+    private void addPendingTask(PomFileTask task) {
+        Deque<PomFileTask> tasks = pendingTasks.get(task.estimatedMemoryUsage);
+        if (tasks == null) {
+            tasks = new ArrayDeque<PomFileTask>();
+            pendingTasks.put(task.estimatedMemoryUsage, tasks);
+        }
+        tasks.addLast(task);
+        nrOfPendingTasks++;
+    }
+
+    synchronized boolean hasPendingTasks() {
+        return nrOfPendingTasks > 0;
+    }
+
+    /**
+     * Waits until there is a free worker and enough memory for a pending pom file, then reserves its
+     * memory and returns it.
+     */
+    synchronized PomFileTask admitNextTask() {
+        while (true) {
+            if (nrOfRunningTasks < maxRunningTasks) {
+                Map.Entry<Long, Deque<PomFileTask>> entry = nrOfRunningTasks == 0
+                        ? pendingTasks.lastEntry()
+                        : pendingTasks.floorEntry(availableMemory);
+                if (entry != null) {
+                    return reserve(entry);
+                }
+            }
+            try {
+                wait();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new FailureException("Interrupted while waiting to sort the next pom file", e);
+            }
+        }
+    }
+
+    private PomFileTask reserve(Map.Entry<Long, Deque<PomFileTask>> entry) {
+        PomFileTask task = entry.getValue().removeFirst();
+        if (entry.getValue().isEmpty()) {
+            pendingTasks.remove(entry.getKey());
+        }
+        nrOfPendingTasks--;
+        nrOfRunningTasks++;
+        availableMemory -= task.estimatedMemoryUsage;
+        return task;
+    }
+
+    /** Releases the memory that was reserved for a pom file when it has been sorted */
+    synchronized void taskDone(PomFileTask task) {
+        nrOfRunningTasks--;
+        availableMemory += task.estimatedMemoryUsage;
+        notifyAll();
+    }
+
+    /** A pom file waiting to be sorted, with its position in the batch */
+    static class PomFileTask {
+        final int index;
+        final File pomFile;
+        final long fileSize;
+        final long estimatedMemoryUsage;
+
+        PomFileTask(int index, File pomFile) {
+            this.index = index;
+            this.pomFile = pomFile;
+            this.fileSize = pomFile.length();
+            this.estimatedMemoryUsage = estimateMemoryUsage(fileSize);
+        }
+    }
+}
@@ -0,0 +1,128 @@
+package sortpom.batch;
+
+import org.apache.commons.io.IOUtils;
+import org.jdom.JDOMException;
+import sortpom.SortPomImpl;
+import sortpom.XmlProcessor;
+import sortpom.exception.FailureException;
+import sortpom.logger.SortPomLogger;
+import sortpom.metrics.PhaseListener;
+import sortpom.metrics.PhaseTimer;
+import sortpom.metrics.SortPhase;
+import sortpom.parameter.PluginParameters;
+import sortpom.util.FileUtil;
+import sortpom.wrapper.WrapperFactoryImpl;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+
+/**
+ * One pom file on its way through the sort pipeline. Each stage of the pipeline performs one step of
+ * the same sorting that SortPomImpl does, and the state between the steps is kept here.
+ */
+class PipelineJob {
+    final int index;
+    final File pomFile;
+    private final PluginParameters pluginParameters;
+    private final long fileSize;
+    private final long startNanos = System.nanoTime();
+    private final PhaseTimer phaseTimer = new PhaseTimer();
+
+    private FileUtil fileUtil;
+    private XmlProcessor xmlProcessor;
+    private String originalXml;
+    private String sortedXml;
+    private boolean changed;
+    private RuntimeException failure;
+
+    PipelineJob(int index, File pomFile, PluginParameters pluginParameters, PhaseListener phaseListener) {
+        this.index = index;
+        this.pomFile = pomFile;
+        this.pluginParameters = pluginParameters;
+        this.fileSize = pomFile.length();
+        phaseTimer.setPhaseListener(phaseListener);
+        phaseTimer.startPom(pomFile.getAbsolutePath(), false);
+    }
+
+    void read() {
+        phaseTimer.start();
+        fileUtil = new FileUtil();
+        fileUtil.setup(pluginParameters);
+        originalXml = fileUtil.getPomFileContent();
+        phaseTimer.setInputSize(originalXml.length());
+        phaseTimer.finish(SortPhase.READ);
+    }
+
+    void parse() {
+        WrapperFactoryImpl wrapperFactory = new WrapperFactoryImpl(fileUtil);
+        wrapperFactory.setup(pluginParameters);
+        xmlProcessor = new XmlProcessor(wrapperFactory);
+        xmlProcessor.setup(pluginParameters);
+        xmlProcessor.setPhaseTimer(phaseTimer);
+        ByteArrayInputStream originalXmlInputStream = null;
+        try {
+            originalXmlInputStream = new ByteArrayInputStream(originalXml.getBytes(pluginParameters.encoding));
+            xmlProcessor.setOriginalXml(originalXmlInputStream);
+        } catch (JDOMException e) {
+            throw new FailureException("Could not sort pom files content: " + originalXml, e);
+        } catch (IOException e) {
+            throw new FailureException("Could not sort pom files content: " + originalXml, e);
+        } finally {
+            IOUtils.closeQuietly(originalXmlInputStream);
+        }
+    }
+
+    void sort() {
+        xmlProcessor.sortXml();
+    }
+
+    void serialize() {
+        ByteArrayOutputStream sortedXmlOutputStream = null;
+        try {
+            sortedXmlOutputStream = xmlProcessor.getSortedXml();
+            sortedXml = sortedXmlOutputStream.toString(pluginParameters.encoding);
+        } catch (IOException e) {
+            throw new FailureException("Could not sort pom files content: " + originalXml, e);
+        } finally {
+            IOUtils.closeQuietly(sortedXmlOutputStream);
+        }
+        // The dom documents are not needed anymore, let them be garbage collected while the job waits
+        xmlProcessor = null;
+    }
+
+    void compare() {
+        phaseTimer.start();
+        changed = !SortPomImpl.pomFileIsSorted(originalXml, sortedXml);
+        originalXml = null;
+        phaseTimer.finish(SortPhase.COMPARE);
+    }
+
+    void write(SortPomLogger log) {
+        if (!changed) {
+            return;
+        }
+        phaseTimer.start();
+        SortPomImpl.createBackupFile(log, fileUtil, pluginParameters);
+        fileUtil.savePomFile(sortedXml);
+        phaseTimer.finish(SortPhase.WRITE);
+    }
+
+    void setFailure(RuntimeException failure) {
+        this.failure = failure;
+    }
+
+    boolean isFailed() {
+        return failure != null;
+    }
+
+    BatchSortResult createResult() {
+        phaseTimer.finishPom();
+        long elapsedNanos = System.nanoTime() - startNanos;
+        if (failure != null) {
+            return BatchSortResult.failed(pomFile, fileSize, elapsedNanos, failure);
+        }
+        return BatchSortResult.sorted(pomFile, fileSize, elapsedNanos, changed);
+    }
+}
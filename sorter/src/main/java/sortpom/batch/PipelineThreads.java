@@ -0,0 +1,62 @@
+package sortpom.batch;
+
+import java.lang.reflect.Method;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Creates the threads for the sort pipeline. Virtual threads are looked up by reflection, so that the
+ * pipeline still runs with ordinary threads on JVMs that do not have them.
+ */
+final class PipelineThreads {
+    private PipelineThreads() {
+    }
+
+    static boolean isVirtualThreadsSupported() {
+        return createVirtualThreadFactory() != null;
+    }
+
+    /** Threads for stages that mostly wait on the file system */
+    static ThreadFactory createIoThreadFactory() {
+        ThreadFactory virtualThreadFactory = createVirtualThreadFactory();
+        if (virtualThreadFactory != null) {
+            return virtualThreadFactory;
+        }
+        return new PlatformThreadFactory("sortpom-io-");
+    }
+
+    /** Threads for stages that mostly use the cpu */
+    static ThreadFactory createCpuThreadFactory() {
+        return new PlatformThreadFactory("sortpom-cpu-");
+    }
+
+    private static ThreadFactory createVirtualThreadFactory() {
+        try {
+            Method ofVirtual = Thread.class.getMethod("ofVirtual");
+            Object builder = ofVirtual.invoke(null);
+            Method name = ofVirtual.getReturnType().getMethod("name", String.class, long.class);
+            builder = name.invoke(builder, "sortpom-io-", 0L);
+            Method factory = ofVirtual.getReturnType().getMethod("factory");
+            return (ThreadFactory) factory.invoke(builder);
+        } catch (Exception e) {
+            // Virtual threads are not available in this JVM (or are a disabled preview feature)
+            return null;
+        }
+    }
+
+    private static class PlatformThreadFactory implements ThreadFactory {
+        private final AtomicInteger threadNumber = new AtomicInteger();
+        private final String namePrefix;
+
+        PlatformThreadFactory(String namePrefix) {
+            this.namePrefix = namePrefix;
+        }
+
+        //@Override
+        public Thread newThread(Runnable runnable) {
+            Thread thread = new Thread(runnable, namePrefix + threadNumber.getAndIncrement());
+            thread.setDaemon(true);
+            return thread;
+        }
+    }
+}
@@ -0,0 +1,239 @@
+package sortpom.batch;
+
+import sortpom.exception.FailureException;
+import sortpom.logger.SortPomLogger;
+import sortpom.metrics.PhaseListener;
+import sortpom.parameter.PluginParameters;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Sorts many pom files in a staged pipeline: read, parse, sort, serialize, compare and write. The stages are
+ * connected by bounded queues, so that only a limited number of pom files are in memory at the same time.
+ * The blocking file stages run on virtual threads when the JVM supports them (otherwise on ordinary threads)
+ * and the cpu stages on a fixed number of threads, so that disk latency overlaps with sorting.
+ */
+public class SortPipeline {
+    private static final PipelineJob END_OF_JOBS = new PipelineJob(-1, new File(""), null, PhaseListener.NONE);
+
+    private SortPomLogger log;
+    private PluginParameters pluginParameters;
+    private int nrOfCpuThreads = Runtime.getRuntime().availableProcessors();
+    private int nrOfIoThreads = PipelineThreads.isVirtualThreadsSupported() ? 64 : 4;
+    private int queueCapacity = 2 * Runtime.getRuntime().availableProcessors();
+    private PhaseListener phaseListener = PhaseListener.NONE;
+
+    /**
+     * Initializes the pipeline with sortpom parameters. The pom file in the parameters is not used,
+     * all other parameters are applied to each pom file.
+     */
+    public void setup(SortPomLogger log, PluginParameters pluginParameters) {
+        this.log = log;
+        this.pluginParameters = pluginParameters;
+    }
+
+    /** Number of threads for each of the parse, sort, serialize and compare stages */
+    public void setNrOfCpuThreads(int nrOfCpuThreads) {
+        this.nrOfCpuThreads = nrOfCpuThreads;
+    }
+
+    /** Number of threads for each of the read and write stages */
+    public void setNrOfIoThreads(int nrOfIoThreads) {
+        this.nrOfIoThreads = nrOfIoThreads;
+    }
+
+    /** Maximum number of pom files waiting in front of each stage */
+    public void setQueueCapacity(int queueCapacity) {
+        this.queueCapacity = queueCapacity;
+    }
+
+    /**
+     * Lets the time of each stage of each pom file be measured. The listener is called from the stage threads,
+     * and is told that the sorting is finished before sortPoms returns.
+     */
+    public void setPhaseListener(PhaseListener phaseListener) {
+        this.phaseListener = phaseListener;
+    }
+
+    /**
+     * Sorts all pom files. A failure for one pom file does not stop the others from being sorted.
+     *
+     * @param pomFiles the pom files to sort
+     * @return the result for each pom file, in the same order as the pom files
+     */
+    public List<BatchSortResult> sortPoms(List<File> pomFiles) {
+        BatchSortResult[] results = new BatchSortResult[pomFiles.size()];
+        CountDownLatch writeStageDone = new CountDownLatch(nrOfIoThreads);
+        ThreadFactory ioThreadFactory = PipelineThreads.createIoThreadFactory();
+        ThreadFactory cpuThreadFactory = PipelineThreads.createCpuThreadFactory();
+
+        Stage write = new Stage("write", nrOfIoThreads, ioThreadFactory, null, results, writeStageDone) {
+            @Override
+            void process(PipelineJob job) {
+                job.write(log);
+            }
+        };
+        Stage compare = new Stage("compare", nrOfCpuThreads, cpuThreadFactory, write) {
+            @Override
+            void process(PipelineJob job) {
+                job.compare();
+            }
+        };
+        Stage serialize = new Stage("serialize", nrOfCpuThreads, cpuThreadFactory, compare) {
+            @Override
+            void process(PipelineJob job) {
+                job.serialize();
+            }
+        };
+        Stage sort = new Stage("sort", nrOfCpuThreads, cpuThreadFactory, serialize) {
+            @Override
+            void process(PipelineJob job) {
+                job.sort();
+            }
+        };
+        Stage parse = new Stage("parse", nrOfCpuThreads, cpuThreadFactory, sort) {
+            @Override
+            void process(PipelineJob job) {
+                job.parse();
+            }
+        };
+        Stage read = new Stage("read", nrOfIoThreads, ioThreadFactory, parse) {
+            @Override
+            void process(PipelineJob job) {
+                log.info("Sorting file " + job.pomFile.getAbsolutePath());
+                job.read();
+            }
+        };
+
+        for (Stage stage : Arrays.asList(write, compare, serialize, sort, parse, read)) {
+            stage.start();
+        }
+        for (int i = 0; i < pomFiles.size(); i++) {
+            read.put(new PipelineJob(i, pomFiles.get(i), pluginParameters.createCopyForPomFile(pomFiles.get(i)),
+                    phaseListener));
+        }
+        read.endOfJobs();
+
+        await(writeStageDone);
+        phaseListener.sortingFinished();
+        return new ArrayList<BatchSortResult>(Arrays.asList(results));
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new FailureException("Interrupted while waiting for pom files to be sorted", e);
+        }
+    }
+
+    /**
+     * A step in the pipeline. Takes pom files from its queue, processes them and hands them to the next
+     * stage. Failed pom files skip the remaining stages, except the last one that collects the results.
+     */
+    private abstract class Stage {
+        private final String name;
+        private final int nrOfThreads;
+        private final ThreadFactory threadFactory;
+        private final Stage nextStage;
+        private final BlockingQueue<PipelineJob> queue = new ArrayBlockingQueue<PipelineJob>(queueCapacity);
+        private final AtomicInteger runningThreads = new AtomicInteger();
+        private final BatchSortResult[] results;
+        private final CountDownLatch stageDone;
+
+        Stage(String name, int nrOfThreads, ThreadFactory threadFactory, Stage nextStage) {
+            this(name, nrOfThreads, threadFactory, nextStage, null, null);
+        }
+
+        Stage(String name, int nrOfThreads, ThreadFactory threadFactory, Stage nextStage,
+              BatchSortResult[] results, CountDownLatch stageDone) {
+            this.name = name;
+            this.nrOfThreads = nrOfThreads;
+            this.threadFactory = threadFactory;
+            this.nextStage = nextStage;
+            this.results = results;
+            this.stageDone = stageDone;
+        }
+
+        abstract void process(PipelineJob job);
+
+        void start() {
+            runningThreads.set(nrOfThreads);
+            for (int i = 0; i < nrOfThreads; i++) {
+                threadFactory.newThread(new Runnable() {
+                    //@Override
+                    public void run() {
+                        processJobs();
+                    }
+                }).start();
+            }
+        }
+
+        void put(PipelineJob job) {
+            try {
+                queue.put(job);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new FailureException("Interrupted while handing pom file to " + name + " stage", e);
+            }
+        }
+
+        /** Tells every thread in this stage to stop when the queue is empty */
+        void endOfJobs() {
+            for (int i = 0; i < nrOfThreads; i++) {
+                put(END_OF_JOBS);
+            }
+        }
+
+        private void processJobs() {
+            try {
+                PipelineJob job = queue.take();
+                while (job != END_OF_JOBS) {
+                    processJob(job);
+                    job = queue.take();
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } finally {
+                if (runningThreads.decrementAndGet() == 0 && nextStage != null) {
+                    nextStage.endOfJobs();
+                }
+                if (stageDone != null) {
+                    stageDone.countDown();
+                }
+            }
+        }
+
+        private void processJob(PipelineJob job) {
+            if (!job.isFailed()) {
+                try {
+                    process(job);
+                } catch (RuntimeException e) {
+                    fail(job, e);
+                } catch (Throwable e) {
+                    // An error such as OutOfMemoryError must not end the stage thread, then the job would be lost
+                    fail(job, new FailureException(e.toString(), e));
+                }
+            }
+            if (nextStage != null) {
+                nextStage.put(job);
+            } else {
+                results[job.index] = job.createResult();
+            }
+        }
+
+        private void fail(PipelineJob job, RuntimeException failure) {
+            log.error(String.format("Could not %s %s: %s", name, job.pomFile.getAbsolutePath(), failure.getMessage()));
+            job.setFailure(failure);
+        }
+    }
+}
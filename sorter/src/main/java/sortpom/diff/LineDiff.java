@@ -0,0 +1,290 @@
+package sortpom.diff;
+
+import java.util.*;
+
+/**
+ * Creates a minimal list of text edits that turns an original text into a revised text. The texts are
+ * compared line by line with the patience algorithm: lines that occur exactly once in both texts, such as
+ * most dependency and plugin declarations in a pom, are used as anchors. Lines like &lt;/dependency&gt; that
+ * occur many times would otherwise make a plain diff align unrelated elements. Parts without unique lines
+ * are compared with the Myers algorithm, and parts without any common line are replaced at once. Each edit
+ * is finally trimmed to the characters that differ.
+ */
+public class LineDiff {
+    private final String originalText;
+    private final List<String> originalLines;
+    private final List<String> revisedLines;
+    private final int[] originalLineOffsets;
+    private final List<int[]> matchingLines = new ArrayList<int[]>();
+
+    public LineDiff(String originalText, String revisedText) {
+        this.originalText = originalText;
+        this.originalLines = splitLines(originalText);
+        this.revisedLines = splitLines(revisedText);
+        this.originalLineOffsets = createLineOffsets(originalLines);
+    }
+
+    /**
+     * Returns the edits, in ascending offset order, that turn the original text into the revised text.
+     */
+    public List<TextEdit> getTextEdits() {
+        matchingLines.clear();
+        matchLines(0, originalLines.size(), 0, revisedLines.size());
+        matchingLines.add(new int[]{originalLines.size(), revisedLines.size()});
+
+        List<TextEdit> textEdits = new ArrayList<TextEdit>();
+        int originalLine = 0;
+        int revisedLine = 0;
+        for (int[] matchingLine : matchingLines) {
+            if (originalLine < matchingLine[0] || revisedLine < matchingLine[1]) {
+                addTrimmedEdit(textEdits, originalLine, matchingLine[0], revisedLine, matchingLine[1]);
+            }
+            originalLine = matchingLine[0] + 1;
+            revisedLine = matchingLine[1] + 1;
+        }
+        return textEdits;
+    }
+
+    private static List<String> splitLines(String text) {
+        List<String> lines = new ArrayList<String>();
+        int start = 0;
+        for (int i = 0; i < text.length(); i++) {
+            if (text.charAt(i) == '\n') {
+                lines.add(text.substring(start, i + 1));
+                start = i + 1;
+            }
+        }
+        if (start < text.length()) {
+            lines.add(text.substring(start));
+        }
+        return lines;
+    }
+
+    private static int[] createLineOffsets(List<String> lines) {
+        int[] offsets = new int[lines.size() + 1];
+        for (int i = 0; i < lines.size(); i++) {
+            offsets[i + 1] = offsets[i] + lines.get(i).length();
+        }
+        return offsets;
+    }
+
+    /** Adds matching line pairs, in ascending order, for the given ranges */
+    private void matchLines(int originalStart, int originalEnd, int revisedStart, int revisedEnd) {
+        while (originalStart < originalEnd && revisedStart < revisedEnd
+                && originalLines.get(originalStart).equals(revisedLines.get(revisedStart))) {
+            matchingLines.add(new int[]{originalStart++, revisedStart++});
+        }
+        int commonSuffixLength = 0;
+        while (originalStart < originalEnd - commonSuffixLength && revisedStart < revisedEnd - commonSuffixLength
+                && originalLines.get(originalEnd - commonSuffixLength - 1).equals(
+                revisedLines.get(revisedEnd - commonSuffixLength - 1))) {
+            commonSuffixLength++;
+        }
+        originalEnd -= commonSuffixLength;
+        revisedEnd -= commonSuffixLength;
+
+        if (originalStart < originalEnd && revisedStart < revisedEnd) {
+            List<int[]> anchors = findUniqueLineAnchors(originalStart, originalEnd, revisedStart, revisedEnd);
+            if (anchors.isEmpty()) {
+                if (hasCommonLine(originalStart, originalEnd, revisedStart, revisedEnd)) {
+                    matchLinesWithMyers(originalStart, originalEnd, revisedStart, revisedEnd);
+                }
+            } else {
+                int previousOriginal = originalStart;
+                int previousRevised = revisedStart;
+                for (int[] anchor : anchors) {
+                    matchLines(previousOriginal, anchor[0], previousRevised, anchor[1]);
+                    matchingLines.add(anchor);
+                    previousOriginal = anchor[0] + 1;
+                    previousRevised = anchor[1] + 1;
+                }
+                matchLines(previousOriginal, originalEnd, previousRevised, revisedEnd);
+            }
+        }
+
+        for (int i = commonSuffixLength; i > 0; i--) {
+            matchingLines.add(new int[]{originalEnd + commonSuffixLength - i, revisedEnd + commonSuffixLength - i});
+        }
+    }
+
+    /**
+     * Finds the lines that occur once in both ranges, and keeps the longest sequence of them that is in the
+     * same order in both ranges.
+     */
+    private List<int[]> findUniqueLineAnchors(int originalStart, int originalEnd, int revisedStart, int revisedEnd) {
+        Map<String, int[]> occurrences = new HashMap<String, int[]>();
+        for (int i = originalStart; i < originalEnd; i++) {
+            int[] occurrence = occurrences.get(originalLines.get(i));
+            if (occurrence == null) {
+                occurrences.put(originalLines.get(i), new int[]{1, 0, i, -1});
+            } else {
+                occurrence[0]++;
+            }
+        }
+        for (int i = revisedStart; i < revisedEnd; i++) {
+            int[] occurrence = occurrences.get(revisedLines.get(i));
+            if (occurrence != null) {
+                occurrence[1]++;
+                occurrence[3] = i;
+            }
+        }
+        List<int[]> candidates = new ArrayList<int[]>();
+        for (int i = originalStart; i < originalEnd; i++) {
+            int[] occurrence = occurrences.get(originalLines.get(i));
+            if (occurrence[0] == 1 && occurrence[1] == 1) {
+                candidates.add(new int[]{occurrence[2], occurrence[3]});
+            }
+        }
+        return longestIncreasingRevisedSequence(candidates);
+    }
+
+    private List<int[]> longestIncreasingRevisedSequence(List<int[]> candidates) {
+        int size = candidates.size();
+        int[] tailIndexes = new int[size];
+        int[] predecessors = new int[size];
+        int length = 0;
+        for (int i = 0; i < size; i++) {
+            int low = 0;
+            int high = length;
+            while (low < high) {
+                int middle = (low + high) >>> 1;
+                if (candidates.get(tailIndexes[middle])[1] < candidates.get(i)[1]) {
+                    low = middle + 1;
+                } else {
+                    high = middle;
+                }
+            }
+            predecessors[i] = low > 0 ? tailIndexes[low - 1] : -1;
+            tailIndexes[low] = i;
+            if (low == length) {
+                length++;
+            }
+        }
+        LinkedList<int[]> sequence = new LinkedList<int[]>();
+        for (int index = length > 0 ? tailIndexes[length - 1] : -1; index != -1; index = predecessors[index]) {
+            sequence.addFirst(candidates.get(index));
+        }
+        return sequence;
+    }
+
+    private boolean hasCommonLine(int originalStart, int originalEnd, int revisedStart, int revisedEnd) {
+        Set<String> lines = new HashSet<String>(originalLines.subList(originalStart, originalEnd));
+        for (int i = revisedStart; i < revisedEnd; i++) {
+            if (lines.contains(revisedLines.get(i))) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * The linear space variant of the Myers algorithm, which finds the shortest edit script for the ranges.
+     * Finds the middle snake of the script and compares the parts before and after it the same way, so that
+     * only two arrays of the size of the ranges are kept in memory at a time.
+     */
+    private void matchLinesWithMyers(int originalStart, int originalEnd, int revisedStart, int revisedEnd) {
+        while (originalStart < originalEnd && revisedStart < revisedEnd
+                && originalLines.get(originalStart).equals(revisedLines.get(revisedStart))) {
+            matchingLines.add(new int[]{originalStart++, revisedStart++});
+        }
+        int commonSuffixLength = 0;
+        while (originalStart < originalEnd - commonSuffixLength && revisedStart < revisedEnd - commonSuffixLength
+                && originalLines.get(originalEnd - commonSuffixLength - 1).equals(
+                revisedLines.get(revisedEnd - commonSuffixLength - 1))) {
+            commonSuffixLength++;
+        }
+        originalEnd -= commonSuffixLength;
+        revisedEnd -= commonSuffixLength;
+
+        if (originalStart < originalEnd && revisedStart < revisedEnd) {
+            int[] snake = findMiddleSnake(originalStart, originalEnd, revisedStart, revisedEnd);
+            matchLinesWithMyers(originalStart, snake[0], revisedStart, snake[1]);
+            for (int i = 0; i < snake[2] - snake[0]; i++) {
+                matchingLines.add(new int[]{snake[0] + i, snake[1] + i});
+            }
+            matchLinesWithMyers(snake[2], originalEnd, snake[3], revisedEnd);
+        }
+
+        for (int i = commonSuffixLength; i > 0; i--) {
+            matchingLines.add(new int[]{originalEnd + commonSuffixLength - i, revisedEnd + commonSuffixLength - i});
+        }
+    }
+
+    /**
+     * Runs the Myers algorithm from both ends of the ranges until the paths meet, and returns where the snake
+     * (the run of matching lines) that they meet on starts and ends, as {originalStart, revisedStart,
+     * originalEnd, revisedEnd}. The ranges must differ in their first and last lines.
+     */
+    private int[] findMiddleSnake(int originalStart, int originalEnd, int revisedStart, int revisedEnd) {
+        int n = originalEnd - originalStart;
+        int m = revisedEnd - revisedStart;
+        int delta = n - m;
+        boolean isDeltaOdd = (delta & 1) != 0;
+        int max = (n + m + 1) / 2;
+        int offset = max + 1;
+        // The furthest original position on each diagonal, counted from the start and from the end
+        int[] forward = new int[2 * max + 3];
+        int[] backward = new int[2 * max + 3];
+        for (int d = 0; d <= max; d++) {
+            for (int k = -d; k <= d; k += 2) {
+                int x = k == -d || (k != d && forward[offset + k - 1] < forward[offset + k + 1])
+                        ? forward[offset + k + 1] : forward[offset + k - 1] + 1;
+                int y = x - k;
+                int snakeStartX = x;
+                int snakeStartY = y;
+                while (x < n && y < m && originalLines.get(originalStart + x).equals(revisedLines.get(revisedStart + y))) {
+                    x++;
+                    y++;
+                }
+                forward[offset + k] = x;
+                int backwardK = delta - k;
+                if (isDeltaOdd && backwardK >= -(d - 1) && backwardK <= d - 1 && x + backward[offset + backwardK] >= n) {
+                    return new int[]{originalStart + snakeStartX, revisedStart + snakeStartY,
+                            originalStart + x, revisedStart + y};
+                }
+            }
+            for (int k = -d; k <= d; k += 2) {
+                int x = k == -d || (k != d && backward[offset + k - 1] < backward[offset + k + 1])
+                        ? backward[offset + k + 1] : backward[offset + k - 1] + 1;
+                int y = x - k;
+                int snakeEndX = x;
+                int snakeEndY = y;
+                while (x < n && y < m
+                        && originalLines.get(originalEnd - x - 1).equals(revisedLines.get(revisedEnd - y - 1))) {
+                    x++;
+                    y++;
+                }
+                backward[offset + k] = x;
+                int forwardK = delta - k;
+                if (!isDeltaOdd && forwardK >= -d && forwardK <= d && x + forward[offset + forwardK] >= n) {
+                    return new int[]{originalEnd - x, revisedEnd - y, originalEnd - snakeEndX, revisedEnd - snakeEndY};
+                }
+            }
+        }
+        throw new IllegalStateException("The paths of the Myers algorithm did not meet");
+    }
+
+    private void addTrimmedEdit(List<TextEdit> textEdits, int originalStartLine, int originalEndLine,
+                                int revisedStartLine, int revisedEndLine) {
+        int start = originalLineOffsets[originalStartLine];
+        int end = originalLineOffsets[originalEndLine];
+        StringBuilder replacementBuilder = new StringBuilder();
+        for (int i = revisedStartLine; i < revisedEndLine; i++) {
+            replacementBuilder.append(revisedLines.get(i));
+        }
+        String replacement = replacementBuilder.toString();
+
+        int prefixLength = 0;
+        int maxLength = Math.min(end - start, replacement.length());
+        while (prefixLength < maxLength && originalText.charAt(start + prefixLength) == replacement.charAt(prefixLength)) {
+            prefixLength++;
+        }
+        int suffixLength = 0;
+        while (suffixLength < maxLength - prefixLength
+                && originalText.charAt(end - suffixLength - 1) == replacement.charAt(replacement.length() - suffixLength - 1)) {
+            suffixLength++;
+        }
+        textEdits.add(new TextEdit(start + prefixLength, end - start - prefixLength - suffixLength,
+                replacement.substring(prefixLength, replacement.length() - suffixLength)));
+    }
+}
@@ -0,0 +1,76 @@
+package sortpom.diff;
+
+import java.util.List;
+
+/**
+ * Replaces a part of a text. The offset and length refer to the original text.
+ */
+public final class TextEdit {
+    private final int offset;
+    private final int length;
+    private final String replacement;
+
+    public TextEdit(int offset, int length, String replacement) {
+        this.offset = offset;
+        this.length = length;
+        this.replacement = replacement;
+    }
+
+    /**
+     * Applies edits to a text.
+     *
+     * @param text  the original text
+     * @param edits edits in ascending offset order, that do not overlap
+     * @return the edited text
+     */
+    public static String applyEdits(String text, List<TextEdit> edits) {
+        StringBuilder builder = new StringBuilder(text.length());
+        int position = 0;
+        for (TextEdit edit : edits) {
+            if (edit.offset < position || edit.getEndOffset() > text.length()) {
+                throw new IllegalArgumentException(String.format("The edit %s is out of order or outside the text", edit));
+            }
+            builder.append(text, position, edit.offset).append(edit.replacement);
+            position = edit.getEndOffset();
+        }
+        return builder.append(text, position, text.length()).toString();
+    }
+
+    public int getOffset() {
+        return offset;
+    }
+
+    public int getLength() {
+        return length;
+    }
+
+    public int getEndOffset() {
+        return offset + length;
+    }
+
+    public String getReplacement() {
+        return replacement;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (o == null || getClass() != o.getClass()) {
+            return false;
+        }
+        TextEdit textEdit = (TextEdit) o;
+        return offset == textEdit.offset && length == textEdit.length && replacement.equals(textEdit.replacement);
+    }
+
+    @Override
+    public int hashCode() {
+        return 31 * (31 * offset + length) + replacement.hashCode();
+    }
+
+    @Override
+    public String toString() {
+        return String.format("TextEdit{offset=%s, length=%s, replacement='%s'}", offset, length, replacement);
+    }
+}
@@ -0,0 +1,19 @@
+package sortpom.jfr;
+
+/**
+ * Measures the sorting of a large group of sibling elements, such as the dependencies of a big pom.
+ */
+public interface GroupSortEvent {
+
+    /** Returns true if the event is recorded, so that the path of the group only is created when needed */
+    boolean isEnabled();
+
+    /**
+     * Ends the event and records it.
+     *
+     * @param path        the path of the parent element, such as /project/dependencies
+     * @param size        the number of sibling elements
+     * @param comparisons the number of comparisons that the sorting made
+     */
+    void commit(String path, int size, int comparisons);
+}
@@ -0,0 +1,34 @@
+package sortpom.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * The Flight Recorder event for sorting a large group of sibling elements.
+ */
+@Name("sortpom.GroupSort")
+@Label("Sibling Group Sort")
+@Description("Sorting of a large group of sibling elements")
+@Category("SortPom")
+class JfrGroupSortEvent extends jdk.jfr.Event implements GroupSortEvent {
+    @Label("Path")
+    String path;
+
+    @Label("Size")
+    int size;
+
+    @Label("Comparisons")
+    int comparisons;
+
+    //@Override
+    public void commit(String path, int size, int comparisons) {
+        if (shouldCommit()) {
+            this.path = path;
+            this.size = size;
+            this.comparisons = comparisons;
+            commit();
+        }
+    }
+}
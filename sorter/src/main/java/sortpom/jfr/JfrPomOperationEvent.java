@@ -0,0 +1,44 @@
+package sortpom.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * The Flight Recorder event for sorting or verifying a pom file.
+ */
+@Name("sortpom.PomOperation")
+@Label("Pom Sort or Verify")
+@Description("Sorting or verifying of one pom file")
+@Category("SortPom")
+class JfrPomOperationEvent extends jdk.jfr.Event implements PomOperationEvent {
+    @Label("Operation")
+    String operation;
+
+    @Label("Path")
+    String path;
+
+    @Label("Size")
+    @DataAmount
+    long bytes;
+
+    @Label("Node Count")
+    int nodeCount;
+
+    @Label("Result")
+    String result;
+
+    //@Override
+    public void commit(String operation, String path, long bytes, int nodeCount, String result) {
+        if (shouldCommit()) {
+            this.operation = operation;
+            this.path = path;
+            this.bytes = bytes;
+            this.nodeCount = nodeCount;
+            this.result = result;
+            commit();
+        }
+    }
+}
@@ -0,0 +1,34 @@
+package sortpom.jfr;
+
+/**
+ * Creates events for the Java Flight Recorder. This class, and the event classes, may only be loaded by
+ * SortEvents after it has checked that the Flight Recorder api exists.
+ */
+class JfrSortEvents extends SortEvents {
+
+    @Override
+    public boolean isFlightRecorderAvailable() {
+        return true;
+    }
+
+    @Override
+    public PomOperationEvent beginPomOperation() {
+        JfrPomOperationEvent event = new JfrPomOperationEvent();
+        event.begin();
+        return event;
+    }
+
+    @Override
+    public SortOrderEvent beginSortOrderCompilation() {
+        JfrSortOrderEvent event = new JfrSortOrderEvent();
+        event.begin();
+        return event;
+    }
+
+    @Override
+    public GroupSortEvent beginGroupSort() {
+        JfrGroupSortEvent event = new JfrGroupSortEvent();
+        event.begin();
+        return event;
+    }
+}
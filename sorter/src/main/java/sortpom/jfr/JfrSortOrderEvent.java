@@ -0,0 +1,30 @@
+package sortpom.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * The Flight Recorder event for compiling a sort order.
+ */
+@Name("sortpom.SortOrderCompilation")
+@Label("Sort Order Compilation")
+@Description("Reading of a sort order file into the sort order map")
+@Category("SortPom")
+class JfrSortOrderEvent extends jdk.jfr.Event implements SortOrderEvent {
+    @Label("Sort Order")
+    String sortOrder;
+
+    @Label("Sort Elements")
+    int nrOfSortElements;
+
+    //@Override
+    public void commit(String sortOrder, int nrOfSortElements) {
+        if (shouldCommit()) {
+            this.sortOrder = sortOrder;
+            this.nrOfSortElements = nrOfSortElements;
+            commit();
+        }
+    }
+}
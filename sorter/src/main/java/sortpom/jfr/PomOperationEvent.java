@@ -0,0 +1,22 @@
+package sortpom.jfr;
+
+/**
+ * Measures the sorting or verifying of one pom file. The time is measured from when the event is begun until
+ * it is committed.
+ */
+public interface PomOperationEvent {
+
+    /** Returns true if the event is recorded, so that values that are expensive to compute can be skipped */
+    boolean isEnabled();
+
+    /**
+     * Ends the event and records it.
+     *
+     * @param operation sort or verify
+     * @param path      the absolute path of the pom file
+     * @param bytes     the size of the pom file
+     * @param nodeCount the number of xml elements in the pom, or 0 if they were not counted
+     * @param result    the outcome of the operation, such as sorted or not ordered
+     */
+    void commit(String operation, String path, long bytes, int nodeCount, String result);
+}
@@ -0,0 +1,86 @@
+package sortpom.jfr;
+
+/**
+ * Creates events that show up in a Java Flight Recorder recording, so that the sorting can be found in the
+ * same timeline as the rest of the build. When the JVM has no Flight Recorder, the events do nothing and
+ * no event objects are created.
+ * <p/>
+ * The classes that use the Flight Recorder api are only loaded if the api exists, so that the sorter still
+ * runs on older JVMs.
+ */
+public abstract class SortEvents {
+    /** Sibling groups with at least this many elements get an event of their own */
+    public static final int LARGE_GROUP_SIZE = 50;
+
+    private static final String FLIGHT_RECORDER_EVENT_CLASS = "jdk.jfr.Event";
+    private static final String FLIGHT_RECORDER_SORT_EVENTS_CLASS = "sortpom.jfr.JfrSortEvents";
+    private static final SortEvents INSTANCE = create();
+
+    public static SortEvents getInstance() {
+        return INSTANCE;
+    }
+
+    private static SortEvents create() {
+        try {
+            Class.forName(FLIGHT_RECORDER_EVENT_CLASS);
+            return (SortEvents) Class.forName(FLIGHT_RECORDER_SORT_EVENTS_CLASS).newInstance();
+        } catch (Exception e) {
+            return new NoSortEvents();
+        } catch (LinkageError e) {
+            return new NoSortEvents();
+        }
+    }
+
+    /** Returns true if the events are sent to the Flight Recorder */
+    public abstract boolean isFlightRecorderAvailable();
+
+    /** Begins an event for the sorting or verifying of one pom file */
+    public abstract PomOperationEvent beginPomOperation();
+
+    /** Begins an event for the compiling of the sort order */
+    public abstract SortOrderEvent beginSortOrderCompilation();
+
+    /** Begins an event for the sorting of a group with at least LARGE_GROUP_SIZE sibling elements */
+    public abstract GroupSortEvent beginGroupSort();
+
+    /** Used when there is no Flight Recorder, every event is the same object that does nothing */
+    private static class NoSortEvents extends SortEvents implements PomOperationEvent, SortOrderEvent, GroupSortEvent {
+
+        @Override
+        public boolean isFlightRecorderAvailable() {
+            return false;
+        }
+
+        @Override
+        public PomOperationEvent beginPomOperation() {
+            return this;
+        }
+
+        @Override
+        public SortOrderEvent beginSortOrderCompilation() {
+            return this;
+        }
+
+        @Override
+        public GroupSortEvent beginGroupSort() {
+            return this;
+        }
+
+        //@Override
+        public boolean isEnabled() {
+            return false;
+        }
+
+        //@Override
+        public void commit(String operation, String path, long bytes, int nodeCount, String result) {
+        }
+
+        //@Override
+        public void commit(String sortOrder, int nrOfSortElements) {
+        }
+
+        //@Override
+        public void commit(String path, int size, int comparisons) {
+        }
+    }
+}
@@ -0,0 +1,15 @@
+package sortpom.jfr;
+
+/**
+ * Measures the reading and compiling of a sort order file into the sort order map.
+ */
+public interface SortOrderEvent {
+
+    /**
+     * Ends the event and records it.
+     *
+     * @param sortOrder        the name of the sort order file
+     * @param nrOfSortElements the number of elements in the sort order
+     */
+    void commit(String sortOrder, int nrOfSortElements);
+}
@@ -0,0 +1,147 @@
+package sortpom.metrics;
+
+import org.apache.commons.io.IOUtils;
+import sortpom.exception.FailureException;
+import sortpom.util.JsonUtil;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.util.*;
+
+/**
+ * Saves the phase times as a trace in the Chrome trace event format, which can be opened in chrome://tracing
+ * or in Perfetto. Each worker thread gets a row of its own, with a span for each pom file and nested spans
+ * for its phases. When the phases of a pom file ran in different threads, as in the sort pipeline, the pom
+ * file gets an asynchronous span instead.
+ * <p/>
+ * The events are kept in memory, and the trace file is saved when the sorting is finished.
+ */
+public class ChromeTracePhaseListener implements PhaseListener {
+    private static final String TRACE_ENCODING = "UTF-8";
+    private static final int PROCESS_ID = 1;
+
+    private final File traceFile;
+    private final List<TracedPhase> tracedPhases = new ArrayList<TracedPhase>();
+    private final Map<Long, String> threadNames = new TreeMap<Long, String>();
+
+    public ChromeTracePhaseListener(File traceFile) {
+        this.traceFile = traceFile;
+    }
+
+    //@Override
+    public synchronized void phaseFinished(PhaseEvent phaseEvent) {
+        Thread thread = Thread.currentThread();
+        threadNames.put(thread.getId(), thread.getName());
+        tracedPhases.add(new TracedPhase(phaseEvent, thread.getId()));
+    }
+
+    //@Override
+    public void pomFinished(String pomName) {
+    }
+
+    /** Saves the trace file, and starts over with an empty trace */
+    //@Override
+    public synchronized void sortingFinished() {
+        File directory = traceFile.getAbsoluteFile().getParentFile();
+        if (directory != null && !directory.isDirectory() && !directory.mkdirs()) {
+            throw new FailureException("Could not create directory for trace file: " + directory.getAbsolutePath());
+        }
+        Writer writer = null;
+        try {
+            writer = new OutputStreamWriter(new FileOutputStream(traceFile), TRACE_ENCODING);
+            writeTrace(writer);
+        } catch (IOException e) {
+            throw new FailureException("Could not save trace file: " + traceFile.getAbsolutePath(), e);
+        } finally {
+            IOUtils.closeQuietly(writer);
+        }
+        tracedPhases.clear();
+        threadNames.clear();
+    }
+
+    private void writeTrace(Writer writer) throws IOException {
+        long traceStartNanos = Long.MAX_VALUE;
+        Map<String, List<TracedPhase>> phasesPerPom = new LinkedHashMap<String, List<TracedPhase>>();
+        for (TracedPhase tracedPhase : tracedPhases) {
+            traceStartNanos = Math.min(traceStartNanos, tracedPhase.event.getStartNanos());
+            List<TracedPhase> pomPhases = phasesPerPom.get(tracedPhase.event.getPomName());
+            if (pomPhases == null) {
+                pomPhases = new ArrayList<TracedPhase>();
+                phasesPerPom.put(tracedPhase.event.getPomName(), pomPhases);
+            }
+            pomPhases.add(tracedPhase);
+        }
+
+        writer.write("{\"displayTimeUnit\": \"ms\", \"traceEvents\": [");
+        String separator = "\n";
+        for (Map.Entry<Long, String> threadName : threadNames.entrySet()) {
+            writer.write(separator);
+            writer.write(String.format("{\"name\": \"thread_name\", \"ph\": \"M\", \"pid\": %s, \"tid\": %s, " +
+                    "\"args\": {\"name\": %s}}", PROCESS_ID, threadName.getKey(),
+                    JsonUtil.toJsonString(threadName.getValue())));
+            separator = ",\n";
+        }
+        int pomId = 0;
+        for (Map.Entry<String, List<TracedPhase>> pomPhases : phasesPerPom.entrySet()) {
+            writer.write(separator);
+            writePomSpan(writer, pomPhases.getKey(), pomPhases.getValue(), ++pomId, traceStartNanos);
+            separator = ",\n";
+            for (TracedPhase tracedPhase : pomPhases.getValue()) {
+                writer.write(separator);
+                writer.write(String.format("{\"name\": \"%s\", \"cat\": \"phase\", \"ph\": \"X\", \"ts\": %s, " +
+                        "\"dur\": %s, \"pid\": %s, \"tid\": %s}",
+                        tracedPhase.event.getPhase().name().toLowerCase(Locale.ENGLISH),
+                        toMicros(tracedPhase.event.getStartNanos() - traceStartNanos),
+                        toMicros(tracedPhase.event.getDurationNanos()), PROCESS_ID, tracedPhase.threadId));
+            }
+        }
+        writer.write("\n]}\n");
+    }
+
+    private void writePomSpan(Writer writer, String pomName, List<TracedPhase> pomPhases, int pomId,
+                              long traceStartNanos) throws IOException {
+        long startNanos = Long.MAX_VALUE;
+        long endNanos = Long.MIN_VALUE;
+        boolean sameThread = true;
+        PhaseEvent lastEvent = null;
+        for (TracedPhase tracedPhase : pomPhases) {
+            startNanos = Math.min(startNanos, tracedPhase.event.getStartNanos());
+            endNanos = Math.max(endNanos, tracedPhase.event.getStartNanos() + tracedPhase.event.getDurationNanos());
+            sameThread &= tracedPhase.threadId == pomPhases.get(0).threadId;
+            lastEvent = tracedPhase.event;
+        }
+        String args = String.format("{\"inputSize\": %s, \"nodeCount\": %s, \"siblingGroupCount\": %s}",
+                lastEvent.getInputSize(), lastEvent.getNodeCount(), lastEvent.getSiblingGroupCount());
+        long threadId = pomPhases.get(0).threadId;
+        if (sameThread) {
+            writer.write(String.format("{\"name\": %s, \"cat\": \"pom\", \"ph\": \"X\", \"ts\": %s, \"dur\": %s, " +
+                    "\"pid\": %s, \"tid\": %s, \"args\": %s}", JsonUtil.toJsonString(pomName),
+                    toMicros(startNanos - traceStartNanos), toMicros(endNanos - startNanos), PROCESS_ID, threadId, args));
+        } else {
+            writer.write(String.format("{\"name\": %s, \"cat\": \"pom\", \"ph\": \"b\", \"id\": %s, \"ts\": %s, " +
+                    "\"pid\": %s, \"tid\": %s, \"args\": %s},\n", JsonUtil.toJsonString(pomName), pomId,
+                    toMicros(startNanos - traceStartNanos), PROCESS_ID, threadId, args));
+            writer.write(String.format("{\"name\": %s, \"cat\": \"pom\", \"ph\": \"e\", \"id\": %s, \"ts\": %s, " +
+                    "\"pid\": %s, \"tid\": %s}", JsonUtil.toJsonString(pomName), pomId,
+                    toMicros(endNanos - traceStartNanos), PROCESS_ID, threadId));
+        }
+    }
+
+    /** The trace format uses microseconds */
+    private static String toMicros(long nanos) {
+        return String.format(Locale.ENGLISH, "%.3f", nanos / 1000.0);
+    }
+
+    private static class TracedPhase {
+        private final PhaseEvent event;
+        private final long threadId;
+
+        TracedPhase(PhaseEvent event, long threadId) {
+            this.event = event;
+            this.threadId = threadId;
+        }
+    }
+}
@@ -0,0 +1,36 @@
+package sortpom.metrics;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Passes the phase times on to several listeners, e.g. to log them and to save them as a trace.
+ */
+public class CompositePhaseListener implements PhaseListener {
+    private final List<PhaseListener> phaseListeners;
+
+    public CompositePhaseListener(PhaseListener... phaseListeners) {
+        this.phaseListeners = Arrays.asList(phaseListeners);
+    }
+
+    //@Override
+    public void phaseFinished(PhaseEvent phaseEvent) {
+        for (PhaseListener phaseListener : phaseListeners) {
+            phaseListener.phaseFinished(phaseEvent);
+        }
+    }
+
+    //@Override
+    public void pomFinished(String pomName) {
+        for (PhaseListener phaseListener : phaseListeners) {
+            phaseListener.pomFinished(pomName);
+        }
+    }
+
+    //@Override
+    public void sortingFinished() {
+        for (PhaseListener phaseListener : phaseListeners) {
+            phaseListener.sortingFinished();
+        }
+    }
+}
@@ -0,0 +1,98 @@
+package sortpom.metrics;
+
+import sortpom.logger.SortPomLogger;
+
+import java.util.*;
+
+/**
+ * Logs the phase times of each pom file when debug is on, and a summary table of all pom files when the
+ * sorting is finished. The listener can be shared between several sorters.
+ */
+public class LoggingPhaseListener implements PhaseListener {
+    private static final double NANOS_PER_MILLI = 1000000.0;
+
+    private final SortPomLogger log;
+    private final boolean debug;
+    private final Map<String, List<PhaseEvent>> eventsPerPom = new HashMap<String, List<PhaseEvent>>();
+    private final Map<SortPhase, long[]> totalPerPhase = new EnumMap<SortPhase, long[]>(SortPhase.class);
+    private int nrOfPoms;
+
+    /**
+     * @param log   the log that the phase times are written to
+     * @param debug should the phase times of each pom file be logged, not only the summary
+     */
+    public LoggingPhaseListener(SortPomLogger log, boolean debug) {
+        this.log = log;
+        this.debug = debug;
+    }
+
+    //@Override
+    public synchronized void phaseFinished(PhaseEvent phaseEvent) {
+        List<PhaseEvent> events = eventsPerPom.get(phaseEvent.getPomName());
+        if (events == null) {
+            events = new ArrayList<PhaseEvent>();
+            eventsPerPom.put(phaseEvent.getPomName(), events);
+        }
+        events.add(phaseEvent);
+
+        long[] countAndNanos = totalPerPhase.get(phaseEvent.getPhase());
+        if (countAndNanos == null) {
+            countAndNanos = new long[2];
+            totalPerPhase.put(phaseEvent.getPhase(), countAndNanos);
+        }
+        countAndNanos[0]++;
+        countAndNanos[1] += phaseEvent.getDurationNanos();
+    }
+
+    //@Override
+    public synchronized void pomFinished(String pomName) {
+        List<PhaseEvent> events = eventsPerPom.remove(pomName);
+        if (events == null) {
+            return;
+        }
+        nrOfPoms++;
+        if (!debug) {
+            return;
+        }
+        PhaseEvent lastEvent = events.get(events.size() - 1);
+        StringBuilder breakdown = new StringBuilder(String.format(
+                "Phase times for %s (%s characters, %s elements, %s sibling groups):", pomName,
+                lastEvent.getInputSize(), lastEvent.getNodeCount(), lastEvent.getSiblingGroupCount()));
+        for (PhaseEvent event : events) {
+            breakdown.append(String.format(Locale.ENGLISH, " %s %.2f ms,", toName(event.getPhase()),
+                    event.getDurationNanos() / NANOS_PER_MILLI));
+        }
+        breakdown.setLength(breakdown.length() - 1);
+        log.info(breakdown.toString());
+    }
+
+    /** Logs the summary table, and starts over with the next pom file */
+    //@Override
+    public synchronized void sortingFinished() {
+        if (totalPerPhase.isEmpty()) {
+            return;
+        }
+        long totalNanos = 0;
+        for (long[] countAndNanos : totalPerPhase.values()) {
+            totalNanos += countAndNanos[1];
+        }
+        log.info(String.format("Phase times for %s pom file(s):", nrOfPoms));
+        log.info(String.format("%-10s %6s %12s %12s %7s", "Phase", "Count", "Total ms", "Average ms", "Share"));
+        for (Map.Entry<SortPhase, long[]> entry : totalPerPhase.entrySet()) {
+            long count = entry.getValue()[0];
+            long nanos = entry.getValue()[1];
+            log.info(String.format(Locale.ENGLISH, "%-10s %6d %12.2f %12.2f %6.1f%%", toName(entry.getKey()), count,
+                    nanos / NANOS_PER_MILLI, nanos / NANOS_PER_MILLI / count,
+                    totalNanos == 0 ? 0.0 : 100.0 * nanos / totalNanos));
+        }
+        log.info(String.format(Locale.ENGLISH, "%-10s %6s %12.2f", "total", "", totalNanos / NANOS_PER_MILLI));
+
+        eventsPerPom.clear();
+        totalPerPhase.clear();
+        nrOfPoms = 0;
+    }
+
+    private static String toName(SortPhase phase) {
+        return phase.name().toLowerCase(Locale.ENGLISH);
+    }
+}
@@ -0,0 +1,65 @@
+package sortpom.metrics;
+
+/**
+ * The time that one phase took for one pom file, together with the size of the pom. The node count and the
+ * sibling group count are 0 for phases that run before the pom is parsed.
+ */
+public final class PhaseEvent {
+    private final String pomName;
+    private final SortPhase phase;
+    private final long startNanos;
+    private final long durationNanos;
+    private final long inputSize;
+    private final int nodeCount;
+    private final int siblingGroupCount;
+
+    public PhaseEvent(String pomName, SortPhase phase, long startNanos, long durationNanos, long inputSize,
+                      int nodeCount, int siblingGroupCount) {
+        this.pomName = pomName;
+        this.phase = phase;
+        this.startNanos = startNanos;
+        this.durationNanos = durationNanos;
+        this.inputSize = inputSize;
+        this.nodeCount = nodeCount;
+        this.siblingGroupCount = siblingGroupCount;
+    }
+
+    public String getPomName() {
+        return pomName;
+    }
+
+    public SortPhase getPhase() {
+        return phase;
+    }
+
+    /** When the phase started, as given by System.nanoTime() */
+    public long getStartNanos() {
+        return startNanos;
+    }
+
+    public long getDurationNanos() {
+        return durationNanos;
+    }
+
+    /** The size of the pom in characters */
+    public long getInputSize() {
+        return inputSize;
+    }
+
+    /** The number of xml elements in the pom */
+    public int getNodeCount() {
+        return nodeCount;
+    }
+
+    /** The number of xml elements that have child elements, i.e. the number of groups that are sorted */
+    public int getSiblingGroupCount() {
+        return siblingGroupCount;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("PhaseEvent{pomName=%s, phase=%s, startNanos=%s, durationNanos=%s, inputSize=%s, " +
+                "nodeCount=%s, siblingGroupCount=%s}", pomName, phase, startNanos, durationNanos, inputSize, nodeCount,
+                siblingGroupCount);
+    }
+}
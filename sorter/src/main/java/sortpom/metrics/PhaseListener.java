@@ -0,0 +1,32 @@
+package sortpom.metrics;
+
+/**
+ * Receives the time of each phase when pom files are sorted or verified. A listener that is shared between
+ * several sorters must be thread safe.
+ */
+public interface PhaseListener {
+
+    /** A listener that ignores all events */
+    PhaseListener NONE = new PhaseListener() {
+        //@Override
+        public void phaseFinished(PhaseEvent phaseEvent) {
+        }
+
+        //@Override
+        public void pomFinished(String pomName) {
+        }
+
+        //@Override
+        public void sortingFinished() {
+        }
+    };
+
+    /** Called when a phase of a pom file is done, by the thread that ran the phase */
+    void phaseFinished(PhaseEvent phaseEvent);
+
+    /** Called when all phases of a pom file are done */
+    void pomFinished(String pomName);
+
+    /** Called when no more pom files will be sorted, e.g. after the last module in the reactor */
+    void sortingFinished();
+}
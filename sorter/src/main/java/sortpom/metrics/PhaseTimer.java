@@ -0,0 +1,93 @@
+package sortpom.metrics;
+
+import org.jdom.Document;
+import org.jdom.Element;
+
+import java.util.List;
+
+/**
+ * Measures the phases of one pom file at a time and sends them to a phase listener. Nothing is measured
+ * unless someone listens, and the elements of the parsed document are only counted when someone listens or
+ * when the caller asks for it.
+ */
+public class PhaseTimer {
+    private PhaseListener phaseListener = PhaseListener.NONE;
+    private String pomName;
+    private boolean countElements;
+    private long inputSize;
+    private int nodeCount;
+    private int siblingGroupCount;
+    private long startNanos;
+
+    public void setPhaseListener(PhaseListener phaseListener) {
+        this.phaseListener = phaseListener;
+    }
+
+    /**
+     * Starts the measuring of a new pom file, the size is not known until the pom is read. The elements are
+     * counted if someone listens, or if countElements is true.
+     */
+    public void startPom(String pomName, boolean countElements) {
+        this.pomName = pomName;
+        this.countElements = countElements;
+        this.inputSize = 0;
+        this.nodeCount = 0;
+        this.siblingGroupCount = 0;
+    }
+
+    public void setInputSize(long inputSize) {
+        this.inputSize = inputSize;
+    }
+
+    /** Counts the elements in the parsed document */
+    public void setDocument(Document document) {
+        nodeCount = 0;
+        siblingGroupCount = 0;
+        if (!countElements && phaseListener == PhaseListener.NONE) {
+            return;
+        }
+        countElements(document.getRootElement());
+    }
+
+    @SuppressWarnings("unchecked")
+    private void countElements(Element element) {
+        nodeCount++;
+        List<Element> children = element.getChildren();
+        if (!children.isEmpty()) {
+            siblingGroupCount++;
+        }
+        for (Element child : children) {
+            countElements(child);
+        }
+    }
+
+    /** The number of xml elements in the current pom, or 0 if they were not counted */
+    public int getNodeCount() {
+        return nodeCount;
+    }
+
+    /** Starts the time of the next phase */
+    public void start() {
+        if (phaseListener != PhaseListener.NONE) {
+            startNanos = System.nanoTime();
+        }
+    }
+
+    /** Reports the time since the last start or finish, and starts the time of the next phase */
+    public void finish(SortPhase phase) {
+        if (phaseListener == PhaseListener.NONE) {
+            return;
+        }
+        long now = System.nanoTime();
+        phaseListener.phaseFinished(new PhaseEvent(pomName, phase, startNanos, now - startNanos, inputSize,
+                nodeCount, siblingGroupCount));
+        startNanos = System.nanoTime();
+    }
+
+    /** Reports that all phases of the current pom file are done */
+    public void finishPom() {
+        if (phaseListener != PhaseListener.NONE) {
+            phaseListener.pomFinished(pomName);
+        }
+    }
+}
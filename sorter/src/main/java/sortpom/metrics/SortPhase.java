@@ -0,0 +1,21 @@
+package sortpom.metrics;
+
+/**
+ * The phases that each pom file goes through when it is sorted or verified.
+ */
+public enum SortPhase {
+    /** Reading the pom file from disk */
+    READ,
+    /** Parsing the xml into a dom document */
+    PARSE,
+    /** Wrapping the elements of the document, so that they can be sorted */
+    WRAP,
+    /** Sorting the attributes and elements */
+    SORT,
+    /** Writing the sorted document as xml text */
+    SERIALIZE,
+    /** Comparing the original xml with the sorted xml */
+    COMPARE,
+    /** Saving the backup and the sorted pom file */
+    WRITE
+}
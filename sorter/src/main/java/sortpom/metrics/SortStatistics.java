@@ -0,0 +1,160 @@
+package sortpom.metrics;
+
+import java.util.*;
+
+/**
+ * Counts the work that the sorting does for each sibling group, keyed by the path of the parent element such
+ * as /project/dependencyManagement/dependencies. Groups with the same path, e.g. the dependencies of each
+ * profile, are added together. Used to find the sections of a pom that make the sorting slow.
+ * <p/>
+ * Groups can be sorted in parallel, so the statistics are thread safe.
+ */
+public class SortStatistics {
+    private static final int NR_OF_DEEPEST_PATHS = 5;
+
+    private final Map<String, GroupStatistics> groupStatisticsMap = new TreeMap<String, GroupStatistics>();
+    private int maxDepth;
+
+    /**
+     * Adds the sorting of one sibling group
+     *
+     * @param path        the path of the parent element
+     * @param size        the number of siblings in the group
+     * @param comparisons the number of comparisons between siblings
+     * @param moves       the number of siblings that were moved
+     */
+    public synchronized void addGroup(String path, int size, int comparisons, int moves) {
+        GroupStatistics groupStatistics = groupStatisticsMap.get(path);
+        if (groupStatistics == null) {
+            groupStatistics = new GroupStatistics(path);
+            groupStatisticsMap.put(path, groupStatistics);
+        }
+        groupStatistics.add(size, comparisons, moves);
+        maxDepth = Math.max(maxDepth, groupStatistics.getDepth());
+    }
+
+    public synchronized void clear() {
+        groupStatisticsMap.clear();
+        maxDepth = 0;
+    }
+
+    /** Returns the statistics for a path, or null if no group with the path has been sorted */
+    public synchronized GroupStatistics getGroupStatistics(String path) {
+        return groupStatisticsMap.get(path);
+    }
+
+    /** Returns the statistics of all paths, in path order */
+    public synchronized List<GroupStatistics> getAllGroupStatistics() {
+        return new ArrayList<GroupStatistics>(groupStatisticsMap.values());
+    }
+
+    public synchronized int getTotalComparisons() {
+        int totalComparisons = 0;
+        for (GroupStatistics groupStatistics : groupStatisticsMap.values()) {
+            totalComparisons += groupStatistics.getComparisons();
+        }
+        return totalComparisons;
+    }
+
+    /** The depth of the deepest sorted group, where /project has depth 1 */
+    public synchronized int getMaxDepth() {
+        return maxDepth;
+    }
+
+    /** Returns the paths of the deepest sorted groups, in path order */
+    public synchronized List<String> getDeepestPaths() {
+        List<String> deepestPaths = new ArrayList<String>();
+        for (GroupStatistics groupStatistics : groupStatisticsMap.values()) {
+            if (groupStatistics.getDepth() == maxDepth && deepestPaths.size() < NR_OF_DEEPEST_PATHS) {
+                deepestPaths.add(groupStatistics.getPath());
+            }
+        }
+        return deepestPaths;
+    }
+
+    /** Creates a table with one line per path, meant to be logged at debug level */
+    public synchronized List<String> createReport() {
+        int pathWidth = "Path".length();
+        for (String path : groupStatisticsMap.keySet()) {
+            pathWidth = Math.max(pathWidth, path.length());
+        }
+        String lineFormat = "%-" + pathWidth + "s %7s %9s %9s %12s %7s";
+        List<String> report = new ArrayList<String>();
+        report.add(String.format("Sort statistics for %s path(s), %s comparison(s), max depth %s:",
+                groupStatisticsMap.size(), getTotalComparisons(), maxDepth));
+        report.add(String.format(lineFormat, "Path", "Groups", "Elements", "Max size", "Comparisons", "Moves"));
+        for (GroupStatistics groupStatistics : groupStatisticsMap.values()) {
+            report.add(String.format(lineFormat, groupStatistics.getPath(), groupStatistics.getNrOfGroups(),
+                    groupStatistics.getNrOfElements(), groupStatistics.getMaxSize(), groupStatistics.getComparisons(),
+                    groupStatistics.getMoves()));
+        }
+        for (String deepestPath : getDeepestPaths()) {
+            report.add("Deepest path: " + deepestPath);
+        }
+        return report;
+    }
+
+    /**
+     * The added statistics of all sibling groups with the same path
+     */
+    public static class GroupStatistics {
+        private final String path;
+        private final int depth;
+        private int nrOfGroups;
+        private int nrOfElements;
+        private int maxSize;
+        private int comparisons;
+        private int moves;
+
+        GroupStatistics(String path) {
+            this.path = path;
+            this.depth = countDepth(path);
+        }
+
+        private static int countDepth(String path) {
+            int depth = 0;
+            for (int i = 0; i < path.length(); i++) {
+                if (path.charAt(i) == '/') {
+                    depth++;
+                }
+            }
+            return depth;
+        }
+
+        void add(int size, int comparisons, int moves) {
+            this.nrOfGroups++;
+            this.nrOfElements += size;
+            this.maxSize = Math.max(maxSize, size);
+            this.comparisons += comparisons;
+            this.moves += moves;
+        }
+
+        public String getPath() {
+            return path;
+        }
+
+        public int getDepth() {
+            return depth;
+        }
+
+        public int getNrOfGroups() {
+            return nrOfGroups;
+        }
+
+        public int getNrOfElements() {
+            return nrOfElements;
+        }
+
+        public int getMaxSize() {
+            return maxSize;
+        }
+
+        public int getComparisons() {
+            return comparisons;
+        }
+
+        public int getMoves() {
+            return moves;
+        }
+    }
+}
@@ -18,12 +18,19 @@ public class PluginParameters {
     public final boolean sortProperties;
     public final boolean keepBlankLines;
     public final boolean indentBlankLines;
+    public final boolean keepFormatting;
     public final VerifyFailType verifyFailType;
+    public final File verifyReportFile;
+    public final VerifyReportFormat verifyReportFormat;
+    public final int parallelSortThreshold;
+    public final boolean atomicWrite;
+    public final boolean syncWrite;
 
     PluginParameters(File pomFile, boolean createBackupFile, String backupFileExtension, String encoding,
                      LineSeparatorUtil lineSeparatorUtil, boolean expandEmptyElements, boolean keepBlankLines, String indentCharacters,
-                     boolean indentBlankLines, String predefinedSortOrder, String customSortOrderFile,
-                     DependencySortOrder sortDependencies, DependencySortOrder sortPlugins, boolean sortProperties, VerifyFailType verifyFailType) {
+                     boolean indentBlankLines, boolean keepFormatting, String predefinedSortOrder, String customSortOrderFile,
+                     DependencySortOrder sortDependencies, DependencySortOrder sortPlugins, boolean sortProperties, VerifyFailType verifyFailType,
+                     File verifyReportFile, VerifyReportFormat verifyReportFormat, int parallelSortThreshold, boolean atomicWrite, boolean syncWrite) {
         this.pomFile = pomFile;
         this.createBackupFile = createBackupFile;
         this.backupFileExtension = backupFileExtension;
@@ -38,7 +45,22 @@ public class PluginParameters {
         this.sortProperties = sortProperties;
         this.keepBlankLines = keepBlankLines;
         this.indentBlankLines = indentBlankLines;
+        this.keepFormatting = keepFormatting;
         this.verifyFailType = verifyFailType;
+        this.verifyReportFile = verifyReportFile;
+        this.verifyReportFormat = verifyReportFormat;
+        this.parallelSortThreshold = parallelSortThreshold;
+        this.atomicWrite = atomicWrite;
+        this.syncWrite = syncWrite;
+    }
+
+    /** Creates a copy of the parameters that refers to another pom file */
+    public PluginParameters createCopyForPomFile(File otherPomFile) {
+        return new PluginParameters(otherPomFile, createBackupFile, backupFileExtension, encoding,
+                lineSeparatorUtil, expandEmptyElements, keepBlankLines, indentCharacters,
+                indentBlankLines, keepFormatting, predefinedSortOrder, customSortOrderFile,
+                sortDependencies, sortPlugins, sortProperties, verifyFailType,
+                verifyReportFile, verifyReportFormat, parallelSortThreshold, atomicWrite, syncWrite);
     }
 
 }
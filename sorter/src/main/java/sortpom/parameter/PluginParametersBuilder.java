@@ -17,7 +17,13 @@ public class PluginParametersBuilder {
     private DependencySortOrder sortPlugins;
     private boolean sortProperties;
     private boolean keepBlankLines;
+    private boolean keepFormatting;
     private VerifyFailType verifyFailType;
+    private File verifyReportFile;
+    private VerifyReportFormat verifyReportFormat;
+    private int parallelSortThreshold;
+    private boolean atomicWrite;
+    private boolean syncWrite;
 
     public PluginParametersBuilder setPomFile(final File pomFile) {
         this.pomFile = pomFile;
@@ -50,6 +56,11 @@ public class PluginParametersBuilder {
         return this;
     }
 
+    public PluginParametersBuilder setKeepFormatting(final boolean keepFormatting) {
+        this.keepFormatting = keepFormatting;
+        return this;
+    }
+
     public PluginParametersBuilder setSortOrder(final String customSortOrderFile, final String predefinedSortOrder) {
         this.customSortOrderFile = customSortOrderFile;
         this.predefinedSortOrder = predefinedSortOrder;
@@ -69,11 +80,29 @@ public class PluginParametersBuilder {
         return this;
     }
 
+    public PluginParametersBuilder setVerifyReport(File verifyReportFile, String verifyReportFormat) {
+        this.verifyReportFile = verifyReportFile;
+        this.verifyReportFormat = verifyReportFile == null ? null : VerifyReportFormat.fromString(verifyReportFormat);
+        return this;
+    }
+
+    public PluginParametersBuilder setParallelSortThreshold(final int parallelSortThreshold) {
+        this.parallelSortThreshold = parallelSortThreshold;
+        return this;
+    }
+
+    public PluginParametersBuilder setWriteMode(final boolean atomicWrite, final boolean syncWrite) {
+        this.atomicWrite = atomicWrite;
+        this.syncWrite = syncWrite;
+        return this;
+    }
+
     public PluginParameters createPluginParameters() {
         return new PluginParameters(pomFile, createBackupFile, backupFileExtension,
                 encoding, lineSeparatorUtil, expandEmptyElements, keepBlankLines, indentCharacters, indentBlankLines,
+                keepFormatting,
                 predefinedSortOrder, customSortOrderFile,
                 sortDependencies, sortPlugins, sortProperties,
-                verifyFailType);
+                verifyFailType, verifyReportFile, verifyReportFormat, parallelSortThreshold, atomicWrite, syncWrite);
     }
 }
@@ -0,0 +1,23 @@
+package sortpom.parameter;
+
+import sortpom.exception.FailureException;
+
+/**
+ * The format of the report that lists all misplaced elements in a verified pom file.
+ */
+public enum VerifyReportFormat {
+    JSON, CHECKSTYLE;
+
+    static VerifyReportFormat fromString(String verifyReportFormat) {
+        if (verifyReportFormat == null) {
+            throw new FailureException("verifyReportFormat must be either JSON or CHECKSTYLE. Was: " + verifyReportFormat);
+        }
+        if (verifyReportFormat.equalsIgnoreCase("JSON")) {
+            return JSON;
+        }
+        if (verifyReportFormat.equalsIgnoreCase("CHECKSTYLE")) {
+            return CHECKSTYLE;
+        }
+        throw new FailureException("verifyReportFormat must be either JSON or CHECKSTYLE. Was: " + verifyReportFormat);
+    }
+}
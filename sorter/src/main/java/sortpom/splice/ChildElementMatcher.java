@@ -0,0 +1,48 @@
+package sortpom.splice;
+
+import org.jdom.Element;
+import sortpom.exception.FailureException;
+import sortpom.verify.ElementOrigins;
+
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Matches the children of a sorted element with the children of the original element, so that the original
+ * elements can be moved instead of written from the sorted document.
+ */
+class ChildElementMatcher {
+    private final ElementOrigins elementOrigins;
+
+    ChildElementMatcher(ElementOrigins elementOrigins) {
+        this.elementOrigins = elementOrigins;
+    }
+
+    /** Returns the original index of each sorted child, found from the original child it was cloned from */
+    int[] matchSortedChildrenWithOriginal(List<Element> originalChildren, List<Element> sortedChildren) {
+        Map<Element, Integer> originalIndexes = new IdentityHashMap<Element, Integer>();
+        for (int i = 0; i < originalChildren.size(); i++) {
+            originalIndexes.put(originalChildren.get(i), i);
+        }
+        if (originalChildren.size() != sortedChildren.size()) {
+            throw new FailureException("Sorting changed the number of xml elements, use sorting without keepFormatting");
+        }
+        int[] sortedOriginalIndexes = new int[sortedChildren.size()];
+        for (int i = 0; i < sortedChildren.size(); i++) {
+            Integer originalIndex = originalIndexes.remove(elementOrigins.getOriginalElement(sortedChildren.get(i)));
+            if (originalIndex == null) {
+                throw new FailureException(String.format(
+                        "Sorting changed the content of the xml element <%s>, use sorting without keepFormatting",
+                        sortedChildren.get(i).getName()));
+            }
+            sortedOriginalIndexes[i] = originalIndex;
+        }
+        return sortedOriginalIndexes;
+    }
+
+    @SuppressWarnings("unchecked")
+    static List<Element> getChildren(Element element) {
+        return element.getChildren();
+    }
+}
@@ -0,0 +1,55 @@
+package sortpom.splice;
+
+import org.jdom.Element;
+import sortpom.verify.ElementOrigins;
+
+import java.util.*;
+
+/**
+ * Finds how the child elements of the original document should be moved to get the sorted document. This
+ * lets an editor sort its own xml tree by moving the elements, instead of replacing the whole text.
+ */
+public class ElementMoveFinder {
+    private final ChildElementMatcher childElementMatcher;
+
+    /**
+     * @param elementOrigins used to match the sorted elements with the original elements
+     */
+    public ElementMoveFinder(ElementOrigins elementOrigins) {
+        this.childElementMatcher = new ChildElementMatcher(elementOrigins);
+    }
+
+    /**
+     * Compares the original root element with the sorted root element.
+     *
+     * @return the original elements whose children must be moved, each mapped to its original children in
+     * sorted order. Deeper elements are placed before their ancestors, so that the moves can be made in
+     * iteration order without moving an element that later must be changed.
+     */
+    public Map<Element, List<Element>> findMoves(Element originalRoot, Element sortedRoot) {
+        Map<Element, List<Element>> moves = new LinkedHashMap<Element, List<Element>>();
+        findMoves(originalRoot, sortedRoot, moves);
+        return moves;
+    }
+
+    private void findMoves(Element originalElement, Element sortedElement, Map<Element, List<Element>> moves) {
+        List<Element> originalChildren = ChildElementMatcher.getChildren(originalElement);
+        if (originalChildren.isEmpty()) {
+            return;
+        }
+        List<Element> sortedChildren = ChildElementMatcher.getChildren(sortedElement);
+        int[] originalIndexes = childElementMatcher.matchSortedChildrenWithOriginal(originalChildren, sortedChildren);
+
+        boolean childrenMoved = false;
+        List<Element> childrenInSortedOrder = new ArrayList<Element>(originalIndexes.length);
+        for (int sortedIndex = 0; sortedIndex < originalIndexes.length; sortedIndex++) {
+            Element originalChild = originalChildren.get(originalIndexes[sortedIndex]);
+            findMoves(originalChild, sortedChildren.get(sortedIndex), moves);
+            childrenInSortedOrder.add(originalChild);
+            childrenMoved |= originalIndexes[sortedIndex] != sortedIndex;
+        }
+        if (childrenMoved) {
+            moves.put(originalElement, childrenInSortedOrder);
+        }
+    }
+}
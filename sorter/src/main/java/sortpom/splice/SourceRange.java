@@ -0,0 +1,26 @@
+package sortpom.splice;
+
+/**
+ * The position of an element in the original xml text, from the start of its start tag to the end of its
+ * end tag.
+ */
+final class SourceRange {
+    private final int start;
+    private int end;
+
+    SourceRange(int start) {
+        this.start = start;
+    }
+
+    int getStart() {
+        return start;
+    }
+
+    int getEnd() {
+        return end;
+    }
+
+    void setEnd(int end) {
+        this.end = end;
+    }
+}
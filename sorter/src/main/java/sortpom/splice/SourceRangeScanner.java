@@ -0,0 +1,111 @@
+package sortpom.splice;
+
+import sortpom.exception.FailureException;
+
+import java.util.ArrayList;
+import java.util.LinkedList;
+import java.util.List;
+
+/**
+ * Finds the source range of every element in an xml text. Comments, CDATA sections, processing instructions
+ * and the doctype declaration are skipped, so that the elements are returned in the same document order as
+ * the elements in a parsed JDOM document.
+ */
+class SourceRangeScanner {
+    private final String xml;
+    private int position;
+
+    SourceRangeScanner(String xml) {
+        this.xml = xml;
+    }
+
+    /** Returns the source ranges of all elements in document order */
+    List<SourceRange> scan() {
+        List<SourceRange> sourceRanges = new ArrayList<SourceRange>();
+        LinkedList<SourceRange> openElements = new LinkedList<SourceRange>();
+        position = 0;
+        while ((position = xml.indexOf('<', position)) != -1) {
+            if (xml.startsWith("<!--", position)) {
+                skipPast("-->");
+            } else if (xml.startsWith("<![CDATA[", position)) {
+                skipPast("]]>");
+            } else if (xml.startsWith("<?", position)) {
+                skipPast("?>");
+            } else if (xml.startsWith("<!", position)) {
+                skipDeclaration();
+            } else if (xml.startsWith("</", position)) {
+                skipPast(">");
+                if (openElements.isEmpty()) {
+                    throw new FailureException("Could not find the start tag of the end tag before position " + position);
+                }
+                openElements.removeLast().setEnd(position);
+            } else {
+                SourceRange sourceRange = new SourceRange(position);
+                sourceRanges.add(sourceRange);
+                if (skipStartTag()) {
+                    sourceRange.setEnd(position);
+                } else {
+                    openElements.add(sourceRange);
+                }
+            }
+        }
+        if (!openElements.isEmpty()) {
+            throw new FailureException("Could not find the end tag of the element at position " + openElements.getLast().getStart());
+        }
+        return sourceRanges;
+    }
+
+    private void skipPast(String endMarker) {
+        int index = xml.indexOf(endMarker, position);
+        if (index == -1) {
+            throw new FailureException(String.format("Could not find '%s' after position %s", endMarker, position));
+        }
+        position = index + endMarker.length();
+    }
+
+    /** Skips a doctype declaration, which may contain an internal subset within brackets */
+    private void skipDeclaration() {
+        int depth = 0;
+        for (position++; position < xml.length(); position++) {
+            char c = xml.charAt(position);
+            if (c == '"' || c == '\'') {
+                position = xml.indexOf(c, position + 1);
+                if (position == -1) {
+                    break;
+                }
+            } else if (c == '[' || c == '<') {
+                depth++;
+            } else if (c == ']') {
+                depth--;
+            } else if (c == '>') {
+                if (depth == 0) {
+                    position++;
+                    return;
+                }
+                depth--;
+            }
+        }
+        throw new FailureException("Could not find the end of the xml declaration");
+    }
+
+    /**
+     * Skips the start tag, attribute values may contain '>'.
+     *
+     * @return true if the element is empty, as in &lt;element/&gt;
+     */
+    private boolean skipStartTag() {
+        for (position++; position < xml.length(); position++) {
+            char c = xml.charAt(position);
+            if (c == '"' || c == '\'') {
+                position = xml.indexOf(c, position + 1);
+                if (position == -1) {
+                    break;
+                }
+            } else if (c == '>') {
+                position++;
+                return xml.charAt(position - 2) == '/';
+            }
+        }
+        throw new FailureException("Could not find the end of the start tag");
+    }
+}
@@ -0,0 +1,118 @@
+package sortpom.splice;
+
+import org.jdom.Element;
+import sortpom.exception.FailureException;
+import sortpom.verify.ElementOrigins;
+
+import java.util.*;
+
+/**
+ * Creates the sorted xml by moving parts of the original xml text instead of formatting the sorted document.
+ * Indentation, comments and the formatting of attributes are kept exactly as in the original xml.
+ * <p/>
+ * Each child element is moved together with the text between the previous sibling and itself, so that
+ * comments and whitespace before an element follow the element. The text after the last child element stays
+ * in place.
+ */
+public class SplicingXmlWriter {
+    private final String originalXml;
+    private final ChildElementMatcher childElementMatcher;
+    private final Map<Element, SourceRange> sourceRanges = new IdentityHashMap<Element, SourceRange>();
+
+    /**
+     * @param originalXml    the text that the original document was parsed from
+     * @param elementOrigins used to match the sorted elements with the original elements
+     */
+    public SplicingXmlWriter(String originalXml, ElementOrigins elementOrigins) {
+        this.originalXml = originalXml;
+        this.childElementMatcher = new ChildElementMatcher(elementOrigins);
+    }
+
+    /**
+     * Creates the xml text of the sorted document.
+     *
+     * @param originalRoot the root element of the document that was parsed from the original xml
+     * @param sortedRoot   the root element of the sorted document
+     * @return the original xml with the elements in sorted order
+     */
+    public String write(Element originalRoot, Element sortedRoot) {
+        mapSourceRanges(originalRoot);
+        SourceRange rootRange = sourceRanges.get(originalRoot);
+
+        StringBuilder sortedXml = new StringBuilder(originalXml.length());
+        sortedXml.append(originalXml, 0, rootRange.getStart());
+        appendElement(sortedXml, originalRoot, sortedRoot);
+        sortedXml.append(originalXml, rootRange.getEnd(), originalXml.length());
+        sourceRanges.clear();
+        return sortedXml.toString();
+    }
+
+    private void mapSourceRanges(Element originalRoot) {
+        List<SourceRange> scannedRanges = new SourceRangeScanner(originalXml).scan();
+        Iterator<SourceRange> rangeIterator = scannedRanges.iterator();
+        mapSourceRanges(originalRoot, rangeIterator);
+        if (rangeIterator.hasNext() || sourceRanges.size() != scannedRanges.size()) {
+            throw new FailureException("Could not find the xml elements in the pom file text, use sorting without keepFormatting");
+        }
+    }
+
+    private void mapSourceRanges(Element element, Iterator<SourceRange> rangeIterator) {
+        if (!rangeIterator.hasNext()) {
+            throw new FailureException("Could not find the xml elements in the pom file text, use sorting without keepFormatting");
+        }
+        sourceRanges.put(element, rangeIterator.next());
+        for (Element child : getChildren(element)) {
+            mapSourceRanges(child, rangeIterator);
+        }
+    }
+
+    private void appendElement(StringBuilder sortedXml, Element originalElement, Element sortedElement) {
+        SourceRange range = sourceRanges.get(originalElement);
+        List<Element> originalChildren = getChildren(originalElement);
+        if (originalChildren.isEmpty()) {
+            sortedXml.append(originalXml, range.getStart(), range.getEnd());
+            return;
+        }
+        List<Element> sortedChildren = getChildren(sortedElement);
+        int[] originalIndexes = childElementMatcher.matchSortedChildrenWithOriginal(originalChildren, sortedChildren);
+
+        int firstSegmentStart = getSegmentStart(originalChildren, 0, range);
+        sortedXml.append(originalXml, range.getStart(), firstSegmentStart);
+        for (int sortedIndex = 0; sortedIndex < originalIndexes.length; sortedIndex++) {
+            int originalIndex = originalIndexes[sortedIndex];
+            Element originalChild = originalChildren.get(originalIndex);
+            int segmentStart = getSegmentStart(originalChildren, originalIndex, range);
+            sortedXml.append(originalXml, segmentStart, sourceRanges.get(originalChild).getStart());
+            appendElement(sortedXml, originalChild, sortedChildren.get(sortedIndex));
+        }
+        Element lastChild = originalChildren.get(originalChildren.size() - 1);
+        sortedXml.append(originalXml, sourceRanges.get(lastChild).getEnd(), range.getEnd());
+    }
+
+    /** A child segment starts where the previous sibling ends, or after the start tag of the parent */
+    private int getSegmentStart(List<Element> children, int index, SourceRange parentRange) {
+        if (index > 0) {
+            return sourceRanges.get(children.get(index - 1)).getEnd();
+        }
+        return getStartTagEnd(parentRange) + 1;
+    }
+
+    private int getStartTagEnd(SourceRange range) {
+        // Skip quoted attribute values, which may contain '>'
+        int position = range.getStart() + 1;
+        while (true) {
+            char c = originalXml.charAt(position);
+            if (c == '"' || c == '\'') {
+                position = originalXml.indexOf(c, position + 1) + 1;
+            } else if (c == '>') {
+                return position;
+            } else {
+                position++;
+            }
+        }
+    }
+
+    private List<Element> getChildren(Element element) {
+        return ChildElementMatcher.getChildren(element);
+    }
+}
@@ -0,0 +1,131 @@
+package sortpom.util;
+
+import sortpom.exception.FailureException;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+
+/**
+ * Writes sorted pom files on a dedicated thread, so that the caller can continue with the next pom file
+ * right away. The backup and the sorted content of a pom file are written by one write operation. If a pom
+ * file is written again before the earlier write has started, only the latest write is performed.
+ * Failures are collected and reported by {@link #flush()}.
+ */
+public class AsyncPomWriter {
+    private final ExecutorService writerThread = Executors.newSingleThreadExecutor(new ThreadFactory() {
+        //@Override
+        public Thread newThread(Runnable runnable) {
+            Thread thread = new Thread(runnable, "sortpom-writer");
+            thread.setDaemon(true);
+            return thread;
+        }
+    });
+    private final Map<File, Runnable> pendingWrites = new HashMap<File, Runnable>();
+    private final Map<File, RuntimeException> failures = new LinkedHashMap<File, RuntimeException>();
+
+    /**
+     * Queues a write operation for a pom file.
+     *
+     * @param pomFile        the pom file that is written
+     * @param writeOperation creates the backup file and saves the sorted pom file
+     */
+    public void write(File pomFile, Runnable writeOperation) {
+        File key = pomFile.getAbsoluteFile();
+        synchronized (pendingWrites) {
+            boolean isWritePending = pendingWrites.containsKey(key);
+            pendingWrites.put(key, writeOperation);
+            if (isWritePending) {
+                return;
+            }
+        }
+        writerThread.execute(new PendingWrite(key));
+    }
+
+    /**
+     * Waits until all queued pom files are written.
+     *
+     * @throws FailureException if any pom file could not be written since the last flush
+     */
+    public void flush() {
+        waitForQueuedWrites();
+        Map<File, RuntimeException> reportedFailures;
+        synchronized (failures) {
+            reportedFailures = new LinkedHashMap<File, RuntimeException>(failures);
+            failures.clear();
+        }
+        throwFailures(reportedFailures);
+    }
+
+    /** The writer thread performs its tasks in order, so an empty task is done after all earlier writes */
+    private void waitForQueuedWrites() {
+        Future<?> barrier = writerThread.submit(new Runnable() {
+            //@Override
+            public void run() {
+            }
+        });
+        try {
+            barrier.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new FailureException("Interrupted while waiting for pom files to be saved", e);
+        } catch (ExecutionException e) {
+            throw new FailureException("Could not wait for pom files to be saved", e.getCause());
+        }
+    }
+
+    private static void throwFailures(Map<File, RuntimeException> failures) {
+        if (failures.isEmpty()) {
+            return;
+        }
+        List<String> failedPomFiles = new ArrayList<String>();
+        for (File pomFile : failures.keySet()) {
+            failedPomFiles.add(pomFile.getPath());
+        }
+        String message = String.format("Could not save %s pom file(s): %s", failedPomFiles.size(), failedPomFiles);
+        throw new FailureException(message, failures.values().iterator().next());
+    }
+
+    /** Waits for all queued pom files and stops the writer thread, does nothing if already closed */
+    public void close() {
+        if (writerThread.isShutdown()) {
+            return;
+        }
+        try {
+            flush();
+        } finally {
+            writerThread.shutdown();
+        }
+    }
+
+    private class PendingWrite implements Runnable {
+        private final File pomFile;
+
+        PendingWrite(File pomFile) {
+            this.pomFile = pomFile;
+        }
+
+        //@Override
+        public void run() {
+            Runnable writeOperation;
+            synchronized (pendingWrites) {
+                writeOperation = pendingWrites.remove(pomFile);
+            }
+            try {
+                writeOperation.run();
+            } catch (RuntimeException e) {
+                synchronized (failures) {
+                    failures.put(pomFile, e);
+                }
+            }
+        }
+    }
+}
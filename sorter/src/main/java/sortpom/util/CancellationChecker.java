@@ -0,0 +1,18 @@
+package sortpom.util;
+
+/**
+ * Lets a caller cancel sorting that runs in the background. The sorter calls the checker regularly, and the
+ * checker cancels the sorting by throwing an unchecked exception of its own choice.
+ */
+public interface CancellationChecker {
+
+    /** A checker that never cancels */
+    CancellationChecker NONE = new CancellationChecker() {
+        //@Override
+        public void checkCanceled() {
+        }
+    };
+
+    /** Throws an unchecked exception if the sorting should be canceled */
+    void checkCanceled();
+}
@@ -1,11 +1,16 @@
 package sortpom.util;
 
+import org.apache.commons.io.FileUtils;
 import org.apache.commons.io.IOUtils;
 import sortpom.exception.FailureException;
 import sortpom.parameter.PluginParameters;
 
 import java.io.*;
 import java.net.URL;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.Arrays;
 
 /**
  * Used to interface with file system
@@ -13,15 +18,19 @@ import java.net.URL;
  * @author Bjorn
  */
 public class FileUtil {
-    private static final String DEFAULT_SORT_ORDER_FILENAME = "default_1_0_0";
+    public static final String DEFAULT_SORT_ORDER_FILENAME = "default_1_0_0";
     private static final String XML_FILE_EXTENSION = ".xml";
+    private static final String TEMP_FILE_EXTENSION = ".tmp";
     private File pomFile;
     private String backupFileExtension;
     private String encoding;
     private String customSortOrderFile;
     private String predefinedSortOrder;
+    private boolean atomicWrite;
+    private boolean syncWrite;
     private String newName;
     private File backupFile;
+    private long pomFileSize;
 
     /** Initializes the class with sortpom parameters. */
     public void setup(PluginParameters parameters) {
@@ -30,6 +39,8 @@ public class FileUtil {
         this.encoding = parameters.encoding;
         this.customSortOrderFile = parameters.customSortOrderFile;
         this.predefinedSortOrder = parameters.predefinedSortOrder;
+        this.atomicWrite = parameters.atomicWrite;
+        this.syncWrite = parameters.syncWrite;
     }
 
     /**
@@ -74,9 +85,12 @@ public class FileUtil {
      */
     public String getPomFileContent() {
         InputStream inputStream = null;
+        pomFileSize = 0;
         try {
             inputStream = new FileInputStream(pomFile);
-            return IOUtils.toString(inputStream, encoding);
+            byte[] content = IOUtils.toByteArray(inputStream);
+            pomFileSize = content.length;
+            return new String(content, encoding);
         } catch (UnsupportedEncodingException ueex) {
             throw new FailureException("Could not handle encoding: " + encoding, ueex);
         } catch (IOException ioex) {
@@ -86,16 +100,28 @@ public class FileUtil {
         }
     }
 
+    /** The size in bytes of the pom file when it was last loaded, which stays the same when it is saved */
+    public long getPomFileSize() {
+        return pomFileSize;
+    }
+
     /**
-     * Saves sorted pom file.
+     * Saves sorted pom file. With atomic write the file is only replaced if its content changes, and then
+     * by moving a temporary file into place so that the pom file never is half written.
      *
      * @param sortedXml The content to save
+     * @return true if the pom file was written, false if it already had the same content
      */
-    public void savePomFile(final String sortedXml) {
+    public boolean savePomFile(final String sortedXml) {
+        if (atomicWrite) {
+            return savePomFileAtomically(sortedXml);
+        }
         FileOutputStream saveFile = null;
         try {
             saveFile = new FileOutputStream(pomFile);
             IOUtils.write(sortedXml, saveFile, encoding);
+            syncIfNeeded(saveFile);
+            return true;
         } catch (IOException e) {
             throw new FailureException("Could not save sorted pom file: " + pomFile.getAbsolutePath(), e);
         } finally {
@@ -103,6 +129,58 @@ public class FileUtil {
         }
     }
 
+    private boolean savePomFileAtomically(final String sortedXml) {
+        File tempFile = null;
+        try {
+            byte[] sortedBytes = sortedXml.getBytes(encoding);
+            if (hasSameContent(sortedBytes)) {
+                return false;
+            }
+            File directory = pomFile.getAbsoluteFile().getParentFile();
+            tempFile = File.createTempFile(pomFile.getName(), TEMP_FILE_EXTENSION, directory);
+            writeBytes(tempFile, sortedBytes);
+            moveIntoPlace(tempFile);
+            return true;
+        } catch (IOException e) {
+            throw new FailureException("Could not save sorted pom file: " + pomFile.getAbsolutePath(), e);
+        } finally {
+            if (tempFile != null && tempFile.exists() && !tempFile.delete()) {
+                tempFile.deleteOnExit();
+            }
+        }
+    }
+
+    private boolean hasSameContent(byte[] sortedBytes) throws IOException {
+        return pomFile.isFile() && pomFile.length() == sortedBytes.length &&
+                Arrays.equals(sortedBytes, FileUtils.readFileToByteArray(pomFile));
+    }
+
+    private void writeBytes(File file, byte[] bytes) throws IOException {
+        FileOutputStream outputStream = null;
+        try {
+            outputStream = new FileOutputStream(file);
+            outputStream.write(bytes);
+            syncIfNeeded(outputStream);
+        } finally {
+            IOUtils.closeQuietly(outputStream);
+        }
+    }
+
+    private void syncIfNeeded(FileOutputStream outputStream) throws IOException {
+        if (syncWrite) {
+            outputStream.flush();
+            outputStream.getFD().sync();
+        }
+    }
+
+    private void moveIntoPlace(File tempFile) throws IOException {
+        try {
+            Files.move(tempFile.toPath(), pomFile.toPath(), StandardCopyOption.ATOMIC_MOVE);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(tempFile.toPath(), pomFile.toPath(), StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+
     public byte[] getDefaultSortOrderXmlBytes() throws IOException {
         return getDefaultSortOrderXml().getBytes(encoding);
     }
@@ -0,0 +1,40 @@
+package sortpom.util;
+
+/**
+ * Helps the reports and summaries that are saved as json, which are written without a json library.
+ */
+public final class JsonUtil {
+    private JsonUtil() {
+    }
+
+    /** Returns the value as a quoted json string, with quotes, backslashes and control characters escaped */
+    public static String toJsonString(String value) {
+        StringBuilder builder = new StringBuilder("\"");
+        for (char c : String.valueOf(value).toCharArray()) {
+            switch (c) {
+                case '"':
+                    builder.append("\\\"");
+                    break;
+                case '\\':
+                    builder.append("\\\\");
+                    break;
+                case '\n':
+                    builder.append("\\n");
+                    break;
+                case '\r':
+                    builder.append("\\r");
+                    break;
+                case '\t':
+                    builder.append("\\t");
+                    break;
+                default:
+                    if (c < ' ') {
+                        builder.append(String.format("\\u%04x", (int) c));
+                    } else {
+                        builder.append(c);
+                    }
+            }
+        }
+        return builder.append('"').toString();
+    }
+}
@@ -34,7 +34,32 @@ public class ElementComparator {
     }
 
     private boolean isEqualsIgnoringWhitespace() {
-        return !originalElement.getText().replaceAll("\\s", "").equals(newElement.getText().replaceAll("\\s", ""));
+        return !isTextEqualIgnoringWhitespace(originalElement.getText(), newElement.getText());
+    }
+
+    /** Same as text.replaceAll("\\s", "").equals(otherText.replaceAll("\\s", "")), without creating strings */
+    private static boolean isTextEqualIgnoringWhitespace(String text, String otherText) {
+        int i = 0;
+        int j = 0;
+        while (true) {
+            while (i < text.length() && isWhitespace(text.charAt(i))) {
+                i++;
+            }
+            while (j < otherText.length() && isWhitespace(otherText.charAt(j))) {
+                j++;
+            }
+            if (i == text.length() || j == otherText.length()) {
+                return i == text.length() && j == otherText.length();
+            }
+            if (text.charAt(i++) != otherText.charAt(j++)) {
+                return false;
+            }
+        }
+    }
+
+    /** The whitespace characters of the regular expression \s */
+    static boolean isWhitespace(char c) {
+        return c == ' ' || c == '\t' || c == '\n' || c == '\u000B' || c == '\f' || c == '\r';
     }
 
     private XmlOrderedResult isChildrenOrdered(String name, List originalElementChildren, List newElementChildren) {
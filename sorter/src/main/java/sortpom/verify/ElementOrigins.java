@@ -0,0 +1,41 @@
+package sortpom.verify;
+
+import org.jdom.Element;
+
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Knows which element in the original document each element in the sorted document was cloned from. The
+ * sorting only moves the cloned elements, so an element and its origin are the same element even when
+ * their children have been sorted, and two elements with equal content are never mixed up.
+ */
+public class ElementOrigins {
+    private final Map<Element, Element> originalElements = new IdentityHashMap<Element, Element>();
+
+    /**
+     * Records the origin of every element in the clone, before the clone is sorted.
+     *
+     * @param originalElement the element that was cloned
+     * @param clonedElement   the clone, with its children in the same order as in the original element
+     */
+    public void addClone(Element originalElement, Element clonedElement) {
+        originalElements.put(clonedElement, originalElement);
+        List<Element> originalChildren = getChildren(originalElement);
+        List<Element> clonedChildren = getChildren(clonedElement);
+        for (int i = 0; i < originalChildren.size(); i++) {
+            addClone(originalChildren.get(i), clonedChildren.get(i));
+        }
+    }
+
+    /** Returns the original element that the sorted element was cloned from, or null if it is not a clone */
+    public Element getOriginalElement(Element sortedElement) {
+        return originalElements.get(sortedElement);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static List<Element> getChildren(Element element) {
+        return element.getChildren();
+    }
+}
@@ -0,0 +1,46 @@
+package sortpom.verify;
+
+import org.jdom.DefaultJDOMFactory;
+import org.jdom.Element;
+import org.jdom.input.SAXBuilder;
+import org.jdom.input.SAXHandler;
+import org.xml.sax.Attributes;
+import org.xml.sax.Locator;
+import org.xml.sax.SAXException;
+
+import java.util.IdentityHashMap;
+import java.util.Map;
+
+/**
+ * A SAXBuilder that remembers on which line each element start tag ends, so that misplaced elements can be
+ * reported with line numbers.
+ */
+public class LineNumberSAXBuilder extends SAXBuilder {
+    private final Map<Element, Integer> lineNumbers = new IdentityHashMap<Element, Integer>();
+
+    @Override
+    protected SAXHandler createContentHandler() {
+        return new LineNumberSAXHandler();
+    }
+
+    /** The line numbers of all elements in the last built document */
+    public Map<Element, Integer> getLineNumbers() {
+        return lineNumbers;
+    }
+
+    private class LineNumberSAXHandler extends SAXHandler {
+        LineNumberSAXHandler() {
+            super(new DefaultJDOMFactory());
+        }
+
+        @Override
+        public void startElement(String namespaceURI, String localName, String qName, Attributes atts)
+                throws SAXException {
+            super.startElement(namespaceURI, localName, qName, atts);
+            Locator locator = getDocumentLocator();
+            if (locator != null) {
+                lineNumbers.put(getCurrentElement(), locator.getLineNumber());
+            }
+        }
+    }
+}
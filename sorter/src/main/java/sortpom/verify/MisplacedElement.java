@@ -0,0 +1,46 @@
+package sortpom.verify;
+
+/**
+ * An element in the original pom file that is not placed where the sorted pom file would place it.
+ * Positions are counted among the sibling elements, starting at 1.
+ */
+public final class MisplacedElement {
+    private final String path;
+    private final int expectedPosition;
+    private final int actualPosition;
+    private final int lineNumber;
+
+    public MisplacedElement(String path, int expectedPosition, int actualPosition, int lineNumber) {
+        this.path = path;
+        this.expectedPosition = expectedPosition;
+        this.actualPosition = actualPosition;
+        this.lineNumber = lineNumber;
+    }
+
+    public String getPath() {
+        return path;
+    }
+
+    public int getExpectedPosition() {
+        return expectedPosition;
+    }
+
+    public int getActualPosition() {
+        return actualPosition;
+    }
+
+    /** The line of the element start tag, or 0 if unknown */
+    public int getLineNumber() {
+        return lineNumber;
+    }
+
+    public String getMessage() {
+        return String.format("The xml element %s should be placed at position %s, but is at position %s",
+                path, expectedPosition, actualPosition);
+    }
+
+    @Override
+    public String toString() {
+        return getMessage();
+    }
+}
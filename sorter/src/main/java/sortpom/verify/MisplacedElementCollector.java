@@ -0,0 +1,162 @@
+package sortpom.verify;
+
+import org.jdom.Element;
+
+import java.util.*;
+
+/**
+ * Finds all misplaced elements in the original pom file, not only the first one as the ElementComparator
+ * does. For the children of each element, the longest subsequence that already is in sorted order is kept in
+ * place and the rest are reported, which gives the fewest elements that must be moved.
+ */
+public class MisplacedElementCollector {
+    private static final int NOT_MATCHED = -1;
+
+    private final Map<Element, Integer> lineNumbers;
+    private final ElementOrigins elementOrigins;
+    private final List<MisplacedElement> misplacedElements = new ArrayList<MisplacedElement>();
+    private SubtreeHashes subtreeHashes;
+
+    /**
+     * @param lineNumbers   line numbers of the elements in the original pom file, can be empty
+     * @param elementOrigins the original element of each element in the sorted pom file
+     */
+    public MisplacedElementCollector(Map<Element, Integer> lineNumbers, ElementOrigins elementOrigins) {
+        this.lineNumbers = lineNumbers;
+        this.elementOrigins = elementOrigins;
+    }
+
+    /**
+     * Compares the original root element with the sorted root element.
+     *
+     * @return all misplaced elements, in the order they appear in the original pom file
+     */
+    public List<MisplacedElement> collect(Element originalElement, Element sortedElement) {
+        misplacedElements.clear();
+        subtreeHashes = new SubtreeHashes();
+        collectChildren("/" + originalElement.getName(), originalElement, sortedElement);
+        return new ArrayList<MisplacedElement>(misplacedElements);
+    }
+
+    private void collectChildren(String path, Element originalElement, Element sortedElement) {
+        if (isInOrder(originalElement, sortedElement)) {
+            return;
+        }
+        List<Element> originalChildren = getChildren(originalElement);
+        List<Element> sortedChildren = getChildren(sortedElement);
+        int[] originalIndexes = matchSortedChildrenWithOriginal(originalChildren, sortedChildren);
+        boolean[] inPlace = findChildrenInPlace(originalIndexes);
+        String[] childPaths = createChildPaths(path, originalChildren);
+
+        int[] sortedIndexes = new int[originalChildren.size()];
+        Arrays.fill(sortedIndexes, NOT_MATCHED);
+        for (int sortedIndex = 0; sortedIndex < originalIndexes.length; sortedIndex++) {
+            if (originalIndexes[sortedIndex] != NOT_MATCHED) {
+                sortedIndexes[originalIndexes[sortedIndex]] = sortedIndex;
+            }
+        }
+
+        // Visit the children in document order, so that the report follows the original pom file
+        for (int originalIndex = 0; originalIndex < sortedIndexes.length; originalIndex++) {
+            int sortedIndex = sortedIndexes[originalIndex];
+            if (sortedIndex == NOT_MATCHED) {
+                continue;
+            }
+            Element originalChild = originalChildren.get(originalIndex);
+            if (!inPlace[sortedIndex]) {
+                misplacedElements.add(new MisplacedElement(childPaths[originalIndex], sortedIndex + 1,
+                        originalIndex + 1, getLineNumber(originalChild)));
+            }
+            collectChildren(childPaths[originalIndex], originalChild, sortedChildren.get(sortedIndex));
+        }
+    }
+
+    /** Different hashes prove that the subtree is not in order, equal hashes are confirmed exactly */
+    private boolean isInOrder(Element originalElement, Element sortedElement) {
+        if (subtreeHashes.isDifferentlyOrdered(originalElement, sortedElement)) {
+            return false;
+        }
+        return new ElementComparator(originalElement, sortedElement).isElementOrdered().isOrdered();
+    }
+
+    @SuppressWarnings("unchecked")
+    private List<Element> getChildren(Element element) {
+        return element.getChildren();
+    }
+
+    /** Returns the original index of each sorted child, or NOT_MATCHED if it was not cloned from a child */
+    private int[] matchSortedChildrenWithOriginal(List<Element> originalChildren, List<Element> sortedChildren) {
+        Map<Element, Integer> originalIndexes = new IdentityHashMap<Element, Integer>();
+        for (int i = 0; i < originalChildren.size(); i++) {
+            originalIndexes.put(originalChildren.get(i), i);
+        }
+        int[] originalIndexOfSortedChild = new int[sortedChildren.size()];
+        for (int i = 0; i < sortedChildren.size(); i++) {
+            Integer index = originalIndexes.get(elementOrigins.getOriginalElement(sortedChildren.get(i)));
+            originalIndexOfSortedChild[i] = index == null ? NOT_MATCHED : index;
+        }
+        return originalIndexOfSortedChild;
+    }
+
+    /** Marks the children in the longest increasing subsequence of original indexes as being in place */
+    private boolean[] findChildrenInPlace(int[] originalIndexes) {
+        int length = originalIndexes.length;
+        int[] tailIndexes = new int[length];
+        int[] predecessors = new int[length];
+        int subsequenceLength = 0;
+        for (int i = 0; i < length; i++) {
+            if (originalIndexes[i] == NOT_MATCHED) {
+                continue;
+            }
+            int low = 0;
+            int high = subsequenceLength;
+            while (low < high) {
+                int middle = (low + high) >>> 1;
+                if (originalIndexes[tailIndexes[middle]] < originalIndexes[i]) {
+                    low = middle + 1;
+                } else {
+                    high = middle;
+                }
+            }
+            predecessors[i] = low > 0 ? tailIndexes[low - 1] : NOT_MATCHED;
+            tailIndexes[low] = i;
+            if (low == subsequenceLength) {
+                subsequenceLength++;
+            }
+        }
+        boolean[] inPlace = new boolean[length];
+        int index = subsequenceLength > 0 ? tailIndexes[subsequenceLength - 1] : NOT_MATCHED;
+        while (index != NOT_MATCHED) {
+            inPlace[index] = true;
+            index = predecessors[index];
+        }
+        return inPlace;
+    }
+
+    private String[] createChildPaths(String path, List<Element> children) {
+        Map<String, Integer> nrOfChildrenByName = new HashMap<String, Integer>();
+        for (Element child : children) {
+            Integer count = nrOfChildrenByName.get(child.getName());
+            nrOfChildrenByName.put(child.getName(), count == null ? 1 : count + 1);
+        }
+        Map<String, Integer> childIndexByName = new HashMap<String, Integer>();
+        String[] childPaths = new String[children.size()];
+        for (int i = 0; i < children.size(); i++) {
+            String name = children.get(i).getName();
+            if (nrOfChildrenByName.get(name) == 1) {
+                childPaths[i] = path + "/" + name;
+            } else {
+                Integer index = childIndexByName.get(name);
+                index = index == null ? 1 : index + 1;
+                childIndexByName.put(name, index);
+                childPaths[i] = path + "/" + name + "[" + index + "]";
+            }
+        }
+        return childPaths;
+    }
+
+    private int getLineNumber(Element element) {
+        Integer lineNumber = lineNumbers.get(element);
+        return lineNumber == null ? 0 : lineNumber;
+    }
+}
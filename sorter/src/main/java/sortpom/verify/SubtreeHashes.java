@@ -0,0 +1,128 @@
+package sortpom.verify;
+
+import org.jdom.Attribute;
+import org.jdom.Element;
+
+import java.util.Arrays;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 64 bit hashes of xml subtrees. The ordered hash covers what the ElementComparator compares, the unordered
+ * hash also covers the attributes but not the order of the children. Different hashes prove that subtrees
+ * differ, equal hashes must be confirmed with an exact comparison.
+ */
+public class SubtreeHashes {
+    private static final long FNV_OFFSET_BASIS = 0xcbf29ce484222325L;
+    private static final long FNV_PRIME = 0x100000001b3L;
+    private static final long GOLDEN_RATIO = 0x9e3779b97f4a7c15L;
+
+    private final Map<Element, SubtreeHash> hashes = new IdentityHashMap<Element, SubtreeHash>();
+
+    /** Returns true if the subtrees are certain to have different content or different order */
+    public boolean isDifferentlyOrdered(Element element, Element otherElement) {
+        return getOrderedHash(element) != getOrderedHash(otherElement);
+    }
+
+    public long getOrderedHash(Element element) {
+        return getSubtreeHash(element).orderedHash;
+    }
+
+    public long getUnorderedHash(Element element) {
+        SubtreeHash subtreeHash = getSubtreeHash(element);
+        if (!subtreeHash.hasUnorderedHash) {
+            subtreeHash.unorderedHash = createUnorderedHash(element);
+            subtreeHash.hasUnorderedHash = true;
+        }
+        return subtreeHash.unorderedHash;
+    }
+
+    private SubtreeHash getSubtreeHash(Element element) {
+        SubtreeHash subtreeHash = hashes.get(element);
+        if (subtreeHash == null) {
+            subtreeHash = new SubtreeHash(createOrderedHash(element));
+            hashes.put(element, subtreeHash);
+        }
+        return subtreeHash;
+    }
+
+    private long createOrderedHash(Element element) {
+        List<Element> children = getChildren(element);
+        long orderedHash = combine(hashString(element.getQualifiedName()), hashTextWithoutWhitespace(element.getText()));
+        for (Element child : children) {
+            orderedHash = combine(orderedHash, getOrderedHash(child));
+        }
+        return combine(orderedHash, children.size());
+    }
+
+    private long createUnorderedHash(Element element) {
+        List<Element> children = getChildren(element);
+        long attributeHash = 0;
+        for (Object attribute : element.getAttributes()) {
+            Attribute attr = (Attribute) attribute;
+            attributeHash += mix(combine(hashString(attr.getQualifiedName()), hashString(attr.getValue())));
+        }
+        long[] childHashes = new long[children.size()];
+        for (int i = 0; i < childHashes.length; i++) {
+            childHashes[i] = getUnorderedHash(children.get(i));
+        }
+        Arrays.sort(childHashes);
+        long unorderedHash = combine(combine(hashString(element.getQualifiedName()), attributeHash),
+                hashTextWithoutWhitespace(element.getText()));
+        for (long childHash : childHashes) {
+            unorderedHash = combine(unorderedHash, childHash);
+        }
+        return combine(unorderedHash, children.size());
+    }
+
+    @SuppressWarnings("unchecked")
+    private static List<Element> getChildren(Element element) {
+        return element.getChildren();
+    }
+
+    /** 64 bit FNV-1a of the characters */
+    private static long hashString(String text) {
+        long hash = FNV_OFFSET_BASIS;
+        for (int i = 0; i < text.length(); i++) {
+            hash = (hash ^ text.charAt(i)) * FNV_PRIME;
+        }
+        return mix(hash);
+    }
+
+    /** Same as hashString(text.replaceAll("\\s", "")), without creating the string */
+    private static long hashTextWithoutWhitespace(String text) {
+        long hash = FNV_OFFSET_BASIS;
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (!ElementComparator.isWhitespace(c)) {
+                hash = (hash ^ c) * FNV_PRIME;
+            }
+        }
+        return mix(hash);
+    }
+
+    private static long combine(long hash, long value) {
+        return mix(hash * GOLDEN_RATIO + value);
+    }
+
+    /** The finalizer of MurmurHash3, every input bit affects every output bit */
+    private static long mix(long hash) {
+        hash ^= hash >>> 33;
+        hash *= 0xff51afd7ed558ccdL;
+        hash ^= hash >>> 33;
+        hash *= 0xc4ceb9fe1a85ec53L;
+        hash ^= hash >>> 33;
+        return hash;
+    }
+
+    private static class SubtreeHash {
+        private final long orderedHash;
+        private long unorderedHash;
+        private boolean hasUnorderedHash;
+
+        SubtreeHash(long orderedHash) {
+            this.orderedHash = orderedHash;
+        }
+    }
+}
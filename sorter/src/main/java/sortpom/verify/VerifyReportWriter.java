@@ -0,0 +1,100 @@
+package sortpom.verify;
+
+import org.apache.commons.io.IOUtils;
+import org.jdom.Document;
+import org.jdom.Element;
+import org.jdom.output.Format;
+import org.jdom.output.XMLOutputter;
+import sortpom.exception.FailureException;
+import sortpom.parameter.VerifyReportFormat;
+import sortpom.util.JsonUtil;
+
+import java.io.*;
+import java.util.List;
+
+/**
+ * Saves the misplaced elements of a verified pom file as a report that a CI server can read, either as json
+ * or in the checkstyle xml format.
+ */
+public class VerifyReportWriter {
+    private static final String REPORT_ENCODING = "UTF-8";
+    private static final String CHECKSTYLE_VERSION = "4.3";
+    private static final String CHECKSTYLE_SOURCE = "sortpom.verify";
+
+    private final VerifyReportFormat reportFormat;
+
+    public VerifyReportWriter(VerifyReportFormat reportFormat) {
+        this.reportFormat = reportFormat;
+    }
+
+    /**
+     * Saves the report, an empty list of misplaced elements gives an empty report.
+     *
+     * @param reportFile        the file to save the report to
+     * @param pomFile           the verified pom file
+     * @param misplacedElements all misplaced elements in the pom file
+     */
+    public void saveReport(File reportFile, File pomFile, List<MisplacedElement> misplacedElements) {
+        File directory = reportFile.getAbsoluteFile().getParentFile();
+        if (directory != null && !directory.isDirectory() && !directory.mkdirs()) {
+            throw new FailureException("Could not create directory for verify report: " + directory.getAbsolutePath());
+        }
+        Writer writer = null;
+        try {
+            writer = new OutputStreamWriter(new FileOutputStream(reportFile), REPORT_ENCODING);
+            switch (reportFormat) {
+                case JSON:
+                    writeJson(writer, pomFile, misplacedElements);
+                    break;
+                case CHECKSTYLE:
+                    writeCheckstyle(writer, pomFile, misplacedElements);
+                    break;
+                default:
+                    throw new IllegalStateException(reportFormat.toString());
+            }
+        } catch (IOException e) {
+            throw new FailureException("Could not save verify report: " + reportFile.getAbsolutePath(), e);
+        } finally {
+            IOUtils.closeQuietly(writer);
+        }
+    }
+
+    private void writeJson(Writer writer, File pomFile, List<MisplacedElement> misplacedElements) throws IOException {
+        writer.write("{\n");
+        writer.write("  \"file\": " + JsonUtil.toJsonString(pomFile.getAbsolutePath()) + ",\n");
+        writer.write("  \"misplacedElements\": [");
+        String separator = "\n";
+        for (MisplacedElement misplacedElement : misplacedElements) {
+            writer.write(separator);
+            writer.write("    {\"path\": " + JsonUtil.toJsonString(misplacedElement.getPath()) +
+                    ", \"line\": " + misplacedElement.getLineNumber() +
+                    ", \"expectedPosition\": " + misplacedElement.getExpectedPosition() +
+                    ", \"actualPosition\": " + misplacedElement.getActualPosition() +
+                    ", \"message\": " + JsonUtil.toJsonString(misplacedElement.getMessage()) + "}");
+            separator = ",\n";
+        }
+        writer.write(misplacedElements.isEmpty() ? "]\n" : "\n  ]\n");
+        writer.write("}\n");
+    }
+
+    private void writeCheckstyle(Writer writer, File pomFile, List<MisplacedElement> misplacedElements)
+            throws IOException {
+        Element fileElement = new Element("file");
+        fileElement.setAttribute("name", pomFile.getAbsolutePath());
+        for (MisplacedElement misplacedElement : misplacedElements) {
+            Element errorElement = new Element("error");
+            errorElement.setAttribute("line", String.valueOf(misplacedElement.getLineNumber()));
+            errorElement.setAttribute("severity", "error");
+            errorElement.setAttribute("message", misplacedElement.getMessage());
+            errorElement.setAttribute("source", CHECKSTYLE_SOURCE);
+            fileElement.addContent(errorElement);
+        }
+        Element checkstyleElement = new Element("checkstyle");
+        checkstyleElement.setAttribute("version", CHECKSTYLE_VERSION);
+        checkstyleElement.addContent(fileElement);
+
+        Format format = Format.getPrettyFormat();
+        format.setEncoding(REPORT_ENCODING);
+        new XMLOutputter(format).output(new Document(checkstyleElement), writer);
+    }
+}
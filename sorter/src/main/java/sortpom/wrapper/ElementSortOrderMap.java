@@ -18,6 +18,14 @@ class ElementSortOrderMap {
 
     }
 
+    public void clear() {
+        elementNameSortOrderMap.clear();
+    }
+
+    public int size() {
+        return elementNameSortOrderMap.size();
+    }
+
     public boolean containsElement(Element element) {
         String deepName = getDeepName(element);
         return elementNameSortOrderMap.containsKey(deepName);
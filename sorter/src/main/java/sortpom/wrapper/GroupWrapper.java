@@ -3,6 +3,9 @@ package sortpom.wrapper;
 import org.jdom.Attribute;
 import org.jdom.Content;
 import org.jdom.Element;
+import sortpom.jfr.GroupSortEvent;
+import sortpom.jfr.SortEvents;
+import sortpom.metrics.SortStatistics;
 
 import java.util.ArrayList;
 import java.util.Collections;
@@ -17,6 +20,12 @@ public class GroupWrapper implements WrapperOperations {
     private Wrapper<Element> elementContent;
     private final List<Wrapper<? extends Content>> otherContentList = new ArrayList<Wrapper<? extends Content>>();
     private final List<GroupWrapper> children = new ArrayList<GroupWrapper>();
+    /** The group that contains this group, kept so that the path of a group can be found after detaching */
+    private GroupWrapper parent;
+    /** Collects the work of each sort, null if no statistics are collected */
+    private SortStatistics sortStatistics;
+    /** Number of wrapper groups in this structure, including this one */
+    private int structureSize = 1;
 
     private static final AttributeComparator ATTRIBUTE_COMPARATOR = new AttributeComparator();
 
@@ -34,6 +43,8 @@ public class GroupWrapper implements WrapperOperations {
             }
             if (currentWrapper == null) {
                 currentWrapper = new GroupWrapper(wrapper);
+                currentWrapper.parent = this;
+                currentWrapper.sortStatistics = sortStatistics;
                 children.add(currentWrapper);
             } else {
                 currentWrapper.addContent(wrapper);
@@ -43,6 +54,9 @@ public class GroupWrapper implements WrapperOperations {
                 currentWrapper = null;
             }
         }
+        for (GroupWrapper child : children) {
+            structureSize += child.structureSize;
+        }
     }
 
     ////@Override
@@ -84,23 +98,71 @@ public class GroupWrapper implements WrapperOperations {
 
     //@Override
     public final void sortStructureElements() {
+        sortChildElements();
+        for (GroupWrapper child : children) {
+            if (child.containsElement()) {
+                child.sortStructureElements();
+            }
+        }
+    }
+
+    //@Override
+    public final void sortStructureElementsInParallel(final int parallelSortThreshold) {
+        SortStructureElementsTask.sort(this, parallelSortThreshold);
+    }
+
+    /**
+     * Sorts the children of this group among themselves. The sort order of each child is decided by its own
+     * content only, so the children's structures can be sorted independently of each other afterwards.
+     */
+    void sortChildElements() {
+        GroupSortEvent groupSortEvent = null;
+        if (children.size() >= SortEvents.LARGE_GROUP_SIZE) {
+            groupSortEvent = SortEvents.getInstance().beginGroupSort();
+        }
+        int comparisons = 0;
+        int moves = 0;
         for (int i = 0; i < children.size(); i++) {
             GroupWrapper wrapperImpl = children.get(i);
             final Wrapper<Element> wrapper = wrapperImpl.elementContent;
-            if (wrapper != null) {
-                if (wrapper.isResortable()) {
-                    boolean done = false;
-                    for (int j = 0; !done && j < i; j++) {
-                        if (wrapper.isBefore(children.get(j).elementContent)) {
-                            children.remove(i);
-                            children.add(j, wrapperImpl);
-                            done = true;
-                        }
+            if (wrapper != null && wrapper.isResortable()) {
+                boolean done = false;
+                for (int j = 0; !done && j < i; j++) {
+                    comparisons++;
+                    if (wrapper.isBefore(children.get(j).elementContent)) {
+                        children.remove(i);
+                        children.add(j, wrapperImpl);
+                        moves++;
+                        done = true;
                     }
                 }
-                wrapperImpl.sortStructureElements();
             }
         }
+        if (sortStatistics != null && children.size() > 1) {
+            sortStatistics.addGroup(getPath(), children.size(), comparisons, moves);
+        }
+        if (groupSortEvent != null && groupSortEvent.isEnabled()) {
+            groupSortEvent.commit(getPath(), children.size(), comparisons);
+        }
+    }
+
+    /** Lets the sorting of this group, and of all groups that are created below it, be counted */
+    void setSortStatistics(SortStatistics sortStatistics) {
+        this.sortStatistics = sortStatistics;
+    }
+
+    /** Returns the path of the element in this group, such as /project/dependencies */
+    String getPath() {
+        String name = elementContent == null ? "" : elementContent.getContent().getName();
+        return (parent == null ? "" : parent.getPath()) + '/' + name;
+    }
+
+    List<GroupWrapper> getChildren() {
+        return children;
+    }
+
+    int getStructureSize() {
+        return structureSize;
     }
 
     @SuppressWarnings("unchecked")
@@ -126,7 +188,7 @@ public class GroupWrapper implements WrapperOperations {
         return new ArrayList<Content>(elementContent.getContent().getContent());
     }
 
-    private boolean containsElement() {
+    boolean containsElement() {
         return elementContent != null;
     }
 
@@ -0,0 +1,54 @@
+package sortpom.wrapper;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Sorts a wrapper structure with fork/join. When the children of a group are sorted among themselves, the
+ * structure of each child can be sorted independently (such as dependencyManagement, each profile or the
+ * build plugins). Children with large structures are forked, smaller ones are sorted in the current thread.
+ */
+class SortStructureElementsTask extends RecursiveAction {
+    private static final long serialVersionUID = 3170486297652407651L;
+    private static final ForkJoinPool POOL = new ForkJoinPool();
+
+    private final GroupWrapper groupWrapper;
+    private final int parallelSortThreshold;
+
+    private SortStructureElementsTask(GroupWrapper groupWrapper, int parallelSortThreshold) {
+        this.groupWrapper = groupWrapper;
+        this.parallelSortThreshold = parallelSortThreshold;
+    }
+
+    static void sort(GroupWrapper groupWrapper, int parallelSortThreshold) {
+        if (groupWrapper.getStructureSize() < parallelSortThreshold) {
+            groupWrapper.sortStructureElements();
+        } else {
+            POOL.invoke(new SortStructureElementsTask(groupWrapper, parallelSortThreshold));
+        }
+    }
+
+    @Override
+    protected void compute() {
+        groupWrapper.sortChildElements();
+
+        List<SortStructureElementsTask> forkedTasks = new ArrayList<SortStructureElementsTask>();
+        for (GroupWrapper child : groupWrapper.getChildren()) {
+            if (child.containsElement() && child.getStructureSize() >= parallelSortThreshold) {
+                SortStructureElementsTask task = new SortStructureElementsTask(child, parallelSortThreshold);
+                task.fork();
+                forkedTasks.add(task);
+            }
+        }
+        for (GroupWrapper child : groupWrapper.getChildren()) {
+            if (child.containsElement() && child.getStructureSize() < parallelSortThreshold) {
+                child.sortStructureElements();
+            }
+        }
+        for (int i = forkedTasks.size() - 1; i >= 0; i--) {
+            forkedTasks.get(i).join();
+        }
+    }
+}
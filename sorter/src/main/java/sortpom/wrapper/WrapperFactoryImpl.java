@@ -8,7 +8,11 @@ import org.jdom.Element;
 import org.jdom.JDOMException;
 import org.jdom.Text;
 import org.jdom.input.SAXBuilder;
+import sortpom.jfr.SortEvents;
+import sortpom.jfr.SortOrderEvent;
+import sortpom.metrics.SortStatistics;
 import sortpom.parameter.PluginParameters;
+import sortpom.util.CancellationChecker;
 import sortpom.util.FileUtil;
 
 import java.io.ByteArrayInputStream;
@@ -38,6 +42,10 @@ public class WrapperFactoryImpl implements WrapperFactory {
     private final ElementSortOrderMap elementSortOrderMap = new ElementSortOrderMap();
     private final ElementWrapperCreator elementWrapperCreator = new ElementWrapperCreator(elementSortOrderMap);
     private final TextWrapperCreator textWrapperCreator = new TextWrapperCreator();
+    private CancellationChecker cancellationChecker = CancellationChecker.NONE;
+    private boolean sortOrderMapInitialized;
+    private String sortOrderName;
+    private SortStatistics sortStatistics;
 
     /**
      * Instantiates a new wrapper factory impl.
@@ -52,23 +60,53 @@ public class WrapperFactoryImpl implements WrapperFactory {
     public void setup(PluginParameters pluginParameters) {
         elementWrapperCreator.setup(pluginParameters);
         textWrapperCreator.setup(pluginParameters);
+        elementSortOrderMap.clear();
+        sortOrderMapInitialized = false;
+        sortOrderName = getSortOrderName(pluginParameters);
+    }
+
+    private static String getSortOrderName(PluginParameters pluginParameters) {
+        if (pluginParameters.customSortOrderFile != null) {
+            return pluginParameters.customSortOrderFile;
+        }
+        if (pluginParameters.predefinedSortOrder != null) {
+            return pluginParameters.predefinedSortOrder;
+        }
+        return FileUtil.DEFAULT_SORT_ORDER_FILENAME;
+    }
+
+    /** Lets the creation of wrappers be canceled */
+    public void setCancellationChecker(CancellationChecker cancellationChecker) {
+        this.cancellationChecker = cancellationChecker;
+    }
+
+    /** Lets the comparisons and moves of each sibling group be counted, null turns the counting off */
+    public void setSortStatistics(SortStatistics sortStatistics) {
+        this.sortStatistics = sortStatistics;
     }
 
     /** @see WrapperFactory#createFromRootElement(org.jdom.Element) */
 //    @Override
     public WrapperOperations createFromRootElement(final Element rootElement) {
-        initializeSortOrderMap();
-        return new GroupWrapper(create((Content) rootElement));
+        if (!sortOrderMapInitialized) {
+            initializeSortOrderMap();
+            sortOrderMapInitialized = true;
+        }
+        GroupWrapper rootWrapper = new GroupWrapper(create((Content) rootElement));
+        rootWrapper.setSortStatistics(sortStatistics);
+        return rootWrapper;
     }
 
     /**
-     * Creates sort order map from chosen sort order.
-     *
+     * Creates sort order map from chosen sort order. The map is kept until the factory is set up again, so
+     * that the sort order file is only read once when several poms are sorted with the same parameters.
      */
     private void initializeSortOrderMap() {
         try {
+            SortOrderEvent sortOrderEvent = SortEvents.getInstance().beginSortOrderCompilation();
             Document document = createDocumentFromDefaultSortOrderFile();
             addElementsToSortOrderMap(document.getRootElement(), SORT_ORDER_BASE);
+            sortOrderEvent.commit(sortOrderName, elementSortOrderMap.size());
         } catch (IOException e) {
             throw new RuntimeException(e);
         } catch (JDOMException e) {
@@ -107,6 +145,7 @@ public class WrapperFactoryImpl implements WrapperFactory {
     @SuppressWarnings("unchecked")
 //    @Override
     public <T extends Content> Wrapper<T> create(final T content) {
+        cancellationChecker.checkCanceled();
         if (content instanceof Element) {
             return (Wrapper<T>) elementWrapperCreator.createWrapper((Element) content);
         }
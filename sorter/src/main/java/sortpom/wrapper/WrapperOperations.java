@@ -22,4 +22,10 @@ public interface WrapperOperations {
 
     void sortStructureElements();
 
+    /**
+     * Sorts the elements like sortStructureElements, but independent parts of the structure that contain at least
+     * parallelSortThreshold wrappers are sorted concurrently. The result is identical to sortStructureElements.
+     */
+    void sortStructureElementsInParallel(int parallelSortThreshold);
+
 }
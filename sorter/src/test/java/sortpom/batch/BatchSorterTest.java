@@ -0,0 +1,127 @@
+package sortpom.batch;
+
+import org.apache.commons.io.FileUtils;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import sortpom.logger.SortPomLogger;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.startsWith;
+import static org.junit.Assert.assertThat;
+import static sortpom.logger.PomTestHelper.UTF_8;
+import static sortpom.logger.PomTestHelper.copyPom;
+import static sortpom.logger.PomTestHelper.createParametersBuilder;
+import static sortpom.logger.PomTestHelper.readFile;
+import static sortpom.logger.PomTestHelper.readResource;
+
+public class BatchSorterTest {
+    private final File batchDirectory = new File("target/batchsortertest");
+    private final List<String> logs = Collections.synchronizedList(new ArrayList<String>());
+    private BatchSorter batchSorter;
+
+    @Before
+    public void setup() throws Exception {
+        FileUtils.deleteDirectory(batchDirectory);
+        batchSorter = new BatchSorter();
+        batchSorter.setup(createLogger(), createParametersBuilder().createPluginParameters());
+    }
+
+    @After
+    public void cleanup() throws Exception {
+        FileUtils.deleteDirectory(batchDirectory);
+    }
+
+    @Test
+    public void allPomFilesShouldBeSortedAndReportedInSameOrder() throws Exception {
+        List<File> pomFiles = Arrays.asList(
+                copyPom(batchDirectory, "Simple_input.xml", "pom1.xml"),
+                copyPom(batchDirectory, "full_unsorted_input.xml", "pom2.xml"),
+                copyPom(batchDirectory, "full_expected.xml", "pom3.xml"));
+
+        List<BatchSortResult> results = batchSorter.sortPoms(pomFiles);
+
+        assertThat(results.size(), is(3));
+        for (int i = 0; i < pomFiles.size(); i++) {
+            assertThat(results.get(i).getPomFile(), is(pomFiles.get(i)));
+            assertThat(results.get(i).isFailed(), is(false));
+        }
+        assertThat(results.get(0).isChanged(), is(true));
+        assertThat(results.get(1).isChanged(), is(true));
+        assertThat(results.get(2).isChanged(), is(false));
+        assertThat(readFile(pomFiles.get(0)), is(readResource("Simple_expected.xml")));
+        assertThat(readFile(pomFiles.get(1)), is(readResource("full_expected.xml")));
+    }
+
+    @Test
+    public void largestPomFileShouldBeSortedFirst() throws Exception {
+        File small = copyPom(batchDirectory, "Simple_input.xml", "pom1.xml");
+        File large = copyPom(batchDirectory, "full_unsorted_input.xml", "pom2.xml");
+        File medium = copyPom(batchDirectory, "Real1_input.xml", "pom3.xml");
+        batchSorter.setNrOfThreads(1);
+
+        batchSorter.sortPoms(Arrays.asList(small, large, medium));
+
+        List<String> sortingLogs = new ArrayList<String>();
+        for (String log : logs) {
+            if (log.startsWith("Sorting file ")) {
+                sortingLogs.add(log);
+            }
+        }
+        assertThat(sortingLogs, is(Arrays.asList(
+                "Sorting file " + large.getAbsolutePath(),
+                "Sorting file " + medium.getAbsolutePath(),
+                "Sorting file " + small.getAbsolutePath())));
+    }
+
+    @Test
+    public void pomFileLargerThanMemoryBudgetShouldStillBeSorted() throws Exception {
+        File pomFile = copyPom(batchDirectory, "full_unsorted_input.xml", "pom1.xml");
+        batchSorter.setMemoryBudget(1);
+
+        List<BatchSortResult> results = batchSorter.sortPoms(Arrays.asList(pomFile, copyPom(batchDirectory, "Simple_input.xml", "pom2.xml")));
+
+        assertThat(results.get(0).isChanged(), is(true));
+        assertThat(results.get(1).isChanged(), is(true));
+        assertThat(readFile(pomFile), is(readResource("full_expected.xml")));
+    }
+
+    @Test
+    public void failureInOnePomFileShouldNotStopTheOthers() throws Exception {
+        File brokenPom = new File(batchDirectory, "broken.xml");
+        FileUtils.writeStringToFile(brokenPom, "<project><gurka></project>", UTF_8);
+        File pomFile = copyPom(batchDirectory, "Simple_input.xml", "pom1.xml");
+
+        List<BatchSortResult> results = batchSorter.sortPoms(Arrays.asList(brokenPom, pomFile));
+
+        assertThat(results.get(0).isFailed(), is(true));
+        assertThat(results.get(0).getFailure().getMessage(), startsWith("Could not sort pom files content: "));
+        assertThat(results.get(1).isFailed(), is(false));
+        assertThat(readFile(pomFile), is(readResource("Simple_expected.xml")));
+    }
+
+    private SortPomLogger createLogger() {
+        return new SortPomLogger() {
+            //@Override
+            public void warn(String content) {
+                logs.add(content);
+            }
+
+            //@Override
+            public void info(String content) {
+                logs.add(content);
+            }
+
+            //@Override
+            public void error(String content) {
+                logs.add(content);
+            }
+        };
+    }
+}
@@ -0,0 +1,46 @@
+package sortpom.batch;
+
+import org.junit.Test;
+
+import java.io.File;
+import java.util.Arrays;
+
+import static org.hamcrest.Matchers.is;
+import static org.junit.Assert.assertThat;
+
+public class MemoryBudgetSchedulerTest {
+    private final File small = new File("src/test/resources/Simple_input.xml");
+    private final File medium = new File("src/test/resources/Real1_input.xml");
+    private final File large = new File("src/test/resources/full_unsorted_input.xml");
+
+    @Test
+    public void largestPomFileThatFitsInBudgetShouldBeAdmittedFirst() {
+        long budget = MemoryBudgetScheduler.estimateMemoryUsage(large.length())
+                + MemoryBudgetScheduler.estimateMemoryUsage(small.length());
+        MemoryBudgetScheduler scheduler = new MemoryBudgetScheduler(Arrays.asList(small, medium, large), budget, 10);
+
+        assertThat(scheduler.admitNextTask().pomFile, is(large));
+        assertThat(scheduler.admitNextTask().pomFile, is(small));
+        assertThat(scheduler.hasPendingTasks(), is(true));
+    }
+
+    @Test
+    public void pomFileLargerThanBudgetShouldBeAdmittedWhenNothingElseRuns() {
+        MemoryBudgetScheduler scheduler = new MemoryBudgetScheduler(Arrays.asList(small, large), 1, 10);
+
+        MemoryBudgetScheduler.PomFileTask task = scheduler.admitNextTask();
+        assertThat(task.pomFile, is(large));
+        assertThat(task.index, is(1));
+        scheduler.taskDone(task);
+
+        assertThat(scheduler.admitNextTask().pomFile, is(small));
+        assertThat(scheduler.hasPendingTasks(), is(false));
+    }
+
+    @Test
+    public void memoryEstimateShouldGrowWithFileSize() {
+        assertThat(MemoryBudgetScheduler.estimateMemoryUsage(0), is(MemoryBudgetScheduler.MEMORY_PER_FILE));
+        assertThat(MemoryBudgetScheduler.estimateMemoryUsage(1000),
+                is(MemoryBudgetScheduler.MEMORY_PER_FILE + 1000 * MemoryBudgetScheduler.MEMORY_PER_FILE_BYTE));
+    }
+}
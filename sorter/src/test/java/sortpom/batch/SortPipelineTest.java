@@ -0,0 +1,173 @@
+package sortpom.batch;
+
+import org.apache.commons.io.FileUtils;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import sortpom.logger.SortPomLogger;
+import sortpom.metrics.PhaseEvent;
+import sortpom.metrics.PhaseListener;
+import sortpom.metrics.SortPhase;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.startsWith;
+import static org.junit.Assert.assertThat;
+import static sortpom.logger.PomTestHelper.UTF_8;
+import static sortpom.logger.PomTestHelper.copyPom;
+import static sortpom.logger.PomTestHelper.createParametersBuilder;
+import static sortpom.logger.PomTestHelper.readFile;
+import static sortpom.logger.PomTestHelper.readResource;
+
+public class SortPipelineTest {
+    private final File pipelineDirectory = new File("target/sortpipelinetest");
+    private final List<String> logs = Collections.synchronizedList(new ArrayList<String>());
+    private SortPipeline sortPipeline;
+
+    @Before
+    public void setup() throws Exception {
+        FileUtils.deleteDirectory(pipelineDirectory);
+        sortPipeline = new SortPipeline();
+        sortPipeline.setup(createLogger(), createParametersBuilder().createPluginParameters());
+    }
+
+    @After
+    public void cleanup() throws Exception {
+        FileUtils.deleteDirectory(pipelineDirectory);
+    }
+
+    @Test
+    public void allPomFilesShouldBeSortedAndReportedInSameOrder() throws Exception {
+        List<File> pomFiles = Arrays.asList(
+                copyPom(pipelineDirectory, "Simple_input.xml", "pom1.xml"),
+                copyPom(pipelineDirectory, "full_unsorted_input.xml", "pom2.xml"),
+                copyPom(pipelineDirectory, "full_expected.xml", "pom3.xml"));
+
+        List<BatchSortResult> results = sortPipeline.sortPoms(pomFiles);
+
+        assertThat(results.size(), is(3));
+        for (int i = 0; i < pomFiles.size(); i++) {
+            assertThat(results.get(i).getPomFile(), is(pomFiles.get(i)));
+            assertThat(results.get(i).isFailed(), is(false));
+        }
+        assertThat(results.get(0).isChanged(), is(true));
+        assertThat(results.get(1).isChanged(), is(true));
+        assertThat(results.get(2).isChanged(), is(false));
+        assertThat(readFile(pomFiles.get(0)), is(readResource("Simple_expected.xml")));
+        assertThat(readFile(pomFiles.get(1)), is(readResource("full_expected.xml")));
+    }
+
+    @Test
+    public void smallQueuesShouldNotStopThePipeline() throws Exception {
+        List<File> pomFiles = new ArrayList<File>();
+        for (int i = 0; i < 20; i++) {
+            pomFiles.add(copyPom(pipelineDirectory, "full_unsorted_input.xml", "pom" + i + ".xml"));
+        }
+        sortPipeline.setNrOfCpuThreads(1);
+        sortPipeline.setNrOfIoThreads(1);
+        sortPipeline.setQueueCapacity(1);
+
+        List<BatchSortResult> results = sortPipeline.sortPoms(pomFiles);
+
+        for (int i = 0; i < pomFiles.size(); i++) {
+            assertThat(results.get(i).isChanged(), is(true));
+            assertThat(readFile(pomFiles.get(i)), is(readResource("full_expected.xml")));
+        }
+    }
+
+    @Test
+    public void failureInOnePomFileShouldNotStopTheOthers() throws Exception {
+        File brokenPom = new File(pipelineDirectory, "broken.xml");
+        FileUtils.writeStringToFile(brokenPom, "<project><gurka></project>", UTF_8);
+        File pomFile = copyPom(pipelineDirectory, "Simple_input.xml", "pom1.xml");
+
+        List<BatchSortResult> results = sortPipeline.sortPoms(Arrays.asList(brokenPom, pomFile));
+
+        assertThat(results.get(0).isFailed(), is(true));
+        assertThat(results.get(0).getFailure().getMessage(), startsWith("Could not sort pom files content: "));
+        assertThat(results.get(1).isFailed(), is(false));
+        assertThat(readFile(pomFile), is(readResource("Simple_expected.xml")));
+    }
+
+    @Test
+    public void errorInOnePomFileShouldNotStopTheOthers() throws Exception {
+        final File failingPom = copyPom(pipelineDirectory, "full_unsorted_input.xml", "pom1.xml");
+        File pomFile = copyPom(pipelineDirectory, "Simple_input.xml", "pom2.xml");
+        sortPipeline.setNrOfCpuThreads(1);
+        sortPipeline.setNrOfIoThreads(1);
+        sortPipeline.setPhaseListener(new PhaseListener() {
+            //@Override
+            public void phaseFinished(PhaseEvent phaseEvent) {
+                if (phaseEvent.getPhase() == SortPhase.SORT && phaseEvent.getPomName().equals(failingPom.getAbsolutePath())) {
+                    throw new OutOfMemoryError("Java heap space");
+                }
+            }
+
+            //@Override
+            public void pomFinished(String pomName) {
+            }
+
+            //@Override
+            public void sortingFinished() {
+            }
+        });
+
+        List<BatchSortResult> results = sortPipeline.sortPoms(Arrays.asList(failingPom, pomFile));
+
+        assertThat(results.get(0).isFailed(), is(true));
+        assertThat(results.get(0).getFailure().getMessage(), is("java.lang.OutOfMemoryError: Java heap space"));
+        assertThat(readFile(failingPom), is(readResource("full_unsorted_input.xml")));
+        assertThat(results.get(1).isFailed(), is(false));
+        assertThat(readFile(pomFile), is(readResource("Simple_expected.xml")));
+    }
+
+    @Test
+    public void backupFileShouldBeWrittenForChangedPomFiles() throws Exception {
+        sortPipeline.setup(createLogger(),
+                createParametersBuilder().setBackupInfo(true, ".bak").createPluginParameters());
+        File pomFile = copyPom(pipelineDirectory, "Simple_input.xml", "pom1.xml");
+
+        sortPipeline.sortPoms(Arrays.asList(pomFile));
+
+        assertThat(readFile(new File(pomFile.getAbsolutePath() + ".bak")), is(readResource("Simple_input.xml")));
+    }
+
+    @Test
+    public void ioThreadsShouldBeCreatedWithOrWithoutVirtualThreads() throws Exception {
+        final List<String> threadNames = new ArrayList<String>();
+        Thread thread = PipelineThreads.createIoThreadFactory().newThread(new Runnable() {
+            //@Override
+            public void run() {
+                threadNames.add(Thread.currentThread().getName());
+            }
+        });
+        thread.start();
+        thread.join();
+
+        assertThat(threadNames.get(0), startsWith("sortpom-io-"));
+    }
+
+    private SortPomLogger createLogger() {
+        return new SortPomLogger() {
+            //@Override
+            public void warn(String content) {
+                logs.add(content);
+            }
+
+            //@Override
+            public void info(String content) {
+                logs.add(content);
+            }
+
+            //@Override
+            public void error(String content) {
+                logs.add(content);
+            }
+        };
+    }
+}
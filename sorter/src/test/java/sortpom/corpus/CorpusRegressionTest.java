@@ -0,0 +1,51 @@
+package sortpom.corpus;
+
+import org.apache.commons.io.FileUtils;
+import org.junit.Test;
+import sortpom.util.PomCorpus;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * Sorts every pom in the corpus and compares the result with the hashes of the previously sorted poms, so
+ * that a change in any sorted byte is found. A report with the time and allocated memory for each pom is
+ * saved to target/corpus-report.csv.
+ * <p/>
+ * Run with -DupdateCorpusHashes=true to save new expected hashes after an intended change of the output.
+ */
+public class CorpusRegressionTest {
+    private static final File EXPECTED_HASHES_FILE = new File("src/test/resources/corpus-hashes.txt");
+    private static final File REPORT_FILE = new File("target/corpus-report.csv");
+
+    @Test
+    public void sortedCorpusShouldMatchExpectedHashes() throws Exception {
+        CorpusRunner corpusRunner = new CorpusRunner();
+        List<String> hashLines = new ArrayList<String>();
+        List<String> reportLines = new ArrayList<String>();
+        reportLines.add(CorpusResult.getReportHeader());
+        for (String name : PomCorpus.getNames()) {
+            CorpusResult result = corpusRunner.run(name);
+            hashLines.add(result.getHashLine());
+            reportLines.add(result.getReportLine());
+        }
+        FileUtils.writeLines(REPORT_FILE, "UTF-8", reportLines, "\n");
+
+        if (Boolean.getBoolean("updateCorpusHashes")) {
+            FileUtils.writeLines(EXPECTED_HASHES_FILE, "UTF-8", hashLines, "\n");
+        }
+        List<String> expectedHashLines = FileUtils.readLines(EXPECTED_HASHES_FILE, "UTF-8");
+        assertEquals(join(expectedHashLines), join(hashLines));
+    }
+
+    private String join(List<String> lines) {
+        StringBuilder joined = new StringBuilder();
+        for (String line : lines) {
+            joined.append(line).append('\n');
+        }
+        return joined.toString();
+    }
+}
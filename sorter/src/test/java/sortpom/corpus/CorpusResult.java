@@ -0,0 +1,40 @@
+package sortpom.corpus;
+
+/**
+ * What was measured when one pom in the corpus was verified and sorted.
+ */
+public class CorpusResult {
+    private final String name;
+    private final int nrOfBytes;
+    private final long nanos;
+    private final long allocatedBytes;
+    private final int nrOfMisplacedElements;
+    private final String sortedHash;
+
+    public CorpusResult(String name, int nrOfBytes, long nanos, long allocatedBytes, int nrOfMisplacedElements, String sortedHash) {
+        this.name = name;
+        this.nrOfBytes = nrOfBytes;
+        this.nanos = nanos;
+        this.allocatedBytes = allocatedBytes;
+        this.nrOfMisplacedElements = nrOfMisplacedElements;
+        this.sortedHash = sortedHash;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    /** The line in the expected hashes file */
+    public String getHashLine() {
+        return name + " " + nrOfMisplacedElements + " " + sortedHash;
+    }
+
+    /** The line in the csv report */
+    public String getReportLine() {
+        return String.format("%s,%s,%s,%s,%s,%s", name, nrOfBytes, nanos / 1000, allocatedBytes, nrOfMisplacedElements, sortedHash);
+    }
+
+    public static String getReportHeader() {
+        return "name,bytes,micros,allocatedBytes,misplacedElements,sortedSha1";
+    }
+}
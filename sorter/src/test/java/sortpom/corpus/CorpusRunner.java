@@ -0,0 +1,78 @@
+package sortpom.corpus;
+
+import sortpom.SortPomImpl;
+import sortpom.logger.SilentLogger;
+import sortpom.parameter.PluginParametersBuilder;
+import sortpom.util.PomCorpus;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Verifies and sorts a pom from the corpus, and measures the time and the allocated memory. Also checks that
+ * the sorted pom is verified as sorted and is not changed by another sort.
+ */
+public class CorpusRunner {
+    private final Map<String, SortPomImpl> sortPomImplByEncoding = new HashMap<String, SortPomImpl>();
+    private final ThreadMXBean threadMXBean = ManagementFactory.getThreadMXBean();
+
+    public CorpusResult run(String name) throws Exception {
+        byte[] pomBytes = PomCorpus.getBytes(name);
+        String encoding = PomCorpus.getEncoding(pomBytes);
+        String xml = new String(pomBytes, encoding);
+        SortPomImpl sortPomImpl = getSortPomImpl(encoding);
+
+        long allocatedBytesBefore = getAllocatedBytes();
+        long start = System.nanoTime();
+        int nrOfMisplacedElements = sortPomImpl.findMisplacedElements(xml).size();
+        String sortedXml = sortPomImpl.sortXml(xml);
+        long nanos = System.nanoTime() - start;
+        long allocatedBytes = getAllocatedBytes() - allocatedBytesBefore;
+
+        if (!sortPomImpl.findMisplacedElements(sortedXml).isEmpty()) {
+            throw new IllegalStateException("The sorted pom is not verified as sorted: " + name);
+        }
+        if (!sortPomImpl.sortXml(sortedXml).equals(sortedXml)) {
+            throw new IllegalStateException("The sorted pom is changed when it is sorted again: " + name);
+        }
+        return new CorpusResult(name, pomBytes.length, nanos, allocatedBytes, nrOfMisplacedElements,
+                sha1(sortedXml.getBytes(encoding)));
+    }
+
+    private SortPomImpl getSortPomImpl(String encoding) {
+        SortPomImpl sortPomImpl = sortPomImplByEncoding.get(encoding);
+        if (sortPomImpl == null) {
+            sortPomImpl = new SortPomImpl();
+            sortPomImpl.setup(new SilentLogger(), new PluginParametersBuilder()
+                    .setEncoding(encoding)
+                    .setFormatting("\n", false, true)
+                    .setIndent(2, false)
+                    .setSortOrder(null, "default_1_0_0")
+                    .setSortEntities("groupId,artifactId", "groupId,artifactId", true)
+                    .createPluginParameters());
+            sortPomImplByEncoding.put(encoding, sortPomImpl);
+        }
+        return sortPomImpl;
+    }
+
+    /** The bytes allocated by the current thread, or 0 if the JVM cannot measure it */
+    private long getAllocatedBytes() {
+        if (threadMXBean instanceof com.sun.management.ThreadMXBean) {
+            return ((com.sun.management.ThreadMXBean) threadMXBean).getThreadAllocatedBytes(Thread.currentThread().getId());
+        }
+        return 0;
+    }
+
+    private static String sha1(byte[] bytes) throws NoSuchAlgorithmException {
+        byte[] digest = MessageDigest.getInstance("SHA-1").digest(bytes);
+        StringBuilder hex = new StringBuilder();
+        for (byte b : digest) {
+            hex.append(String.format("%02x", b));
+        }
+        return hex.toString();
+    }
+}
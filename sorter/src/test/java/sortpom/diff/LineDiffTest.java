@@ -0,0 +1,143 @@
+package sortpom.diff;
+
+import org.apache.commons.io.FileUtils;
+import org.junit.Test;
+import sortpom.SortPomImpl;
+import sortpom.logger.SilentLogger;
+import sortpom.parameter.PluginParametersBuilder;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+import static org.hamcrest.Matchers.is;
+import static org.junit.Assert.assertThat;
+
+public class LineDiffTest {
+
+    @Test
+    public void sameTextShouldGiveNoEdits() {
+        assertThat(new LineDiff("<a>\n<b/>\n</a>\n", "<a>\n<b/>\n</a>\n").getTextEdits().size(), is(0));
+    }
+
+    @Test
+    public void changedLineShouldOnlyReplaceChangedCharacters() {
+        List<TextEdit> textEdits = new LineDiff("<a>\n  <b>1</b>\n</a>\n", "<a>\n  <b>2</b>\n</a>\n").getTextEdits();
+
+        assertThat(textEdits, is(Collections.singletonList(new TextEdit(9, 1, "2"))));
+    }
+
+    @Test
+    public void movedElementShouldGiveOneDeleteAndOneInsert() {
+        String original = "<dependencies>\n" +
+                "  <dependency>\n    <artifactId>b</artifactId>\n  </dependency>\n" +
+                "  <dependency>\n    <artifactId>c</artifactId>\n  </dependency>\n" +
+                "  <dependency>\n    <artifactId>a</artifactId>\n  </dependency>\n" +
+                "</dependencies>\n";
+        String sorted = "<dependencies>\n" +
+                "  <dependency>\n    <artifactId>a</artifactId>\n  </dependency>\n" +
+                "  <dependency>\n    <artifactId>b</artifactId>\n  </dependency>\n" +
+                "  <dependency>\n    <artifactId>c</artifactId>\n  </dependency>\n" +
+                "</dependencies>\n";
+
+        List<TextEdit> textEdits = new LineDiff(original, sorted).getTextEdits();
+
+        assertThat(textEdits.size(), is(2));
+        assertThat(TextEdit.applyEdits(original, textEdits), is(sorted));
+    }
+
+    @Test
+    public void textWithoutLastLineSeparatorShouldBeHandled() {
+        assertApplyGivesRevisedText("a\nb", "a\nc");
+        assertApplyGivesRevisedText("a\nb\n", "a\nb");
+        assertApplyGivesRevisedText("", "a\n");
+        assertApplyGivesRevisedText("a\n", "");
+    }
+
+    @Test
+    public void reindentedTextShouldBeReplacedAtOnce() {
+        StringBuilder original = new StringBuilder();
+        StringBuilder revised = new StringBuilder();
+        for (int i = 0; i < 5000; i++) {
+            original.append("  <a>").append(i).append("</a>\n");
+            revised.append("    <a>").append(i).append("</a>\n");
+        }
+
+        List<TextEdit> textEdits = new LineDiff(original.toString(), revised.toString()).getTextEdits();
+
+        assertThat(textEdits.size(), is(1));
+        assertThat(TextEdit.applyEdits(original.toString(), textEdits), is(revised.toString()));
+    }
+
+    @Test
+    public void reindentedTextWithBlankLinesShouldKeepTheBlankLines() {
+        StringBuilder original = new StringBuilder();
+        StringBuilder revised = new StringBuilder();
+        for (int i = 0; i < 2000; i++) {
+            original.append("  <a>").append(i).append("</a>\n\n");
+            revised.append("    <a>").append(i).append("</a>\n\n");
+        }
+
+        List<TextEdit> textEdits = new LineDiff(original.toString(), revised.toString()).getTextEdits();
+
+        assertThat(textEdits.size(), is(2000));
+        assertThat(TextEdit.applyEdits(original.toString(), textEdits), is(revised.toString()));
+    }
+
+    @Test
+    public void randomChangesShouldBeReproducedByEdits() {
+        Random random = new Random(4711);
+        String[] lineValues = {"<a>\n", "</a>\n", "<b/>\n", "  <c>x</c>\n", "\n", "<d>\r\n"};
+        for (int i = 0; i < 500; i++) {
+            List<String> lines = new ArrayList<String>();
+            for (int j = random.nextInt(30); j > 0; j--) {
+                lines.add(lineValues[random.nextInt(lineValues.length)]);
+            }
+            List<String> revisedLines = new ArrayList<String>(lines);
+            for (int j = random.nextInt(6); j > 0 && !revisedLines.isEmpty(); j--) {
+                revisedLines.remove(random.nextInt(revisedLines.size()));
+                revisedLines.add(random.nextInt(revisedLines.size() + 1), lineValues[random.nextInt(lineValues.length)] + j);
+            }
+            assertApplyGivesRevisedText(join(lines), join(revisedLines));
+        }
+    }
+
+    @Test
+    public void sortedPomShouldBeReproducedByEdits() throws Exception {
+        SortPomImpl sortPomImpl = new SortPomImpl();
+        sortPomImpl.setup(new SilentLogger(), new PluginParametersBuilder()
+                .setPomFile(null)
+                .setEncoding("UTF-8")
+                .setFormatting("\r\n", true, false)
+                .setIndent(2, false)
+                .setSortOrder("default_0_4_0.xml", null)
+                .setSortEntities("groupId,artifactId", "groupId,artifactId", true)
+                .createPluginParameters());
+        String xml = FileUtils.readFileToString(new File("src/test/resources/full_unsorted_input.xml"), "UTF-8");
+
+        List<TextEdit> textEdits = sortPomImpl.sortXmlAsTextEdits(xml);
+
+        assertThat(TextEdit.applyEdits(xml, textEdits), is(sortPomImpl.sortXml(xml)));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void overlappingEditsShouldNotBeApplied() {
+        TextEdit.applyEdits("abcdef", Arrays.asList(new TextEdit(1, 3, "x"), new TextEdit(2, 1, "y")));
+    }
+
+    private void assertApplyGivesRevisedText(String original, String revised) {
+        List<TextEdit> textEdits = new LineDiff(original, revised).getTextEdits();
+        assertThat(TextEdit.applyEdits(original, textEdits), is(revised));
+    }
+
+    private String join(List<String> lines) {
+        StringBuilder builder = new StringBuilder();
+        for (String line : lines) {
+            builder.append(line);
+        }
+        return builder.toString();
+    }
+}
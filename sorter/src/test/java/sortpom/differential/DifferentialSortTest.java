@@ -0,0 +1,39 @@
+package sortpom.differential;
+
+import org.junit.Test;
+import sortpom.util.DifferentialHarness;
+import sortpom.util.PomCorpus;
+import sortpom.util.SortConfigurationSpace;
+
+/**
+ * Compares the sequential sorting with the parallel sorting on generated poms and on the poms in the corpus.
+ * Every combination of the parameters is used, spread over the poms so that the test runs quickly.
+ */
+public class DifferentialSortTest {
+    private static final SortConfigurationSpace CONFIGURATION_SPACE = new SortConfigurationSpace()
+            .addOption("predefinedSortOrder", "default_1_0_0", "default_0_4_0", "recommended_2008_06", "custom_1")
+            .addOption("sortDependencies", "null", "groupId,artifactId", "scope,groupId,artifactId")
+            .addOption("sortPlugins", "null", "groupId,artifactId")
+            .addOption("sortProperties", "false", "true")
+            .addOption("keepBlankLines", "false", "true")
+            .addOption("expandEmptyElements", "true", "false")
+            .addOption("indentBlankLines", "false", "true")
+            .addOption("nrOfIndentSpace", "2", "-1")
+            .addOption("lineSeparator", "\n", "\r\n")
+            .addOption("keepFormatting", "false", "true")
+            .addOption("parallelSortThreshold", "1", "10", "100");
+
+    @Test
+    public void parallelSortingShouldGiveSameResultAsSequentialSorting() throws Exception {
+        DifferentialHarness harness = new DifferentialHarness(
+                new PluginParametersSortEngine(false), new PluginParametersSortEngine(true), CONFIGURATION_SPACE)
+                .addGeneratedPoms(20, 2014)
+                .setCombinationsPerPom(4);
+        for (String name : PomCorpus.getNames()) {
+            byte[] pomBytes = PomCorpus.getBytes(name);
+            harness.addPom(name, new String(pomBytes, PomCorpus.getEncoding(pomBytes)));
+        }
+
+        harness.assertNoDivergence();
+    }
+}
@@ -0,0 +1,40 @@
+package sortpom.differential;
+
+import sortpom.SortPomImpl;
+import sortpom.logger.SilentLogger;
+import sortpom.logger.SortPomLogger;
+import sortpom.parameter.PluginParametersBuilder;
+import sortpom.util.PomCorpus;
+import sortpom.util.SortConfiguration;
+import sortpom.util.SortEngine;
+
+/**
+ * Sorts with the JDOM pipeline, where the configuration is mapped to plugin parameters. The sequential engine
+ * ignores the parallel sort threshold of the configuration and never sorts in parallel.
+ */
+public class PluginParametersSortEngine implements SortEngine {
+    private static final SortPomLogger SILENT_LOGGER = new SilentLogger();
+
+    private final boolean parallel;
+
+    public PluginParametersSortEngine(boolean parallel) {
+        this.parallel = parallel;
+    }
+
+    //@Override
+    public String sort(String xml, SortConfiguration configuration) throws Exception {
+        SortPomImpl sortPomImpl = new SortPomImpl();
+        sortPomImpl.setup(SILENT_LOGGER, new PluginParametersBuilder()
+                .setEncoding(PomCorpus.getEncoding(xml.getBytes("UTF-8")))
+                .setFormatting(configuration.get("lineSeparator"), configuration.getBoolean("expandEmptyElements"),
+                        configuration.getBoolean("keepBlankLines"))
+                .setIndent(configuration.getInt("nrOfIndentSpace"), configuration.getBoolean("indentBlankLines"))
+                .setKeepFormatting(configuration.getBoolean("keepFormatting"))
+                .setSortOrder(null, configuration.get("predefinedSortOrder"))
+                .setSortEntities(configuration.getNullable("sortDependencies"), configuration.getNullable("sortPlugins"),
+                        configuration.getBoolean("sortProperties"))
+                .setParallelSortThreshold(parallel ? configuration.getInt("parallelSortThreshold") : 0)
+                .createPluginParameters());
+        return sortPomImpl.sortXml(xml);
+    }
+}
@@ -0,0 +1,107 @@
+package sortpom.jfr;
+
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import org.apache.commons.io.FileUtils;
+import org.junit.After;
+import org.junit.Assume;
+import org.junit.Before;
+import org.junit.Test;
+import sortpom.SortPomImpl;
+import sortpom.logger.SilentLogger;
+import sortpom.parameter.PluginParametersBuilder;
+import sortpom.util.PomGenerator;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.hamcrest.Matchers.*;
+import static org.junit.Assert.assertThat;
+
+public class SortEventsTest {
+    private final File directory = new File("target/sorteventstest");
+
+    @Before
+    public void flightRecorderShouldExist() {
+        Assume.assumeTrue(SortEvents.getInstance().isFlightRecorderAvailable());
+    }
+
+    @After
+    public void cleanup() throws Exception {
+        FileUtils.deleteDirectory(directory);
+    }
+
+    @Test
+    public void sortingShouldBeRecorded() throws Exception {
+        File pomFile = new File(directory, "pom.xml");
+        FileUtils.writeStringToFile(pomFile, new PomGenerator(3)
+                .setNrOfDependencies(SortEvents.LARGE_GROUP_SIZE)
+                .setNrOfProperties(10)
+                .setDisorder(1)
+                .generate(), "UTF-8");
+        long unsortedSize = pomFile.length();
+
+        List<RecordedEvent> events = record(pomFile);
+
+        RecordedEvent pomEvent = findEvent(events, "sortpom.PomOperation");
+        assertThat(pomEvent.getString("operation"), is("sort"));
+        assertThat(pomEvent.getString("path"), is(pomFile.getAbsolutePath()));
+        assertThat(pomEvent.getString("result"), is("sorted"));
+        assertThat(pomEvent.getLong("bytes"), is(unsortedSize));
+        assertThat(pomFile.length() == unsortedSize, is(false));
+        assertThat(pomEvent.getInt("nodeCount"), greaterThan(4 * SortEvents.LARGE_GROUP_SIZE));
+
+        RecordedEvent sortOrderEvent = findEvent(events, "sortpom.SortOrderCompilation");
+        assertThat(sortOrderEvent.getString("sortOrder"), is("default_0_4_0.xml"));
+        assertThat(sortOrderEvent.getInt("nrOfSortElements"), greaterThan(100));
+
+        RecordedEvent groupSortEvent = findEvent(events, "sortpom.GroupSort");
+        assertThat(groupSortEvent.getString("path"), is("/project/dependencies"));
+        assertThat(groupSortEvent.getInt("size"), is(SortEvents.LARGE_GROUP_SIZE));
+        assertThat(groupSortEvent.getInt("comparisons"), greaterThan(0));
+    }
+
+    private List<RecordedEvent> record(File pomFile) throws Exception {
+        File recordingFile = new File(directory, "sort.jfr");
+        Recording recording = new Recording();
+        try {
+            recording.enable("sortpom.PomOperation");
+            recording.enable("sortpom.SortOrderCompilation");
+            recording.enable("sortpom.GroupSort");
+            recording.start();
+            createSortPomImpl(pomFile).sortPom();
+            recording.stop();
+            recording.dump(recordingFile.toPath());
+        } finally {
+            recording.close();
+        }
+        return RecordingFile.readAllEvents(recordingFile.toPath());
+    }
+
+    private RecordedEvent findEvent(List<RecordedEvent> events, String name) {
+        List<RecordedEvent> found = new ArrayList<RecordedEvent>();
+        for (RecordedEvent event : events) {
+            if (event.getEventType().getName().equals(name)) {
+                found.add(event);
+            }
+        }
+        assertThat(found.size(), is(1));
+        return found.get(0);
+    }
+
+    private SortPomImpl createSortPomImpl(File pomFile) {
+        SortPomImpl sortPomImpl = new SortPomImpl();
+        sortPomImpl.setup(new SilentLogger(), new PluginParametersBuilder()
+                .setPomFile(pomFile)
+                .setBackupInfo(false, ".bak")
+                .setEncoding("UTF-8")
+                .setFormatting("\n", true, false)
+                .setIndent(4, false)
+                .setSortOrder("default_0_4_0.xml", null)
+                .setSortEntities("", "", false)
+                .createPluginParameters());
+        return sortPomImpl;
+    }
+}
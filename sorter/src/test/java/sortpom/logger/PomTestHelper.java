@@ -0,0 +1,44 @@
+package sortpom.logger;
+
+import org.apache.commons.io.FileUtils;
+import sortpom.parameter.PluginParametersBuilder;
+
+import java.io.File;
+import java.io.IOException;
+
+/**
+ * Copies and reads the pom files of the tests that sort pom files on disk.
+ */
+public final class PomTestHelper {
+    public static final String UTF_8 = "UTF-8";
+    private static final String RESOURCE_DIRECTORY = "src/test/resources/";
+
+    private PomTestHelper() {
+    }
+
+    /** Copies a pom file from the test resources to the directory */
+    public static File copyPom(File directory, String resourceName, String fileName) throws IOException {
+        File pomFile = new File(directory, fileName);
+        FileUtils.copyFile(new File(RESOURCE_DIRECTORY + resourceName), pomFile);
+        return pomFile;
+    }
+
+    public static String readFile(File file) throws IOException {
+        return FileUtils.readFileToString(file, UTF_8);
+    }
+
+    public static String readResource(String resourceName) throws IOException {
+        return readFile(new File(RESOURCE_DIRECTORY + resourceName));
+    }
+
+    /** Sorts with the 0.4.0 sort order and CRLF line separators, without backup files */
+    public static PluginParametersBuilder createParametersBuilder() {
+        return new PluginParametersBuilder()
+                .setBackupInfo(false, ".bak")
+                .setEncoding(UTF_8)
+                .setFormatting("\r\n", true, false)
+                .setIndent(2, false)
+                .setSortOrder("default_0_4_0.xml", null)
+                .setSortEntities("", "", false);
+    }
+}
@@ -0,0 +1,18 @@
+package sortpom.logger;
+
+/**
+ * A logger that ignores all messages, for tests that do not check the log.
+ */
+public class SilentLogger implements SortPomLogger {
+    //@Override
+    public void warn(String content) {
+    }
+
+    //@Override
+    public void info(String content) {
+    }
+
+    //@Override
+    public void error(String content) {
+    }
+}
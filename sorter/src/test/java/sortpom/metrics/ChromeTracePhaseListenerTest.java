@@ -0,0 +1,110 @@
+package sortpom.metrics;
+
+import org.apache.commons.io.FileUtils;
+import org.junit.After;
+import org.junit.Test;
+import sortpom.batch.BatchSorter;
+import sortpom.batch.SortPipeline;
+import sortpom.logger.SilentLogger;
+import sortpom.logger.SortPomLogger;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.hamcrest.Matchers.*;
+import static org.junit.Assert.assertThat;
+import static sortpom.logger.PomTestHelper.UTF_8;
+import static sortpom.logger.PomTestHelper.copyPom;
+import static sortpom.logger.PomTestHelper.createParametersBuilder;
+
+public class ChromeTracePhaseListenerTest {
+    private final File directory = new File("target/chrometracetest");
+    private final File traceFile = new File(directory, "trace/sortpom-trace.json");
+
+    @After
+    public void cleanup() throws Exception {
+        FileUtils.deleteDirectory(directory);
+    }
+
+    @Test
+    public void batchSorterShouldTraceEachPomWithNestedPhases() throws Exception {
+        BatchSorter batchSorter = new BatchSorter();
+        batchSorter.setup(createLogger(),
+                createParametersBuilder().setFormatting("\n", true, false).createPluginParameters());
+        batchSorter.setNrOfThreads(2);
+        batchSorter.setPhaseListener(new ChromeTracePhaseListener(traceFile));
+
+        batchSorter.sortPoms(copyPoms());
+
+        List<String> traceLines = readTraceLines();
+        assertThat(traceLines.get(0), is("{\"displayTimeUnit\": \"ms\", \"traceEvents\": ["));
+        assertThat(traceLines.get(traceLines.size() - 1), is("]}"));
+        assertThat(findLines(traceLines, "\"ph\": \"M\"").size(), isOneOf(1, 2));
+        List<String> pomSpans = findLines(traceLines, "\"cat\": \"pom\", \"ph\": \"X\"");
+        assertThat(pomSpans.size(), is(3));
+        assertThat(pomSpans.get(0), containsString("\"args\": {\"inputSize\": "));
+        assertThat(findLines(traceLines, "{\"name\": \"read\", \"cat\": \"phase\", \"ph\": \"X\"").size(), is(3));
+        assertThat(findLines(traceLines, "{\"name\": \"sort\", \"cat\": \"phase\", \"ph\": \"X\"").size(), is(3));
+        assertThat(findLines(traceLines, "{\"name\": \"write\", \"cat\": \"phase\", \"ph\": \"X\"").size(), is(2));
+    }
+
+    @Test
+    public void sortPipelineShouldTracePomsAcrossStageThreads() throws Exception {
+        SortPipeline sortPipeline = new SortPipeline();
+        sortPipeline.setup(createLogger(),
+                createParametersBuilder().setFormatting("\n", true, false).createPluginParameters());
+        sortPipeline.setNrOfCpuThreads(2);
+        sortPipeline.setNrOfIoThreads(2);
+        sortPipeline.setPhaseListener(new ChromeTracePhaseListener(traceFile));
+
+        sortPipeline.sortPoms(copyPoms());
+
+        List<String> traceLines = readTraceLines();
+        assertThat(findLines(traceLines, "\"cat\": \"pom\", \"ph\": \"b\"").size(), is(3));
+        assertThat(findLines(traceLines, "\"cat\": \"pom\", \"ph\": \"e\"").size(), is(3));
+        assertThat(findLines(traceLines, "\"ph\": \"M\"").size(), greaterThan(2));
+        assertThat(findLines(traceLines, "{\"name\": \"parse\", \"cat\": \"phase\", \"ph\": \"X\"").size(), is(3));
+        assertThat(findLines(traceLines, "{\"name\": \"serialize\", \"cat\": \"phase\", \"ph\": \"X\"").size(), is(3));
+    }
+
+    @Test
+    public void listenerShouldStartOverAfterSavingTrace() throws Exception {
+        ChromeTracePhaseListener listener = new ChromeTracePhaseListener(traceFile);
+        listener.phaseFinished(new PhaseEvent("pom.xml", SortPhase.READ, 1000, 2000, 10, 0, 0));
+        listener.sortingFinished();
+
+        listener.sortingFinished();
+
+        assertThat(readTraceLines(), is(Arrays.asList("{\"displayTimeUnit\": \"ms\", \"traceEvents\": [", "]}")));
+    }
+
+    private List<File> copyPoms() throws Exception {
+        List<File> pomFiles = new ArrayList<File>();
+        int i = 0;
+        for (String resourceName : Arrays.asList("Simple_input.xml", "full_unsorted_input.xml", "full_expected.xml")) {
+            pomFiles.add(copyPom(directory, resourceName, "pom" + (++i) + ".xml"));
+        }
+        return pomFiles;
+    }
+
+    @SuppressWarnings("unchecked")
+    private List<String> readTraceLines() throws Exception {
+        return FileUtils.readLines(traceFile, UTF_8);
+    }
+
+    private List<String> findLines(List<String> lines, String text) {
+        List<String> found = new ArrayList<String>();
+        for (String line : lines) {
+            if (line.contains(text)) {
+                found.add(line);
+            }
+        }
+        return found;
+    }
+
+    private SortPomLogger createLogger() {
+        return new SilentLogger();
+    }
+}
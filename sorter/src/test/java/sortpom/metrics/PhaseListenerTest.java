@@ -0,0 +1,248 @@
+package sortpom.metrics;
+
+import org.apache.commons.io.FileUtils;
+import org.junit.After;
+import org.junit.Test;
+import sortpom.SortPomImpl;
+import sortpom.exception.FailureException;
+import sortpom.logger.SortPomLogger;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.hamcrest.Matchers.*;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.fail;
+import static sortpom.logger.PomTestHelper.UTF_8;
+import static sortpom.logger.PomTestHelper.copyPom;
+import static sortpom.logger.PomTestHelper.createParametersBuilder;
+import static sortpom.logger.PomTestHelper.readResource;
+
+public class PhaseListenerTest {
+    private final File directory = new File("target/phaselistenertest");
+    private final List<String> logs = new ArrayList<String>();
+
+    @After
+    public void cleanup() throws Exception {
+        FileUtils.deleteDirectory(directory);
+    }
+
+    @Test
+    public void sortingShouldReportEveryPhase() throws Exception {
+        File pomFile = copyPom(directory, "full_unsorted_input.xml", "pom.xml");
+        RecordingListener listener = new RecordingListener();
+
+        SortPomImpl sortPomImpl = createSortPomImpl(pomFile);
+        sortPomImpl.setPhaseListener(listener);
+        sortPomImpl.sortPom();
+
+        assertThat(listener.getPhases(), is(Arrays.asList(SortPhase.READ, SortPhase.PARSE, SortPhase.WRAP,
+                SortPhase.SORT, SortPhase.SERIALIZE, SortPhase.COMPARE, SortPhase.WRITE)));
+        assertThat(listener.finishedPoms, is(Arrays.asList(pomFile.getAbsolutePath())));
+
+        PhaseEvent readEvent = listener.events.get(0);
+        String originalXml = readResource("full_unsorted_input.xml");
+        assertThat(readEvent.getInputSize(), is((long) originalXml.length()));
+        assertThat(readEvent.getNodeCount(), is(0));
+
+        PhaseEvent sortEvent = listener.events.get(3);
+        assertThat(sortEvent.getPomName(), is(pomFile.getAbsolutePath()));
+        assertThat(sortEvent.getNodeCount(), greaterThan(sortEvent.getSiblingGroupCount()));
+        assertThat(sortEvent.getSiblingGroupCount(), greaterThan(0));
+        assertThat(sortEvent.getDurationNanos(), greaterThanOrEqualTo(0L));
+    }
+
+    @Test
+    public void sortedPomShouldNotReportWritePhase() throws Exception {
+        File pomFile = copyPom(directory, "full_expected.xml", "pom.xml");
+        RecordingListener listener = new RecordingListener();
+
+        SortPomImpl sortPomImpl = createSortPomImpl(pomFile);
+        sortPomImpl.setPhaseListener(listener);
+        sortPomImpl.sortPom();
+
+        assertThat(listener.getPhases(), is(Arrays.asList(SortPhase.READ, SortPhase.PARSE, SortPhase.WRAP,
+                SortPhase.SORT, SortPhase.SERIALIZE, SortPhase.COMPARE)));
+        assertThat(listener.finishedPoms.size(), is(1));
+    }
+
+    @Test
+    public void verifyingShouldReportPhasesWithoutSerializing() throws Exception {
+        File pomFile = copyPom(directory, "full_expected.xml", "pom.xml");
+        RecordingListener listener = new RecordingListener();
+
+        SortPomImpl sortPomImpl = createSortPomImpl(pomFile);
+        sortPomImpl.setPhaseListener(listener);
+        sortPomImpl.verifyPom();
+
+        assertThat(listener.getPhases(), is(Arrays.asList(SortPhase.READ, SortPhase.PARSE, SortPhase.WRAP,
+                SortPhase.SORT, SortPhase.COMPARE)));
+        assertThat(listener.finishedPoms.size(), is(1));
+    }
+
+    @Test
+    public void sortingAfterFailedVerifyShouldBeReportedAsPomOfItsOwn() throws Exception {
+        File pomFile = copyPom(directory, "full_unsorted_input.xml", "pom.xml");
+        RecordingListener listener = new RecordingListener();
+
+        SortPomImpl sortPomImpl = createSortPomImpl(pomFile, "sort");
+        sortPomImpl.setPhaseListener(listener);
+        sortPomImpl.verifyPom();
+
+        assertThat(listener.getPhases(), is(Arrays.asList(SortPhase.READ, SortPhase.PARSE, SortPhase.WRAP,
+                SortPhase.SORT, SortPhase.COMPARE, SortPhase.READ, SortPhase.PARSE, SortPhase.WRAP,
+                SortPhase.SORT, SortPhase.SERIALIZE, SortPhase.COMPARE, SortPhase.WRITE)));
+        assertThat(listener.finishedPoms, is(Arrays.asList(pomFile.getAbsolutePath(), pomFile.getAbsolutePath())));
+        assertThat(listener.finishedPomEventCounts, is(Arrays.asList(5, 12)));
+    }
+
+    @Test
+    public void stoppedVerifyShouldFinishPom() throws Exception {
+        File pomFile = copyPom(directory, "full_unsorted_input.xml", "pom.xml");
+        RecordingListener listener = new RecordingListener();
+
+        SortPomImpl sortPomImpl = createSortPomImpl(pomFile, "stop");
+        sortPomImpl.setPhaseListener(listener);
+        try {
+            sortPomImpl.verifyPom();
+            fail();
+        } catch (FailureException e) {
+            assertThat(e.getMessage(), containsString("is not sorted"));
+        }
+
+        assertThat(listener.finishedPoms, is(Arrays.asList(pomFile.getAbsolutePath())));
+    }
+
+    @Test
+    public void failedVerifyShouldFinishPom() throws Exception {
+        File pomFile = new File(directory, "pom.xml");
+        FileUtils.writeStringToFile(pomFile, "<project>", UTF_8);
+        RecordingListener listener = new RecordingListener();
+
+        SortPomImpl sortPomImpl = createSortPomImpl(pomFile, "stop");
+        sortPomImpl.setPhaseListener(listener);
+        try {
+            sortPomImpl.verifyPom();
+            fail();
+        } catch (FailureException e) {
+            assertThat(e.getMessage(), startsWith("Could not verify pom files content"));
+        }
+
+        assertThat(listener.finishedPoms, is(Arrays.asList(pomFile.getAbsolutePath())));
+    }
+
+    @Test
+    public void loggingListenerShouldLogBreakdownAndSummary() throws Exception {
+        LoggingPhaseListener listener = new LoggingPhaseListener(createLogger(), true);
+        SortPomImpl sortPomImpl = createSortPomImpl(copyPom(directory, "full_unsorted_input.xml", "pom1.xml"));
+        sortPomImpl.setPhaseListener(listener);
+        sortPomImpl.sortPom();
+        sortPomImpl = createSortPomImpl(copyPom(directory, "full_expected.xml", "pom2.xml"));
+        sortPomImpl.setPhaseListener(listener);
+        sortPomImpl.sortPom();
+
+        listener.sortingFinished();
+
+        List<String> pomLogs = findLogs("[INFO] Phase times for " + directory.getAbsolutePath());
+        assertThat(pomLogs.size(), is(2));
+        assertThat(pomLogs.get(0), containsString("pom1.xml ("));
+        assertThat(pomLogs.get(0), containsString(" parse "));
+        assertThat(pomLogs.get(0), endsWith(" ms"));
+        assertThat(findLogs("[INFO] Phase times for 2 pom file(s):").size(), is(1));
+        assertThat(findLogs("[INFO] read            2 ").size(), is(1));
+        assertThat(findLogs("[INFO] write           1 ").size(), is(1));
+        assertThat(findLogs("[INFO] total").size(), is(1));
+
+        logs.clear();
+        listener.sortingFinished();
+        assertThat(logs.isEmpty(), is(true));
+    }
+
+    @Test
+    public void compositeListenerShouldPassEventsToAllListeners() throws Exception {
+        RecordingListener listener1 = new RecordingListener();
+        RecordingListener listener2 = new RecordingListener();
+        File pomFile = copyPom(directory, "full_unsorted_input.xml", "pom.xml");
+
+        SortPomImpl sortPomImpl = createSortPomImpl(pomFile);
+        sortPomImpl.setPhaseListener(new CompositePhaseListener(listener1, listener2));
+        sortPomImpl.sortPom();
+
+        assertThat(listener1.events.size(), is(7));
+        assertThat(listener2.events, is(listener1.events));
+        assertThat(listener2.finishedPoms, is(Arrays.asList(pomFile.getAbsolutePath())));
+    }
+
+    private List<String> findLogs(String prefix) {
+        List<String> found = new ArrayList<String>();
+        for (String log : logs) {
+            if (log.startsWith(prefix)) {
+                found.add(log);
+            }
+        }
+        return found;
+    }
+
+    private SortPomImpl createSortPomImpl(File pomFile) {
+        return createSortPomImpl(pomFile, "sort");
+    }
+
+    private SortPomImpl createSortPomImpl(File pomFile, String verifyFail) {
+        SortPomImpl sortPomImpl = new SortPomImpl();
+        sortPomImpl.setup(createLogger(), createParametersBuilder()
+                .setPomFile(pomFile)
+                .setVerifyFail(verifyFail)
+                .createPluginParameters());
+        return sortPomImpl;
+    }
+
+    private SortPomLogger createLogger() {
+        return new SortPomLogger() {
+            //@Override
+            public void warn(String content) {
+                logs.add("[WARNING] " + content);
+            }
+
+            //@Override
+            public void info(String content) {
+                logs.add("[INFO] " + content);
+            }
+
+            //@Override
+            public void error(String content) {
+                logs.add("[ERROR] " + content);
+            }
+        };
+    }
+
+    private static class RecordingListener implements PhaseListener {
+        private final List<PhaseEvent> events = new ArrayList<PhaseEvent>();
+        private final List<String> finishedPoms = new ArrayList<String>();
+        private final List<Integer> finishedPomEventCounts = new ArrayList<Integer>();
+
+        //@Override
+        public void phaseFinished(PhaseEvent phaseEvent) {
+            events.add(phaseEvent);
+        }
+
+        //@Override
+        public void pomFinished(String pomName) {
+            finishedPoms.add(pomName);
+            finishedPomEventCounts.add(events.size());
+        }
+
+        //@Override
+        public void sortingFinished() {
+        }
+
+        List<SortPhase> getPhases() {
+            List<SortPhase> phases = new ArrayList<SortPhase>();
+            for (PhaseEvent event : events) {
+                phases.add(event.getPhase());
+            }
+            return phases;
+        }
+    }
+}
@@ -0,0 +1,96 @@
+package sortpom.metrics;
+
+import org.junit.Test;
+import sortpom.SortPomImpl;
+import sortpom.logger.SilentLogger;
+import sortpom.parameter.PluginParametersBuilder;
+import sortpom.util.PomGenerator;
+
+import java.util.Arrays;
+import java.util.List;
+
+import static org.hamcrest.Matchers.*;
+import static org.junit.Assert.assertThat;
+
+public class SortStatisticsTest {
+    private final PomGenerator pomGenerator = new PomGenerator(11)
+            .setNrOfDependencies(30)
+            .setNrOfPlugins(5)
+            .setNrOfProfiles(2)
+            .setConfigurationDepth(2);
+
+    @Test
+    public void sortingShouldBeCountedPerPath() throws Exception {
+        SortStatistics sortStatistics = sort(pomGenerator.setDisorder(1).generate(), 0);
+
+        SortStatistics.GroupStatistics dependencies = sortStatistics.getGroupStatistics("/project/dependencies");
+        assertThat(dependencies.getNrOfGroups(), is(1));
+        assertThat(dependencies.getNrOfElements(), is(30));
+        assertThat(dependencies.getMaxSize(), is(30));
+        assertThat(dependencies.getComparisons(), greaterThanOrEqualTo(29));
+        assertThat(dependencies.getMoves(), greaterThan(0));
+
+        SortStatistics.GroupStatistics dependency = sortStatistics.getGroupStatistics("/project/dependencies/dependency");
+        assertThat(dependency.getNrOfGroups(), is(30));
+        assertThat(dependency.getMaxSize(), is(4));
+
+        assertThat(sortStatistics.getGroupStatistics("/project/profiles/profile/dependencies").getNrOfGroups(), is(2));
+    }
+
+    @Test
+    public void sortedDependenciesShouldNotBeMoved() throws Exception {
+        SortStatistics sortStatistics = sort(pomGenerator.setDisorder(0).generate(), 0);
+
+        assertThat(sortStatistics.getGroupStatistics("/project/dependencies").getMoves(), is(0));
+        assertThat(sortStatistics.getGroupStatistics("/project/properties").getMoves(), is(0));
+        assertThat(sortStatistics.getGroupStatistics("/project/build/plugins").getMoves(), is(0));
+    }
+
+    @Test
+    public void deepestPathsShouldBeFound() throws Exception {
+        SortStatistics sortStatistics = sort(pomGenerator.setDisorder(1).generate(), 0);
+
+        assertThat(sortStatistics.getMaxDepth(), is(6));
+        assertThat(sortStatistics.getDeepestPaths(), is(Arrays.asList("/project/build/plugins/plugin/configuration/nested1")));
+    }
+
+    @Test
+    public void parallelSortingShouldGiveSameStatistics() throws Exception {
+        String pom = pomGenerator.setDisorder(1).generate();
+
+        List<String> report = sort(pom, 0).createReport();
+        List<String> parallelReport = sort(pom, 5).createReport();
+
+        assertThat(parallelReport, is(report));
+    }
+
+    @Test
+    public void reportShouldHaveOneLinePerPath() throws Exception {
+        SortStatistics sortStatistics = sort(pomGenerator.setDisorder(1).generate(), 0);
+
+        List<String> report = sortStatistics.createReport();
+
+        int nrOfPaths = sortStatistics.getAllGroupStatistics().size();
+        assertThat(report.size(), is(nrOfPaths + 3));
+        assertThat(report.get(0), startsWith("Sort statistics for " + nrOfPaths + " path(s), "));
+        assertThat(report.get(1), startsWith("Path "));
+        assertThat(report.get(2), startsWith("/project "));
+        assertThat(report.get(report.size() - 1), is("Deepest path: /project/build/plugins/plugin/configuration/nested1"));
+    }
+
+    private SortStatistics sort(String pom, int parallelSortThreshold) {
+        SortStatistics sortStatistics = new SortStatistics();
+        SortPomImpl sortPomImpl = new SortPomImpl();
+        sortPomImpl.setup(new SilentLogger(), new PluginParametersBuilder()
+                .setEncoding("UTF-8")
+                .setFormatting("\n", true, false)
+                .setIndent(2, false)
+                .setSortOrder("default_0_4_0.xml", null)
+                .setSortEntities("groupId,artifactId", "groupId,artifactId", true)
+                .setParallelSortThreshold(parallelSortThreshold)
+                .createPluginParameters());
+        sortPomImpl.setSortStatistics(sortStatistics);
+        sortPomImpl.sortXml(pom);
+        return sortStatistics;
+    }
+}
@@ -0,0 +1,71 @@
+package sortpom.sort;
+
+import org.apache.commons.io.FileUtils;
+import org.junit.After;
+import org.junit.Test;
+import sortpom.SortPomImpl;
+import sortpom.logger.SortPomLogger;
+import sortpom.util.AsyncPomWriter;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import static org.hamcrest.Matchers.is;
+import static org.junit.Assert.assertThat;
+import static sortpom.logger.PomTestHelper.copyPom;
+import static sortpom.logger.PomTestHelper.createParametersBuilder;
+import static sortpom.logger.PomTestHelper.readFile;
+import static sortpom.logger.PomTestHelper.readResource;
+
+public class AsyncWriteTest {
+    private final File directory = new File("target/asyncwritetest");
+    private final List<String> logs = Collections.synchronizedList(new ArrayList<String>());
+    private final AsyncPomWriter asyncPomWriter = new AsyncPomWriter();
+
+    @After
+    public void cleanup() throws Exception {
+        asyncPomWriter.close();
+        FileUtils.deleteDirectory(directory);
+    }
+
+    @Test
+    public void sameSortPomImplShouldWriteSeveralPomFilesInBackground() throws Exception {
+        File pomFile1 = copyPom(directory, "Simple_input.xml", "pom1.xml");
+        File pomFile2 = copyPom(directory, "full_unsorted_input.xml", "pom2.xml");
+        SortPomImpl sortPomImpl = new SortPomImpl();
+        sortPomImpl.setAsyncPomWriter(asyncPomWriter);
+
+        sortPomImpl.setup(createLogger(), createParametersBuilder().setBackupInfo(true, ".bak").setPomFile(pomFile1).createPluginParameters());
+        sortPomImpl.sortPom();
+        sortPomImpl.setup(createLogger(), createParametersBuilder().setBackupInfo(true, ".bak").setPomFile(pomFile2).createPluginParameters());
+        sortPomImpl.sortPom();
+        asyncPomWriter.flush();
+
+        assertThat(readFile(pomFile1), is(readResource("Simple_expected.xml")));
+        assertThat(readFile(pomFile2), is(readResource("full_expected.xml")));
+        assertThat(readFile(new File(pomFile1.getAbsolutePath() + ".bak")),
+                is(readResource("Simple_input.xml")));
+        assertThat(logs.contains("Saved sorted pom file to " + pomFile2.getAbsolutePath()), is(true));
+    }
+
+    private SortPomLogger createLogger() {
+        return new SortPomLogger() {
+            //@Override
+            public void warn(String content) {
+                logs.add(content);
+            }
+
+            //@Override
+            public void info(String content) {
+                logs.add(content);
+            }
+
+            //@Override
+            public void error(String content) {
+                logs.add(content);
+            }
+        };
+    }
+}
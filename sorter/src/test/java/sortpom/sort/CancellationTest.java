@@ -0,0 +1,77 @@
+package sortpom.sort;
+
+import org.apache.commons.io.FileUtils;
+import org.junit.Test;
+import sortpom.SortPomImpl;
+import sortpom.logger.SilentLogger;
+import sortpom.parameter.PluginParametersBuilder;
+import sortpom.util.CancellationChecker;
+
+import java.io.File;
+
+import static org.hamcrest.Matchers.greaterThan;
+import static org.hamcrest.Matchers.is;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.fail;
+
+public class CancellationTest {
+
+    @Test
+    public void sortingShouldStopWhenCheckerCancels() throws Exception {
+        String xml = FileUtils.readFileToString(new File("src/test/resources/full_unsorted_input.xml"), "UTF-8");
+        CountingChecker countingChecker = new CountingChecker(10);
+        SortPomImpl sortPomImpl = createSortPomImpl();
+        sortPomImpl.setCancellationChecker(countingChecker);
+
+        try {
+            sortPomImpl.sortXml(xml);
+            fail();
+        } catch (CanceledException e) {
+            assertThat(countingChecker.nrOfChecks, is(10));
+        }
+    }
+
+    @Test
+    public void sortingShouldBeCheckedRegularly() throws Exception {
+        String xml = FileUtils.readFileToString(new File("src/test/resources/full_unsorted_input.xml"), "UTF-8");
+        CountingChecker countingChecker = new CountingChecker(Integer.MAX_VALUE);
+        SortPomImpl sortPomImpl = createSortPomImpl();
+        sortPomImpl.setCancellationChecker(countingChecker);
+
+        sortPomImpl.sortXmlAsTextEdits(xml);
+
+        assertThat(countingChecker.nrOfChecks, greaterThan(100));
+    }
+
+    private SortPomImpl createSortPomImpl() {
+        SortPomImpl sortPomImpl = new SortPomImpl();
+        sortPomImpl.setup(new SilentLogger(), new PluginParametersBuilder()
+                .setEncoding("UTF-8")
+                .setFormatting("\n", true, false)
+                .setIndent(2, false)
+                .setSortOrder("default_0_4_0.xml", null)
+                .setSortEntities("", "", false)
+                .createPluginParameters());
+        return sortPomImpl;
+    }
+
+    private static class CountingChecker implements CancellationChecker {
+        private final int cancelAtCheck;
+        private int nrOfChecks;
+
+        CountingChecker(int cancelAtCheck) {
+            this.cancelAtCheck = cancelAtCheck;
+        }
+
+        //@Override
+        public void checkCanceled() {
+            nrOfChecks++;
+            if (nrOfChecks == cancelAtCheck) {
+                throw new CanceledException();
+            }
+        }
+    }
+
+    private static class CanceledException extends RuntimeException {
+    }
+}
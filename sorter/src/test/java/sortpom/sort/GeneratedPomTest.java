@@ -0,0 +1,54 @@
+package sortpom.sort;
+
+import org.junit.Test;
+import sortpom.SortPomImpl;
+import sortpom.logger.SilentLogger;
+import sortpom.parameter.PluginParametersBuilder;
+import sortpom.util.PomGenerator;
+
+import static org.hamcrest.Matchers.is;
+import static org.junit.Assert.assertThat;
+
+public class GeneratedPomTest {
+
+    @Test
+    public void generatedPomWithoutDisorderShouldBeSorted() throws Exception {
+        String pom = new PomGenerator(1)
+                .setNrOfDependencies(50)
+                .setNrOfPlugins(10)
+                .setNrOfProfiles(3)
+                .setNrOfProperties(20)
+                .setBlankLineDensity(0.2)
+                .generate();
+
+        assertThat(createSortPomImpl().findMisplacedElements(pom).size(), is(0));
+    }
+
+    @Test
+    public void disorderedGeneratedPomShouldBeSortedLikeOrderedPom() throws Exception {
+        // Profiles are not sorted by SortPom, and neither is the content of plugin configurations
+        PomGenerator generator = new PomGenerator(5)
+                .setNrOfDependencies(200)
+                .setNrOfPlugins(40)
+                .setNrOfProfiles(1)
+                .setNrOfProperties(100)
+                .setConfigurationDepth(0);
+        String orderedPom = generator.setDisorder(0).generate();
+        String disorderedPom = generator.setDisorder(1).generate();
+
+        SortPomImpl sortPomImpl = createSortPomImpl();
+        assertThat(sortPomImpl.sortXml(disorderedPom), is(sortPomImpl.sortXml(orderedPom)));
+    }
+
+    private SortPomImpl createSortPomImpl() {
+        SortPomImpl sortPomImpl = new SortPomImpl();
+        sortPomImpl.setup(new SilentLogger(), new PluginParametersBuilder()
+                .setEncoding("UTF-8")
+                .setFormatting("\n", true, false)
+                .setIndent(2, false)
+                .setSortOrder(null, "default_1_0_0")
+                .setSortEntities("groupId,artifactId", "groupId,artifactId", true)
+                .createPluginParameters());
+        return sortPomImpl;
+    }
+}
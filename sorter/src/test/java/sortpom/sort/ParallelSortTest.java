@@ -0,0 +1,42 @@
+package sortpom.sort;
+
+import org.junit.Test;
+import sortpom.util.SortPomImplUtil;
+
+public class ParallelSortTest {
+
+    @Test
+    public final void parallelSortingShouldGiveSameResultAsSequentialSorting() throws Exception {
+        SortPomImplUtil.create()
+                .parallelSortThreshold(1)
+                .testFiles("/full_unsorted_input.xml", "/full_expected.xml");
+    }
+
+    @Test
+    public final void parallelSortingOfDependenciesAndPluginsShouldGiveSameResult() throws Exception {
+        SortPomImplUtil.create()
+                .defaultOrderFileName("custom_1.xml")
+                .sortDependencies("scope,groupId,artifactId")
+                .sortPlugins("groupId,artifactId")
+                .sortProperties()
+                .keepBlankLines()
+                .parallelSortThreshold(2)
+                .testFiles("/SortDep_input_simpleWithScope.xml", "/SortDep_expected_simpleWithScope2.xml");
+    }
+
+    @Test
+    public final void thresholdAboveStructureSizeShouldSortSequentially() throws Exception {
+        SortPomImplUtil.create()
+                .parallelSortThreshold(Integer.MAX_VALUE)
+                .testFiles("/full_unsorted_input.xml", "/full_expected.xml");
+    }
+
+    @Test
+    public final void verifyShouldWorkWithParallelSorting() throws Exception {
+        SortPomImplUtil.create()
+                .lineSeparator("\n")
+                .predefinedSortOrder("custom_1")
+                .parallelSortThreshold(3)
+                .testVerifyXmlIsOrdered("/sortOrderFiles/sorted_custom_1.xml");
+    }
+}
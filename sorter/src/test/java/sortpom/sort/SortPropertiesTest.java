@@ -22,6 +22,15 @@ public class SortPropertiesTest {
                 .testFiles("/SortedProperties_input.xml", "/SortedProperties_output_alfa.xml");
     }
 
+    @Test
+    public final void propertiesWithSameNameShouldKeepTheirOrder() throws Exception {
+        SortPomImplUtil.create()
+                .sortProperties()
+                .lineSeparator("\n")
+                .predefinedSortOrder("default_1_0_0")
+                .testFiles("/DuplicateProperties_input.xml", "/DuplicateProperties_expected.xml");
+    }
+
     @Test
     public final void testBothNamedParametersInSortFileAndSortPropertyParameterTest() throws Exception {
         SortPomImplUtil.create()
@@ -0,0 +1,110 @@
+package sortpom.splice;
+
+import org.jdom.Document;
+import org.jdom.Element;
+import org.jdom.input.SAXBuilder;
+import org.junit.Before;
+import org.junit.Test;
+import sortpom.SortPomImpl;
+import sortpom.logger.SilentLogger;
+import sortpom.parameter.PluginParametersBuilder;
+
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.sameInstance;
+import static org.junit.Assert.assertThat;
+
+public class ElementMoveFinderTest {
+    private SortPomImpl sortPomImpl;
+
+    @Before
+    public void setUp() throws Exception {
+        sortPomImpl = new SortPomImpl();
+        sortPomImpl.setup(new SilentLogger(), new PluginParametersBuilder()
+                .setEncoding("UTF-8")
+                .setFormatting("\n", true, false)
+                .setIndent(2, false)
+                .setSortOrder("default_0_4_0.xml", null)
+                .setSortEntities("groupId,artifactId", "", false)
+                .createPluginParameters());
+    }
+
+    @Test
+    public void movesShouldContainOriginalElementsWithDeepestElementsFirst() throws Exception {
+        Document document = new SAXBuilder().build(new StringReader("<project>\n" +
+                "  <dependencies>\n" +
+                "    <dependency><artifactId>b</artifactId><groupId>b</groupId></dependency>\n" +
+                "    <dependency><groupId>a</groupId><artifactId>a</artifactId></dependency>\n" +
+                "  </dependencies>\n" +
+                "  <modelVersion>4.0.0</modelVersion>\n" +
+                "</project>"));
+        Element project = document.getRootElement();
+        Element dependencies = project.getChild("dependencies");
+        Element dependencyB = (Element) dependencies.getChildren().get(0);
+        Element dependencyA = (Element) dependencies.getChildren().get(1);
+
+        Map<Element, List<Element>> moves = sortPomImpl.sortDocumentAsElementMoves(document);
+
+        assertThat(moves.size(), is(3));
+        Iterator<Map.Entry<Element, List<Element>>> iterator = moves.entrySet().iterator();
+        Map.Entry<Element, List<Element>> dependencyBMove = iterator.next();
+        assertThat(dependencyBMove.getKey(), sameInstance(dependencyB));
+        assertThat(getNames(dependencyBMove.getValue()), is("groupId,artifactId"));
+        assertThat(dependencyBMove.getValue().get(0), sameInstance(dependencyB.getChild("groupId")));
+
+        Map.Entry<Element, List<Element>> dependenciesMove = iterator.next();
+        assertThat(dependenciesMove.getKey(), sameInstance(dependencies));
+        assertThat(dependenciesMove.getValue().get(0), sameInstance(dependencyA));
+        assertThat(dependenciesMove.getValue().get(1), sameInstance(dependencyB));
+
+        Map.Entry<Element, List<Element>> projectMove = iterator.next();
+        assertThat(projectMove.getKey(), sameInstance(project));
+        assertThat(getNames(projectMove.getValue()), is("modelVersion,dependencies"));
+    }
+
+    @Test
+    public void sortedDocumentShouldHaveNoMovesAndStayUnchanged() throws Exception {
+        String xml = "<project><modelVersion>4.0.0</modelVersion><groupId>g</groupId></project>";
+        Document document = new SAXBuilder().build(new StringReader(xml));
+
+        Map<Element, List<Element>> moves = sortPomImpl.sortDocumentAsElementMoves(document);
+
+        assertThat(moves.size(), is(0));
+        assertThat(getNames(getChildren(document.getRootElement())), is("modelVersion,groupId"));
+    }
+
+    @Test
+    public void elementsWithSameHashCodeShouldBeMoved() throws Exception {
+        Document document = new SAXBuilder().build(new StringReader("<project><dependencies>" +
+                "<dependency><groupId>BB</groupId><artifactId>a</artifactId></dependency>" +
+                "<dependency><groupId>Aa</groupId><artifactId>a</artifactId></dependency>" +
+                "</dependencies></project>"));
+        Element dependencies = document.getRootElement().getChild("dependencies");
+        Element dependencyBB = (Element) dependencies.getChildren().get(0);
+        Element dependencyAa = (Element) dependencies.getChildren().get(1);
+
+        Map<Element, List<Element>> moves = sortPomImpl.sortDocumentAsElementMoves(document);
+
+        assertThat(moves.size(), is(1));
+        assertThat(moves.get(dependencies).get(0), sameInstance(dependencyAa));
+        assertThat(moves.get(dependencies).get(1), sameInstance(dependencyBB));
+    }
+
+    @SuppressWarnings("unchecked")
+    private List<Element> getChildren(Element element) {
+        return new ArrayList<Element>(element.getChildren());
+    }
+
+    private String getNames(List<Element> elements) {
+        StringBuilder names = new StringBuilder();
+        for (Element element : elements) {
+            names.append(names.length() == 0 ? "" : ",").append(element.getName());
+        }
+        return names.toString();
+    }
+}
@@ -0,0 +1,112 @@
+package sortpom.splice;
+
+import org.apache.commons.io.FileUtils;
+import org.junit.Test;
+import sortpom.SortPomImpl;
+import sortpom.exception.FailureException;
+import sortpom.logger.SilentLogger;
+import sortpom.parameter.PluginParametersBuilder;
+
+import java.io.File;
+
+import static org.hamcrest.Matchers.is;
+import static org.junit.Assert.assertThat;
+
+public class SplicingXmlWriterTest {
+
+    @Test
+    public void elementsShouldBeMovedWithTheirCommentsAndFormatting() {
+        String xml = "<?xml version=\"1.0\"?>\n" +
+                "<!-- header -->\n" +
+                "<project   xmlns=\"http://maven.apache.org/POM/4.0.0\">\n" +
+                "\t<version>1.0</version>\n" +
+                "    <!-- the artifact -->\n" +
+                "    <artifactId   >sortpom</artifactId>\n" +
+                "  <modelVersion>4.0.0</modelVersion>\n" +
+                "  <groupId><![CDATA[<sortpom>]]></groupId>\n" +
+                "</project>\n" +
+                "<!-- footer -->\n";
+
+        String sortedXml = createSortPomImpl(true).sortXml(xml);
+
+        assertThat(sortedXml, is("<?xml version=\"1.0\"?>\n" +
+                "<!-- header -->\n" +
+                "<project   xmlns=\"http://maven.apache.org/POM/4.0.0\">\n" +
+                "  <modelVersion>4.0.0</modelVersion>\n" +
+                "  <groupId><![CDATA[<sortpom>]]></groupId>\n" +
+                "    <!-- the artifact -->\n" +
+                "    <artifactId   >sortpom</artifactId>\n" +
+                "\t<version>1.0</version>\n" +
+                "</project>\n" +
+                "<!-- footer -->\n"));
+    }
+
+    @Test
+    public void nestedElementsShouldBeSortedAndEmptyElementsKept() {
+        String xml = "<project>\n" +
+                "  <dependencies>\n" +
+                "    <dependency><artifactId>b</artifactId><groupId>g</groupId></dependency>\n" +
+                "    <dependency a='&gt;'><groupId>g</groupId><artifactId>a</artifactId><optional/></dependency>\n" +
+                "  </dependencies>\n" +
+                "  <modelVersion>4.0.0</modelVersion>\n" +
+                "</project>";
+
+        String sortedXml = createSortPomImpl(true).sortXml(xml);
+
+        assertThat(sortedXml, is("<project>\n" +
+                "  <modelVersion>4.0.0</modelVersion>\n" +
+                "  <dependencies>\n" +
+                "    <dependency a='&gt;'><groupId>g</groupId><artifactId>a</artifactId><optional/></dependency>\n" +
+                "    <dependency><groupId>g</groupId><artifactId>b</artifactId></dependency>\n" +
+                "  </dependencies>\n" +
+                "</project>"));
+    }
+
+    @Test
+    public void keepFormattingShouldGiveSameOrderAsNormalSorting() throws Exception {
+        String xml = FileUtils.readFileToString(new File("src/test/resources/full_unsorted_input.xml"), "UTF-8");
+
+        String formatKeepingSortedXml = createSortPomImpl(true).sortXml(xml);
+
+        SortPomImpl sortPomImpl = createSortPomImpl(false);
+        assertThat(sortPomImpl.sortXml(formatKeepingSortedXml), is(sortPomImpl.sortXml(xml)));
+        assertThat(createSortPomImpl(true).sortXml(formatKeepingSortedXml), is(formatKeepingSortedXml));
+    }
+
+    @Test
+    public void elementsWithSameHashCodeShouldBeSorted() {
+        String xml = "<project>\n" +
+                "  <dependencies>\n" +
+                "    <dependency><groupId>BB</groupId><artifactId>a</artifactId></dependency>\n" +
+                "    <dependency><groupId>Aa</groupId><artifactId>a</artifactId></dependency>\n" +
+                "  </dependencies>\n" +
+                "</project>";
+
+        String sortedXml = createSortPomImpl(true).sortXml(xml);
+
+        assertThat(sortedXml, is("<project>\n" +
+                "  <dependencies>\n" +
+                "    <dependency><groupId>Aa</groupId><artifactId>a</artifactId></dependency>\n" +
+                "    <dependency><groupId>BB</groupId><artifactId>a</artifactId></dependency>\n" +
+                "  </dependencies>\n" +
+                "</project>"));
+    }
+
+    @Test(expected = FailureException.class)
+    public void unbalancedTagsShouldNotBeScanned() {
+        new SourceRangeScanner("<a><b></a>").scan();
+    }
+
+    private SortPomImpl createSortPomImpl(boolean keepFormatting) {
+        SortPomImpl sortPomImpl = new SortPomImpl();
+        sortPomImpl.setup(new SilentLogger(), new PluginParametersBuilder()
+                .setEncoding("UTF-8")
+                .setFormatting("\n", true, false)
+                .setIndent(2, false)
+                .setKeepFormatting(keepFormatting)
+                .setSortOrder("default_0_4_0.xml", null)
+                .setSortEntities("groupId,artifactId", "groupId,artifactId", true)
+                .createPluginParameters());
+        return sortPomImpl;
+    }
+}
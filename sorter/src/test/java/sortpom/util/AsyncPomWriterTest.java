@@ -0,0 +1,103 @@
+package sortpom.util;
+
+import org.junit.After;
+import org.junit.Test;
+import sortpom.exception.FailureException;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+
+import static org.hamcrest.Matchers.is;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.fail;
+
+public class AsyncPomWriterTest {
+    private final AsyncPomWriter asyncPomWriter = new AsyncPomWriter();
+    private final List<String> writes = Collections.synchronizedList(new ArrayList<String>());
+
+    @After
+    public void cleanup() {
+        asyncPomWriter.close();
+    }
+
+    @Test
+    public void allWritesShouldBeDoneWhenFlushReturns() {
+        asyncPomWriter.write(new File("pom1.xml"), new RecordingWrite("pom1"));
+        asyncPomWriter.write(new File("pom2.xml"), new RecordingWrite("pom2"));
+
+        asyncPomWriter.flush();
+
+        assertThat(writes.toString(), is("[pom1, pom2]"));
+    }
+
+    @Test
+    public void pendingWriteOfSamePomFileShouldBeReplaced() throws Exception {
+        CountDownLatch blockWriter = new CountDownLatch(1);
+        asyncPomWriter.write(new File("blocker.xml"), new BlockingWrite(blockWriter));
+        asyncPomWriter.write(new File("pom.xml"), new RecordingWrite("first"));
+        asyncPomWriter.write(new File("pom.xml"), new RecordingWrite("second"));
+        blockWriter.countDown();
+
+        asyncPomWriter.flush();
+
+        assertThat(writes.toString(), is("[second]"));
+    }
+
+    @Test
+    public void failuresShouldBeReportedByFlush() {
+        asyncPomWriter.write(new File("pom1.xml"), new FailingWrite());
+        asyncPomWriter.write(new File("pom2.xml"), new RecordingWrite("pom2"));
+
+        try {
+            asyncPomWriter.flush();
+            fail();
+        } catch (FailureException e) {
+            assertThat(e.getMessage(), is("Could not save 1 pom file(s): [" + new File("pom1.xml").getAbsolutePath() + "]"));
+            assertThat(e.getCause().getMessage(), is("Gurka"));
+        }
+        assertThat(writes.toString(), is("[pom2]"));
+
+        // Failures are only reported once
+        asyncPomWriter.flush();
+    }
+
+    private class RecordingWrite implements Runnable {
+        private final String name;
+
+        RecordingWrite(String name) {
+            this.name = name;
+        }
+
+        //@Override
+        public void run() {
+            writes.add(name);
+        }
+    }
+
+    private static class BlockingWrite implements Runnable {
+        private final CountDownLatch latch;
+
+        BlockingWrite(CountDownLatch latch) {
+            this.latch = latch;
+        }
+
+        //@Override
+        public void run() {
+            try {
+                latch.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    private static class FailingWrite implements Runnable {
+        //@Override
+        public void run() {
+            throw new FailureException("Gurka");
+        }
+    }
+}
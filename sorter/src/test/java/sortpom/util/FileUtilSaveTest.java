@@ -0,0 +1,89 @@
+package sortpom.util;
+
+import org.apache.commons.io.FileUtils;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import sortpom.parameter.PluginParametersBuilder;
+
+import java.io.File;
+
+import static org.hamcrest.Matchers.is;
+import static org.junit.Assert.assertThat;
+
+public class FileUtilSaveTest {
+    private static final String UTF_8 = "UTF-8";
+    private static final long OLD_TIMESTAMP = 1000000000000L;
+    private final File directory = new File("target/fileutilsavetest");
+    private final File pomFile = new File(directory, "pom.xml");
+
+    @Before
+    public void setup() throws Exception {
+        FileUtils.writeStringToFile(pomFile, "<project/>", UTF_8);
+        assertThat(pomFile.setLastModified(OLD_TIMESTAMP), is(true));
+    }
+
+    @After
+    public void cleanup() throws Exception {
+        FileUtils.deleteDirectory(directory);
+    }
+
+    @Test
+    public void atomicWriteShouldNotTouchFileWithSameContent() throws Exception {
+        FileUtil fileUtil = createFileUtil(true, false);
+
+        assertThat(fileUtil.savePomFile("<project/>"), is(false));
+
+        assertThat(pomFile.lastModified(), is(OLD_TIMESTAMP));
+        assertThat(directory.list().length, is(1));
+    }
+
+    @Test
+    public void atomicWriteShouldReplaceFileWithChangedContent() throws Exception {
+        FileUtil fileUtil = createFileUtil(true, true);
+
+        assertThat(fileUtil.savePomFile("<project></project>"), is(true));
+
+        assertThat(FileUtils.readFileToString(pomFile, UTF_8), is("<project></project>"));
+        assertThat(pomFile.lastModified() == OLD_TIMESTAMP, is(false));
+        assertThat(directory.list().length, is(1));
+    }
+
+    @Test
+    public void atomicWriteShouldReplaceFileWithSameLengthButOtherContent() throws Exception {
+        FileUtil fileUtil = createFileUtil(true, false);
+
+        assertThat(fileUtil.savePomFile("<gurka/>  "), is(true));
+
+        assertThat(FileUtils.readFileToString(pomFile, UTF_8), is("<gurka/>  "));
+    }
+
+    @Test
+    public void normalWriteShouldAlwaysWriteFile() throws Exception {
+        FileUtil fileUtil = createFileUtil(false, true);
+
+        assertThat(fileUtil.savePomFile("<project/>"), is(true));
+
+        assertThat(pomFile.lastModified() == OLD_TIMESTAMP, is(false));
+    }
+
+    @Test
+    public void pomFileSizeShouldBeSizeBeforeSave() throws Exception {
+        FileUtil fileUtil = createFileUtil(true, true);
+
+        fileUtil.getPomFileContent();
+        fileUtil.savePomFile("<project></project>");
+
+        assertThat(fileUtil.getPomFileSize(), is(10L));
+    }
+
+    private FileUtil createFileUtil(boolean atomicWrite, boolean syncWrite) {
+        FileUtil fileUtil = new FileUtil();
+        fileUtil.setup(new PluginParametersBuilder()
+                .setPomFile(pomFile)
+                .setEncoding(UTF_8)
+                .setWriteMode(atomicWrite, syncWrite)
+                .createPluginParameters());
+        return fileUtil;
+    }
+}
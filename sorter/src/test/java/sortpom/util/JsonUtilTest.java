@@ -0,0 +1,20 @@
+package sortpom.util;
+
+import org.junit.Test;
+
+import static org.hamcrest.Matchers.is;
+import static org.junit.Assert.assertThat;
+
+public class JsonUtilTest {
+
+    @Test
+    public void plainTextShouldOnlyBeQuoted() {
+        assertThat(JsonUtil.toJsonString("/project/dependencies"), is("\"/project/dependencies\""));
+    }
+
+    @Test
+    public void specialCharactersShouldBeEscaped() {
+        assertThat(JsonUtil.toJsonString("C:\\pom \"a\"\n\r\t\u0001"),
+                is("\"C:\\\\pom \\\"a\\\"\\n\\r\\t\\u0001\""));
+    }
+}
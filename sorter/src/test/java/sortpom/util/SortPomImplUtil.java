@@ -28,6 +28,7 @@ public class SortPomImplUtil {
     private boolean indentBLankLines = false;
     private String verifyFail = "SORT";
     private String encoding = TestHandler.UTF_8;
+    private int parallelSortThreshold = 0;
     private File testpom;
 
     private SortPomImplUtil() {
@@ -175,6 +176,11 @@ public class SortPomImplUtil {
         return this;
     }
 
+    public SortPomImplUtil parallelSortThreshold(int parallelSortThreshold) {
+        this.parallelSortThreshold = parallelSortThreshold;
+        return this;
+    }
+
     public SortPomImplUtil testPomFileNameUniqueNumber(int uniqueNumber) {
         this.testPomFileName = "src/test/resources/testpom" +
                 uniqueNumber + ".xml";
@@ -196,6 +202,7 @@ public class SortPomImplUtil {
                 .setSortEntities(sortDependencies, sortPlugins, sortProperties)
                 .setSortOrder(defaultOrderFileName, predefinedSortOrder)
                 .setVerifyFail(verifyFail)
+                .setParallelSortThreshold(parallelSortThreshold)
                 .createPluginParameters();
     }
 
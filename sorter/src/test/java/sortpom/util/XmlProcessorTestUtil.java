@@ -58,6 +58,12 @@ public class XmlProcessorTestUtil {
         assertEquals(infoMessage, xmlOrdered.getMessage());
     }
 
+    public void testMisplacedElements(final String inputFileName, String misplacedElements) throws Exception {
+        final XmlProcessor xmlProcessor = setup(inputFileName);
+        xmlProcessor.sortXml();
+        assertEquals(misplacedElements, xmlProcessor.getMisplacedElements().toString());
+    }
+
     private XmlProcessor setup(String inputFileName) throws IOException, IllegalAccessException, JDOMException {
         PluginParameters pluginParameters = new PluginParametersBuilder()
                 .setPomFile(null)
@@ -0,0 +1,99 @@
+package sortpom.verify;
+
+import org.junit.Before;
+import org.junit.Test;
+import sortpom.SortPomImpl;
+import sortpom.logger.SilentLogger;
+import sortpom.parameter.PluginParametersBuilder;
+
+import java.util.List;
+
+import static org.hamcrest.Matchers.is;
+import static org.junit.Assert.assertThat;
+
+public class FindMisplacedElementsTest {
+    private SortPomImpl sortPomImpl;
+
+    @Before
+    public void setUp() throws Exception {
+        sortPomImpl = new SortPomImpl();
+        sortPomImpl.setup(new SilentLogger(), new PluginParametersBuilder()
+                .setEncoding("UTF-8")
+                .setFormatting("\n", true, false)
+                .setIndent(2, false)
+                .setSortOrder("default_0_4_0.xml", null)
+                .setSortEntities("groupId,artifactId", "", false)
+                .setKeepFormatting(true)
+                .createPluginParameters());
+    }
+
+    @Test
+    public void misplacedElementsInXmlShouldBeFound() throws Exception {
+        List<MisplacedElement> misplacedElements = sortPomImpl.findMisplacedElements("<project>\n" +
+                "  <artifactId>a</artifactId>\n" +
+                "  <modelVersion>4.0.0</modelVersion>\n" +
+                "  <groupId>g</groupId>\n" +
+                "</project>\n");
+
+        assertThat(misplacedElements.size(), is(1));
+        assertThat(misplacedElements.get(0).getPath(), is("/project/artifactId"));
+        assertThat(misplacedElements.get(0).getExpectedPosition(), is(3));
+    }
+
+    @Test
+    public void sortedXmlShouldHaveNoMisplacedElements() throws Exception {
+        List<MisplacedElement> misplacedElements = sortPomImpl.findMisplacedElements("<project>\n" +
+                "  <modelVersion>4.0.0</modelVersion>\n" +
+                "  <groupId>g</groupId>\n" +
+                "  <artifactId>a</artifactId>\n" +
+                "</project>\n");
+
+        assertThat(misplacedElements.size(), is(0));
+    }
+
+    @Test
+    public void elementsWithSameHashCodeShouldBeFound() throws Exception {
+        // "BB" and "Aa" have the same String.hashCode()
+        List<MisplacedElement> misplacedElements = sortPomImpl.findMisplacedElements("<project>\n" +
+                "  <dependencies>\n" +
+                "    <dependency><groupId>BB</groupId></dependency>\n" +
+                "    <dependency><groupId>Aa</groupId></dependency>\n" +
+                "  </dependencies>\n" +
+                "</project>\n");
+
+        assertThat(misplacedElements.size(), is(1));
+        assertThat(misplacedElements.get(0).getPath(), is("/project/dependencies/dependency[2]"));
+    }
+
+    @Test
+    public void elementGroupInsideEmptyAncestorsShouldUseSortOrderOfWholePom() throws Exception {
+        String group = "<dependencies>\n" +
+                "    <dependency>\n" +
+                "      <groupId>b</groupId>\n" +
+                "      <artifactId>b</artifactId>\n" +
+                "    </dependency>\n" +
+                "    <dependency>\n" +
+                "      <artifactId>a</artifactId>\n" +
+                "      <groupId>a</groupId>\n" +
+                "    </dependency>\n" +
+                "  </dependencies>";
+
+        List<MisplacedElement> misplacedElements = sortPomImpl.findMisplacedElements("<project>" + group + "</project>");
+
+        assertThat(misplacedElements.size(), is(2));
+        assertThat(misplacedElements.get(0).getPath(), is("/project/dependencies/dependency[2]"));
+        assertThat(misplacedElements.get(1).getPath(), is("/project/dependencies/dependency[2]/groupId"));
+
+        String sortedXml = sortPomImpl.sortXml("<project>" + group + "</project>");
+        assertThat(sortedXml, is("<project><dependencies>\n" +
+                "    <dependency>\n" +
+                "      <groupId>a</groupId>\n" +
+                "      <artifactId>a</artifactId>\n" +
+                "    </dependency>\n" +
+                "    <dependency>\n" +
+                "      <groupId>b</groupId>\n" +
+                "      <artifactId>b</artifactId>\n" +
+                "    </dependency>\n" +
+                "  </dependencies></project>"));
+    }
+}
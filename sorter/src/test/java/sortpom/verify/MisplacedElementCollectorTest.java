@@ -0,0 +1,116 @@
+package sortpom.verify;
+
+import org.jdom.Element;
+import org.jdom.input.SAXBuilder;
+import org.junit.Test;
+
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import static org.hamcrest.Matchers.is;
+import static org.junit.Assert.assertThat;
+
+public class MisplacedElementCollectorTest {
+
+    @Test
+    public void sortedXmlShouldHaveNoMisplacedElements() throws Exception {
+        List<MisplacedElement> misplacedElements = collect(
+                "<project><a/><b/><c/></project>",
+                "<project><a/><b/><c/></project>");
+
+        assertThat(misplacedElements.size(), is(0));
+    }
+
+    @Test
+    public void onlyElementsOutsideLongestSortedSequenceShouldBeMisplaced() throws Exception {
+        List<MisplacedElement> misplacedElements = collect(
+                "<project>\n<e/>\n<a/>\n<b/>\n<c/>\n<d/>\n</project>",
+                "<project><a/><b/><c/><d/><e/></project>");
+
+        assertThat(misplacedElements.toString(),
+                is("[The xml element /project/e should be placed at position 5, but is at position 1]"));
+        assertThat(misplacedElements.get(0).getLineNumber(), is(2));
+    }
+
+    @Test
+    public void allMisplacedElementsOnAllLevelsShouldBeFound() throws Exception {
+        List<MisplacedElement> misplacedElements = collect(
+                "<project><dependencies>" +
+                        "<dependency><artifactId>x</artifactId><groupId>b</groupId></dependency>" +
+                        "<dependency><groupId>a</groupId></dependency>" +
+                        "</dependencies><b/><a/></project>",
+                "<project><a/><dependencies>" +
+                        "<dependency><groupId>a</groupId></dependency>" +
+                        "<dependency><groupId>b</groupId><artifactId>x</artifactId></dependency>" +
+                        "</dependencies><b/></project>");
+
+        assertThat(misplacedElements.size(), is(3));
+        assertThat(misplacedElements.get(0).getPath(), is("/project/dependencies/dependency[1]/groupId"));
+        assertThat(misplacedElements.get(0).getExpectedPosition(), is(1));
+        assertThat(misplacedElements.get(0).getActualPosition(), is(2));
+        assertThat(misplacedElements.get(1).getPath(), is("/project/dependencies/dependency[2]"));
+        assertThat(misplacedElements.get(1).getExpectedPosition(), is(1));
+        assertThat(misplacedElements.get(1).getActualPosition(), is(2));
+        assertThat(misplacedElements.get(2).getPath(), is("/project/a"));
+        assertThat(misplacedElements.get(2).getExpectedPosition(), is(1));
+        assertThat(misplacedElements.get(2).getActualPosition(), is(3));
+    }
+
+    @Test
+    public void sameElementsShouldBeMatchedInOrder() throws Exception {
+        List<MisplacedElement> misplacedElements = collect(
+                "<project><b/><a/><b/></project>",
+                "<project><a/><b/><b/></project>");
+
+        assertThat(misplacedElements.toString(),
+                is("[The xml element /project/a should be placed at position 1, but is at position 2]"));
+    }
+
+    private List<MisplacedElement> collect(String originalXml, String sortedXml) throws Exception {
+        LineNumberSAXBuilder lineNumberSAXBuilder = new LineNumberSAXBuilder();
+        Element originalRoot = lineNumberSAXBuilder.build(new StringReader(originalXml)).getRootElement();
+        Element sortedRoot = (Element) originalRoot.clone();
+        ElementOrigins elementOrigins = new ElementOrigins();
+        elementOrigins.addClone(originalRoot, sortedRoot);
+        arrangeLike(sortedRoot, new SAXBuilder().build(new StringReader(sortedXml)).getRootElement());
+        return new MisplacedElementCollector(lineNumberSAXBuilder.getLineNumbers(), elementOrigins)
+                .collect(originalRoot, sortedRoot);
+    }
+
+    /** Moves the cloned elements to the order of the sorted xml, like the sorting does */
+    private void arrangeLike(Element element, Element sortedElement) {
+        List<Element> children = getChildren(element);
+        element.removeContent();
+        for (Element sortedChild : getChildren(sortedElement)) {
+            Element child = removeFirstSame(children, sortedChild);
+            element.addContent(child);
+            arrangeLike(child, sortedChild);
+        }
+    }
+
+    private Element removeFirstSame(List<Element> elements, Element otherElement) {
+        for (Element element : elements) {
+            if (getContent(element).equals(getContent(otherElement))) {
+                elements.remove(element);
+                return element;
+            }
+        }
+        throw new IllegalArgumentException(otherElement.getName());
+    }
+
+    private String getContent(Element element) {
+        List<String> childContents = new ArrayList<String>();
+        for (Element child : getChildren(element)) {
+            childContents.add(getContent(child));
+        }
+        Collections.sort(childContents);
+        return element.getName() + "(" + element.getTextTrim() + ")" + childContents;
+    }
+
+    @SuppressWarnings("unchecked")
+    private List<Element> getChildren(Element element) {
+        return new ArrayList<Element>(element.getChildren());
+    }
+}
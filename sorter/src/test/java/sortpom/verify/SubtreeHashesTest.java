@@ -0,0 +1,81 @@
+package sortpom.verify;
+
+import org.jdom.Element;
+import org.jdom.input.SAXBuilder;
+import org.junit.Test;
+
+import java.io.StringReader;
+
+import static org.hamcrest.Matchers.is;
+import static org.junit.Assert.assertThat;
+
+public class SubtreeHashesTest {
+    private final SubtreeHashes subtreeHashes = new SubtreeHashes();
+
+    @Test
+    public void sameContentShouldGiveSameHashes() throws Exception {
+        Element element = parse("<a x='1'><b>text</b><c/></a>");
+        Element otherElement = parse("<a x='1'>\n  <b> text </b>\n  <c/>\n</a>");
+
+        assertThat(subtreeHashes.isDifferentlyOrdered(element, otherElement), is(false));
+        assertThat(subtreeHashes.getUnorderedHash(element), is(subtreeHashes.getUnorderedHash(otherElement)));
+    }
+
+    @Test
+    public void otherChildOrderShouldOnlyChangeOrderedHash() throws Exception {
+        Element element = parse("<a><b>text</b><c/></a>");
+        Element otherElement = parse("<a><c/><b>text</b></a>");
+
+        assertThat(subtreeHashes.isDifferentlyOrdered(element, otherElement), is(true));
+        assertThat(subtreeHashes.getUnorderedHash(element), is(subtreeHashes.getUnorderedHash(otherElement)));
+    }
+
+    @Test
+    public void otherAttributeOrderShouldGiveSameHashes() throws Exception {
+        Element element = parse("<a x='1' y='2'/>");
+        Element otherElement = parse("<a y='2' x='1'/>");
+
+        assertThat(subtreeHashes.isDifferentlyOrdered(element, otherElement), is(false));
+        assertThat(subtreeHashes.getUnorderedHash(element), is(subtreeHashes.getUnorderedHash(otherElement)));
+    }
+
+    @Test
+    public void otherAttributeValueShouldOnlyChangeUnorderedHash() throws Exception {
+        Element element = parse("<a x='1'/>");
+        Element otherElement = parse("<a x='2'/>");
+
+        assertThat(subtreeHashes.isDifferentlyOrdered(element, otherElement), is(false));
+        assertThat(subtreeHashes.getUnorderedHash(element) == subtreeHashes.getUnorderedHash(otherElement), is(false));
+    }
+
+    @Test
+    public void otherTextDeepDownShouldChangeBothHashes() throws Exception {
+        Element element = parse("<a><b><c>1</c></b></a>");
+        Element otherElement = parse("<a><b><c>2</c></b></a>");
+
+        assertThat(subtreeHashes.isDifferentlyOrdered(element, otherElement), is(true));
+        assertThat(subtreeHashes.getUnorderedHash(element) == subtreeHashes.getUnorderedHash(otherElement), is(false));
+    }
+
+    @Test
+    public void stringsWithSameHashCodeShouldGiveDifferentHashes() throws Exception {
+        Element element = parse("<a><BB>x</BB><c>Aa</c></a>");
+        Element otherElement = parse("<a><Aa>x</Aa><c>BB</c></a>");
+
+        assertThat(subtreeHashes.isDifferentlyOrdered(element, otherElement), is(true));
+        assertThat(subtreeHashes.getUnorderedHash(element) == subtreeHashes.getUnorderedHash(otherElement), is(false));
+    }
+
+    @Test
+    public void swappedSiblingsWithSameHashCodeShouldChangeOrderedHash() throws Exception {
+        Element element = parse("<project><BB>same</BB><Aa>same</Aa></project>");
+        Element otherElement = parse("<project><Aa>same</Aa><BB>same</BB></project>");
+
+        assertThat(subtreeHashes.isDifferentlyOrdered(element, otherElement), is(true));
+        assertThat(subtreeHashes.getUnorderedHash(element), is(subtreeHashes.getUnorderedHash(otherElement)));
+    }
+
+    private Element parse(String xml) throws Exception {
+        return new SAXBuilder().build(new StringReader(xml)).getRootElement();
+    }
+}
@@ -0,0 +1,80 @@
+package sortpom.verify;
+
+import org.apache.commons.io.FileUtils;
+import org.junit.After;
+import org.junit.Test;
+import sortpom.SortPomImpl;
+import sortpom.logger.SilentLogger;
+import sortpom.parameter.PluginParametersBuilder;
+
+import java.io.File;
+
+import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.is;
+import static org.junit.Assert.assertThat;
+
+public class VerifyReportTest {
+    private static final String UTF_8 = "UTF-8";
+    private final File directory = new File("target/verifyreporttest");
+    private final File pomFile = new File(directory, "pom.xml");
+
+    @After
+    public void cleanup() throws Exception {
+        FileUtils.deleteDirectory(directory);
+    }
+
+    @Test
+    public void jsonReportShouldContainAllMisplacedElements() throws Exception {
+        File reportFile = new File(directory, "report/verify.json");
+
+        verifyPom("Real1_input.xml", reportFile, "json");
+
+        String report = FileUtils.readFileToString(reportFile, UTF_8);
+        assertThat(report, containsString("\"file\": \"" + pomFile.getAbsolutePath().replace("\\", "\\\\") + "\""));
+        assertThat(report, containsString("{\"path\": \"/project/name\", \"line\": 12, \"expectedPosition\": 9, " +
+                "\"actualPosition\": 4, \"message\": \"The xml element /project/name should be placed at position 9, " +
+                "but is at position 4\"}"));
+    }
+
+    @Test
+    public void checkstyleReportShouldContainAllMisplacedElements() throws Exception {
+        File reportFile = new File(directory, "verify.xml");
+
+        verifyPom("Real1_input.xml", reportFile, "checkstyle");
+
+        String report = FileUtils.readFileToString(reportFile, UTF_8);
+        assertThat(report, containsString("<checkstyle version=\"4.3\">"));
+        assertThat(report, containsString("<error line=\"12\" severity=\"error\" " +
+                "message=\"The xml element /project/name should be placed at position 9, but is at position 4\" " +
+                "source=\"sortpom.verify\" />"));
+    }
+
+    @Test
+    public void sortedPomShouldGiveEmptyReport() throws Exception {
+        File reportFile = new File(directory, "verify.json");
+
+        verifyPom("Real1_expected.xml", reportFile, "json");
+
+        String report = FileUtils.readFileToString(reportFile, UTF_8);
+        assertThat(report, containsString("\"misplacedElements\": []"));
+    }
+
+    private void verifyPom(String resourceName, File reportFile, String reportFormat) throws Exception {
+        FileUtils.copyFile(new File("src/test/resources/" + resourceName), pomFile);
+        SortPomImpl sortPomImpl = new SortPomImpl();
+        sortPomImpl.setup(new SilentLogger(), new PluginParametersBuilder()
+                .setPomFile(pomFile)
+                .setEncoding(UTF_8)
+                .setFormatting("\r\n", true, false)
+                .setIndent(2, false)
+                .setSortOrder("default_0_4_0.xml", null)
+                .setSortEntities("", "", false)
+                .setVerifyFail("warn")
+                .setVerifyReport(reportFile, reportFormat)
+                .createPluginParameters());
+
+        sortPomImpl.verifyPom();
+
+        assertThat(reportFile.exists(), is(true));
+    }
+}
@@ -31,4 +31,18 @@ public class XmlProcessorTest {
                 "src/test/resources/MultilineComment_input.xml",
                 "The xml element <groupId> should be placed before <artifactId>");
     }
+
+    @Test
+    public final void elementsWithSameHashCodeShouldAffectVerify() throws Exception {
+        XmlProcessorTestUtil.create().sortAlfabeticalOnly().testVerifyXmlIsNotOrdered(
+                "src/test/resources/SameHashCode_input.xml",
+                "The xml element <Aa> should be placed before <BB>");
+    }
+
+    @Test
+    public final void misplacedElementsShouldBeFoundAfterSortWithoutElementOrigins() throws Exception {
+        XmlProcessorTestUtil.create().sortAlfabeticalOnly().testMisplacedElements(
+                "src/test/resources/SameHashCode_input.xml",
+                "[The xml element /project/Aa should be placed at position 1, but is at position 2]");
+    }
 }
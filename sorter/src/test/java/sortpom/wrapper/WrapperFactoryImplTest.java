@@ -0,0 +1,35 @@
+package sortpom.wrapper;
+
+import org.jdom.Element;
+import org.junit.Test;
+import sortpom.parameter.PluginParameters;
+import sortpom.parameter.PluginParametersBuilder;
+import sortpom.util.FileUtil;
+
+import static org.mockito.Mockito.spy;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+public class WrapperFactoryImplTest {
+
+    @Test
+    public void sortOrderFileShouldOnlyBeReadOncePerSetup() throws Exception {
+        PluginParameters pluginParameters = new PluginParametersBuilder()
+                .setEncoding("UTF-8")
+                .setSortOrder("default_0_4_0.xml", null)
+                .setSortEntities("", "", false)
+                .createPluginParameters();
+        FileUtil fileUtil = spy(new FileUtil());
+        fileUtil.setup(pluginParameters);
+        WrapperFactoryImpl wrapperFactory = new WrapperFactoryImpl(fileUtil);
+        wrapperFactory.setup(pluginParameters);
+
+        wrapperFactory.createFromRootElement(new Element("project"));
+        wrapperFactory.createFromRootElement(new Element("project"));
+        verify(fileUtil, times(1)).getDefaultSortOrderXmlBytes();
+
+        wrapperFactory.setup(pluginParameters);
+        wrapperFactory.createFromRootElement(new Element("project"));
+        verify(fileUtil, times(2)).getDefaultSortOrderXmlBytes();
+    }
+}
@@ -0,0 +1,132 @@
+package sortpom.util;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Runs a candidate sort engine and a reference sort engine side by side, and checks that they give the same
+ * result, or throw the same type of exception, for every pom and sort configuration. A pom that diverges is
+ * shrunk to the smallest pom that still diverges.
+ */
+public class DifferentialHarness {
+    private final SortEngine referenceEngine;
+    private final SortEngine candidateEngine;
+    private final SortConfigurationSpace configurationSpace;
+    private final Map<String, String> poms = new LinkedHashMap<String, String>();
+    private int combinationsPerPom = Integer.MAX_VALUE;
+    private int maxDivergences = 5;
+    private int maxShrinkAttempts = 5000;
+
+    public DifferentialHarness(SortEngine referenceEngine, SortEngine candidateEngine,
+                               SortConfigurationSpace configurationSpace) {
+        this.referenceEngine = referenceEngine;
+        this.candidateEngine = candidateEngine;
+        this.configurationSpace = configurationSpace;
+    }
+
+    public DifferentialHarness addPom(String name, String xml) {
+        poms.put(name, xml);
+        return this;
+    }
+
+    /** Adds generated poms of different shapes, the same seed always gives the same poms */
+    public DifferentialHarness addGeneratedPoms(int nrOfPoms, long seed) {
+        for (int i = 0; i < nrOfPoms; i++) {
+            long pomSeed = seed + i;
+            String xml = new PomGenerator(pomSeed)
+                    .setNrOfDependencies(1 + i % 20)
+                    .setNrOfPlugins(i % 6)
+                    .setNrOfProfiles(i % 3)
+                    .setNrOfProperties(i % 15)
+                    .setConfigurationDepth(i % 4)
+                    .setBlankLineDensity((i % 5) / 10.0)
+                    .setDisorder((i % 3) / 2.0)
+                    .generate();
+            poms.put("generated-" + pomSeed, xml);
+        }
+        return this;
+    }
+
+    /**
+     * Limits how many configurations each pom is sorted with, to keep large runs fast. The configurations are
+     * spread over the poms, so that every configuration is used as long as there are enough poms.
+     */
+    public DifferentialHarness setCombinationsPerPom(int combinationsPerPom) {
+        this.combinationsPerPom = combinationsPerPom;
+        return this;
+    }
+
+    /** The run stops when this many divergences are found, since each one is shrunk */
+    public DifferentialHarness setMaxDivergences(int maxDivergences) {
+        this.maxDivergences = maxDivergences;
+        return this;
+    }
+
+    public DifferentialHarness setMaxShrinkAttempts(int maxShrinkAttempts) {
+        this.maxShrinkAttempts = maxShrinkAttempts;
+        return this;
+    }
+
+    /** Returns the number of pom and configuration pairs that a run compares */
+    public int getNrOfComparisons() {
+        return poms.size() * Math.min(combinationsPerPom, configurationSpace.size());
+    }
+
+    /** Compares the engines, each pom reports at most one divergence */
+    public List<Divergence> run() {
+        List<Divergence> divergences = new ArrayList<Divergence>();
+        int nrOfCombinations = configurationSpace.size();
+        int combinations = Math.min(combinationsPerPom, nrOfCombinations);
+        int pomIndex = 0;
+        for (Map.Entry<String, String> pom : poms.entrySet()) {
+            for (int i = 0; i < combinations; i++) {
+                int combinationIndex = (int) (((long) pomIndex * combinations + i) % nrOfCombinations);
+                SortConfiguration configuration = configurationSpace.getCombination(combinationIndex);
+                if (diverges(pom.getValue(), configuration)) {
+                    divergences.add(createDivergence(pom.getKey(), pom.getValue(), configuration));
+                    break;
+                }
+            }
+            if (divergences.size() >= maxDivergences) {
+                break;
+            }
+            pomIndex++;
+        }
+        return divergences;
+    }
+
+    /** Runs the comparison and throws an AssertionError that describes the first divergence */
+    public void assertNoDivergence() {
+        List<Divergence> divergences = run();
+        if (!divergences.isEmpty()) {
+            throw new AssertionError(divergences.size() + " divergence(s) found. " + divergences.get(0));
+        }
+    }
+
+    private Divergence createDivergence(String name, String xml, final SortConfiguration configuration) {
+        String minimalXml = new XmlShrinker(maxShrinkAttempts).shrink(xml, new XmlShrinker.Condition() {
+            //@Override
+            public boolean holds(String shrunkXml) {
+                return diverges(shrunkXml, configuration);
+            }
+        });
+        return new Divergence(name, configuration, xml, minimalXml,
+                sortQuietly(referenceEngine, minimalXml, configuration),
+                sortQuietly(candidateEngine, minimalXml, configuration));
+    }
+
+    private boolean diverges(String xml, SortConfiguration configuration) {
+        return !sortQuietly(referenceEngine, xml, configuration).equals(sortQuietly(candidateEngine, xml, configuration));
+    }
+
+    /** Returns the sorted pom, or a description of the exception type if the engine failed */
+    private static String sortQuietly(SortEngine engine, String xml, SortConfiguration configuration) {
+        try {
+            return String.valueOf(engine.sort(xml, configuration));
+        } catch (Exception e) {
+            return "<failed with " + e.getClass().getName() + ">";
+        }
+    }
+}
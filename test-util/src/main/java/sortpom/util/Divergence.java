@@ -0,0 +1,60 @@
+package sortpom.util;
+
+/**
+ * A pom and a sort configuration for which a sort engine gives another result than the reference engine.
+ * The pom has been shrunk to the smallest pom that still diverges.
+ */
+public final class Divergence {
+    private final String pomName;
+    private final SortConfiguration configuration;
+    private final String originalXml;
+    private final String minimalXml;
+    private final String referenceResult;
+    private final String candidateResult;
+
+    Divergence(String pomName, SortConfiguration configuration, String originalXml, String minimalXml,
+               String referenceResult, String candidateResult) {
+        this.pomName = pomName;
+        this.configuration = configuration;
+        this.originalXml = originalXml;
+        this.minimalXml = minimalXml;
+        this.referenceResult = referenceResult;
+        this.candidateResult = candidateResult;
+    }
+
+    public String getPomName() {
+        return pomName;
+    }
+
+    public SortConfiguration getConfiguration() {
+        return configuration;
+    }
+
+    public String getOriginalXml() {
+        return originalXml;
+    }
+
+    /** The smallest pom that was found to diverge */
+    public String getMinimalXml() {
+        return minimalXml;
+    }
+
+    /** The result of the reference engine for the minimal pom */
+    public String getReferenceResult() {
+        return referenceResult;
+    }
+
+    /** The result of the candidate engine for the minimal pom */
+    public String getCandidateResult() {
+        return candidateResult;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("The engines diverge for %s with configuration [%s]%n" +
+                "Minimal pom (%s of %s characters):%n%s%n" +
+                "Reference result:%n%s%n" +
+                "Candidate result:%n%s", pomName, configuration, minimalXml.length(), originalXml.length(),
+                minimalXml, referenceResult, candidateResult);
+    }
+}
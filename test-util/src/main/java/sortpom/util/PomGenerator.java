@@ -0,0 +1,301 @@
+package sortpom.util;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.io.Writer;
+import java.util.Random;
+
+/**
+ * Generates poms of any size for scale testing. The same seed and settings always give the same pom.
+ * <p/>
+ * With disorder 0 all elements are placed in the default sort order, and each dependency, plugin and property
+ * is placed in order of its name. With disorder 1 all elements are shuffled. The content of each element is
+ * decided by its index alone, so that the same elements are generated regardless of the disorder.
+ */
+public class PomGenerator {
+    private static final String INDENT = "  ";
+
+    private final long seed;
+    private int nrOfDependencies = 10;
+    private int nrOfPlugins = 5;
+    private int nrOfProfiles = 1;
+    private int nrOfProperties = 10;
+    private int configurationDepth = 2;
+    private double blankLineDensity;
+    private double disorder;
+
+    private Random random;
+    private Writer writer;
+
+    public PomGenerator(long seed) {
+        this.seed = seed;
+    }
+
+    /**
+     * Creates a generator for a pom of about the given size. The number of each repeated element grows with
+     * the size.
+     */
+    public static PomGenerator withApproximateSize(long seed, long nrOfBytes) {
+        int scale = (int) Math.max(1, nrOfBytes / 1500);
+        return new PomGenerator(seed)
+                .setNrOfDependencies(2 * scale)
+                .setNrOfPlugins(scale)
+                .setNrOfProperties(4 * scale)
+                .setNrOfProfiles(Math.max(1, scale / 10));
+    }
+
+    public PomGenerator setNrOfDependencies(int nrOfDependencies) {
+        this.nrOfDependencies = nrOfDependencies;
+        return this;
+    }
+
+    public PomGenerator setNrOfPlugins(int nrOfPlugins) {
+        this.nrOfPlugins = nrOfPlugins;
+        return this;
+    }
+
+    public PomGenerator setNrOfProfiles(int nrOfProfiles) {
+        this.nrOfProfiles = nrOfProfiles;
+        return this;
+    }
+
+    public PomGenerator setNrOfProperties(int nrOfProperties) {
+        this.nrOfProperties = nrOfProperties;
+        return this;
+    }
+
+    /** How many levels of nested elements the configuration of each plugin has, 0 means no configuration */
+    public PomGenerator setConfigurationDepth(int configurationDepth) {
+        this.configurationDepth = configurationDepth;
+        return this;
+    }
+
+    /** The probability that an element is preceded by a blank line, between 0 and 1 */
+    public PomGenerator setBlankLineDensity(double blankLineDensity) {
+        this.blankLineDensity = blankLineDensity;
+        return this;
+    }
+
+    /** The probability that an element is swapped with a random sibling, between 0 and 1 */
+    public PomGenerator setDisorder(double disorder) {
+        this.disorder = disorder;
+        return this;
+    }
+
+    /** Generates the pom as a string */
+    public String generate() {
+        StringWriter stringWriter = new StringWriter();
+        try {
+            generate(stringWriter);
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+        return stringWriter.toString();
+    }
+
+    /** Writes the pom to the writer, so that poms bigger than the available memory can be generated */
+    public void generate(Writer writer) throws IOException {
+        this.random = new Random(seed);
+        this.writer = writer;
+        writer.write("<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n");
+        writer.write("<project xmlns=\"http://maven.apache.org/POM/4.0.0\">\n");
+        int[] order = createOrder(10);
+        for (int element : order) {
+            writeProjectElement(element);
+        }
+        writer.write("</project>\n");
+        writer.flush();
+    }
+
+    private void writeProjectElement(int element) throws IOException {
+        switch (element) {
+            case 0:
+                writeTextElement(1, "modelVersion", "4.0.0");
+                break;
+            case 1:
+                writeTextElement(1, "groupId", "org.example.generated");
+                break;
+            case 2:
+                writeTextElement(1, "artifactId", "generated-" + seed);
+                break;
+            case 3:
+                writeTextElement(1, "version", "1.0-SNAPSHOT");
+                break;
+            case 4:
+                writeTextElement(1, "packaging", "jar");
+                break;
+            case 5:
+                writeTextElement(1, "name", "Generated pom " + seed);
+                break;
+            case 6:
+                writeProperties(1, "property", nrOfProperties);
+                break;
+            case 7:
+                writeDependencies(1, "dependency", nrOfDependencies);
+                break;
+            case 8:
+                writeBuild();
+                break;
+            default:
+                writeProfiles();
+        }
+    }
+
+    private void writeProperties(int level, String prefix, int count) throws IOException {
+        writeStartTag(level, "properties");
+        for (int index : createOrder(count)) {
+            String name = String.format("%s.%07d", prefix, index);
+            writeTextElement(level + 1, name, "value " + index);
+        }
+        writeEndTag(level, "properties");
+    }
+
+    private void writeDependencies(int level, String prefix, int count) throws IOException {
+        writeStartTag(level, "dependencies");
+        for (int index : createOrder(count)) {
+            writeStartTag(level + 1, "dependency");
+            for (int element : createOrder(4)) {
+                switch (element) {
+                    case 0:
+                        writeTextElement(level + 2, "groupId", String.format("org.example.%s%05d", prefix, index / 10));
+                        break;
+                    case 1:
+                        writeTextElement(level + 2, "artifactId", String.format("%s-%07d", prefix, index));
+                        break;
+                    case 2:
+                        writeTextElement(level + 2, "version", "1." + index);
+                        break;
+                    default:
+                        writeTextElement(level + 2, "scope", index % 3 == 0 ? "test" : "compile");
+                }
+            }
+            writeEndTag(level + 1, "dependency");
+        }
+        writeEndTag(level, "dependencies");
+    }
+
+    private void writeBuild() throws IOException {
+        writeStartTag(1, "build");
+        writeStartTag(2, "plugins");
+        for (int index : createOrder(nrOfPlugins)) {
+            writeStartTag(3, "plugin");
+            for (int element : createOrder(configurationDepth > 0 ? 4 : 3)) {
+                switch (element) {
+                    case 0:
+                        writeTextElement(4, "groupId", String.format("org.example.plugins%05d", index / 10));
+                        break;
+                    case 1:
+                        writeTextElement(4, "artifactId", String.format("plugin-%07d", index));
+                        break;
+                    case 2:
+                        writeTextElement(4, "version", "2." + index);
+                        break;
+                    default:
+                        writeConfiguration(4, "configuration", configurationDepth, index);
+                }
+            }
+            writeEndTag(3, "plugin");
+        }
+        writeEndTag(2, "plugins");
+        writeEndTag(1, "build");
+    }
+
+    private void writeConfiguration(int level, String name, int depth, int index) throws IOException {
+        writeStartTag(level, name);
+        for (int element : createOrder(depth > 1 ? 3 : 2)) {
+            switch (element) {
+                case 0:
+                    writeTextElement(level + 1, "skip", String.valueOf(index % 2 == 0));
+                    break;
+                case 1:
+                    writeTextElement(level + 1, "argLine", "-Xmx" + (64 + index % 512) + "m -Dlevel=" + depth);
+                    break;
+                default:
+                    writeConfiguration(level + 1, "nested" + (depth - 1), depth - 1, index);
+            }
+        }
+        writeEndTag(level, name);
+    }
+
+    private void writeProfiles() throws IOException {
+        writeStartTag(1, "profiles");
+        for (int index : createOrder(nrOfProfiles)) {
+            writeStartTag(2, "profile");
+            for (int element : createOrder(4)) {
+                switch (element) {
+                    case 0:
+                        writeTextElement(3, "id", String.format("profile-%05d", index));
+                        break;
+                    case 1:
+                        writeStartTag(3, "activation");
+                        writeStartTag(4, "property");
+                        writeTextElement(5, "name", String.format("profile-%05d", index));
+                        writeEndTag(4, "property");
+                        writeEndTag(3, "activation");
+                        break;
+                    case 2:
+                        writeProperties(3, String.format("profile%05d", index), 3);
+                        break;
+                    default:
+                        writeDependencies(3, String.format("profile%05d", index), 2);
+                }
+            }
+            writeEndTag(2, "profile");
+        }
+        writeEndTag(1, "profiles");
+    }
+
+    /** Creates the order of the elements in a group, where each element may be swapped with another element */
+    private int[] createOrder(int count) {
+        int[] order = new int[count];
+        for (int i = 0; i < count; i++) {
+            order[i] = i;
+        }
+        for (int i = 0; i < count; i++) {
+            if (random.nextDouble() < disorder) {
+                int j = random.nextInt(count);
+                int swap = order[i];
+                order[i] = order[j];
+                order[j] = swap;
+            }
+        }
+        return order;
+    }
+
+    private void writeTextElement(int level, String name, String text) throws IOException {
+        writeIndent(level);
+        writer.write('<');
+        writer.write(name);
+        writer.write('>');
+        writer.write(text);
+        writer.write("</");
+        writer.write(name);
+        writer.write(">\n");
+    }
+
+    private void writeStartTag(int level, String name) throws IOException {
+        writeIndent(level);
+        writer.write('<');
+        writer.write(name);
+        writer.write(">\n");
+    }
+
+    private void writeEndTag(int level, String name) throws IOException {
+        for (int i = 0; i < level; i++) {
+            writer.write(INDENT);
+        }
+        writer.write("</");
+        writer.write(name);
+        writer.write(">\n");
+    }
+
+    /** Writes a blank line before the start of an element, depending on the blank line density */
+    private void writeIndent(int level) throws IOException {
+        if (random.nextDouble() < blankLineDensity) {
+            writer.write('\n');
+        }
+        for (int i = 0; i < level; i++) {
+            writer.write(INDENT);
+        }
+    }
+}
@@ -0,0 +1,62 @@
+package sortpom.util;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * One combination of sort parameters, as parameter names and values. The sort engines decide what the names
+ * mean, which keeps this module independent of the sorter.
+ */
+public final class SortConfiguration {
+    private final Map<String, String> values;
+
+    SortConfiguration(Map<String, String> values) {
+        this.values = Collections.unmodifiableMap(new LinkedHashMap<String, String>(values));
+    }
+
+    /** Returns the value of the parameter, or null if the parameter is not in the configuration */
+    public String get(String name) {
+        return values.get(name);
+    }
+
+    public boolean getBoolean(String name) {
+        return Boolean.parseBoolean(get(name));
+    }
+
+    public int getInt(String name) {
+        return Integer.parseInt(get(name));
+    }
+
+    /** Returns null for the value "null", so that null can be one of the values of a parameter */
+    public String getNullable(String name) {
+        String value = get(name);
+        return "null".equals(value) ? null : value;
+    }
+
+    public Map<String, String> getValues() {
+        return values;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        return this == o || (o instanceof SortConfiguration && values.equals(((SortConfiguration) o).values));
+    }
+
+    @Override
+    public int hashCode() {
+        return values.hashCode();
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder builder = new StringBuilder();
+        for (Map.Entry<String, String> entry : values.entrySet()) {
+            if (builder.length() > 0) {
+                builder.append(", ");
+            }
+            builder.append(entry.getKey()).append('=').append(entry.getValue().replace("\r", "\\r").replace("\n", "\\n"));
+        }
+        return builder.toString();
+    }
+}
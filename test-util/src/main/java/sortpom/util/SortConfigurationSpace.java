@@ -0,0 +1,58 @@
+package sortpom.util;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * All values of each sort parameter. Every combination of the values is a sort configuration.
+ */
+public class SortConfigurationSpace {
+    private final Map<String, List<String>> options = new LinkedHashMap<String, List<String>>();
+
+    /** Adds a parameter and all the values it can have, the first value is regarded as the default */
+    public SortConfigurationSpace addOption(String name, String... values) {
+        if (values.length == 0) {
+            throw new IllegalArgumentException("The parameter " + name + " must have at least one value");
+        }
+        options.put(name, Arrays.asList(values));
+        return this;
+    }
+
+    /** The number of combinations */
+    public int size() {
+        int size = 1;
+        for (List<String> values : options.values()) {
+            size *= values.size();
+        }
+        return size;
+    }
+
+    /** Returns every combination of the parameter values, where the last parameter changes the fastest */
+    public List<SortConfiguration> getAllCombinations() {
+        List<SortConfiguration> combinations = new ArrayList<SortConfiguration>(size());
+        for (int index = 0; index < size(); index++) {
+            combinations.add(getCombination(index));
+        }
+        return combinations;
+    }
+
+    /** Returns one combination, where index is between 0 and size() - 1 */
+    public SortConfiguration getCombination(int index) {
+        Map<String, String> values = new LinkedHashMap<String, String>();
+        List<String> names = new ArrayList<String>(options.keySet());
+        int remainder = index;
+        for (int i = names.size() - 1; i >= 0; i--) {
+            List<String> optionValues = options.get(names.get(i));
+            values.put(names.get(i), optionValues.get(remainder % optionValues.size()));
+            remainder /= optionValues.size();
+        }
+        Map<String, String> orderedValues = new LinkedHashMap<String, String>();
+        for (String name : names) {
+            orderedValues.put(name, values.get(name));
+        }
+        return new SortConfiguration(orderedValues);
+    }
+}
@@ -0,0 +1,17 @@
+package sortpom.util;
+
+/**
+ * A way to sort a pom, used by the differential harness to compare an engine with the reference engine.
+ */
+public interface SortEngine {
+
+    /**
+     * Sorts the pom.
+     *
+     * @param xml           the pom that should be sorted
+     * @param configuration the parameters that the sorting should use
+     * @return the sorted pom
+     * @throws Exception if the pom could not be sorted, the harness only compares the type of exceptions
+     */
+    String sort(String xml, SortConfiguration configuration) throws Exception;
+}
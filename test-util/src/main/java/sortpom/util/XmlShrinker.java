@@ -0,0 +1,138 @@
+package sortpom.util;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Shrinks an xml document while a condition still holds, by removing whole elements, comments and CDATA sections from the
+ * text. The root element and the formatting of the rest of the document are kept, so the result is as close
+ * to the original as possible. Larger elements are tried first, so that big parts disappear early.
+ */
+public class XmlShrinker {
+    private final int maxAttempts;
+
+    /** @param maxAttempts how many times the condition may be tested, the shrinking stops after that */
+    public XmlShrinker(int maxAttempts) {
+        this.maxAttempts = maxAttempts;
+    }
+
+    /** The condition that the shrunk xml must keep, e.g. that two sort engines still give different results */
+    public interface Condition {
+        boolean holds(String xml);
+    }
+
+    /**
+     * Removes elements and comments until no single removal keeps the condition.
+     *
+     * @param xml       an xml document for which the condition holds
+     * @param condition the condition
+     * @return the smallest xml that was found, for which the condition holds
+     */
+    public String shrink(String xml, Condition condition) {
+        String current = xml;
+        int attempts = 0;
+        boolean removed = true;
+        while (removed && attempts < maxAttempts) {
+            removed = false;
+            for (int[] span : findRemovableSpans(current)) {
+                if (attempts++ >= maxAttempts) {
+                    break;
+                }
+                String candidate = remove(current, span);
+                if (condition.holds(candidate)) {
+                    current = candidate;
+                    removed = true;
+                    break;
+                }
+            }
+        }
+        return current;
+    }
+
+    /** Removes the span, together with its indentation and any line breaks and blank lines before it */
+    private static String remove(String xml, int[] span) {
+        int start = span[0];
+        while (start > 0 && Character.isWhitespace(xml.charAt(start - 1))) {
+            start--;
+        }
+        return xml.substring(0, start) + xml.substring(span[1]);
+    }
+
+    /** Finds the start and end of each element below the root element and of each comment
+     * and CDATA section, largest first */
+    static List<int[]> findRemovableSpans(String xml) {
+        List<int[]> spans = new ArrayList<int[]>();
+        List<Integer> openElements = new ArrayList<Integer>();
+        int position = 0;
+        while (position < xml.length()) {
+            int tagStart = xml.indexOf('<', position);
+            if (tagStart == -1) {
+                break;
+            }
+            if (xml.startsWith("<!--", tagStart)) {
+                position = endOf(xml, "-->", tagStart);
+                if (!openElements.isEmpty()) {
+                    spans.add(new int[]{tagStart, position});
+                }
+            } else if (xml.startsWith("<![CDATA[", tagStart)) {
+                position = endOf(xml, "]]>", tagStart);
+                spans.add(new int[]{tagStart, position});
+            } else if (xml.startsWith("<?", tagStart)) {
+                position = endOf(xml, "?>", tagStart);
+            } else if (xml.startsWith("<!", tagStart)) {
+                position = endOf(xml, ">", tagStart);
+            } else if (xml.startsWith("</", tagStart)) {
+                position = endOf(xml, ">", tagStart);
+                if (!openElements.isEmpty()) {
+                    int elementStart = openElements.remove(openElements.size() - 1);
+                    if (!openElements.isEmpty()) {
+                        spans.add(new int[]{elementStart, position});
+                    }
+                }
+            } else {
+                position = endOfStartTag(xml, tagStart);
+                if (xml.charAt(position - 2) == '/') {
+                    if (!openElements.isEmpty()) {
+                        spans.add(new int[]{tagStart, position});
+                    }
+                } else {
+                    openElements.add(tagStart);
+                }
+            }
+        }
+        Collections.sort(spans, new Comparator<int[]>() {
+            //@Override
+            public int compare(int[] span1, int[] span2) {
+                int length1 = span1[1] - span1[0];
+                int length2 = span2[1] - span2[0];
+                return length1 != length2 ? length2 - length1 : span1[0] - span2[0];
+            }
+        });
+        return spans;
+    }
+
+    private static int endOf(String xml, String end, int start) {
+        int index = xml.indexOf(end, start);
+        return index == -1 ? xml.length() : index + end.length();
+    }
+
+    /** Finds the end of a start tag, where a quoted attribute value may contain '>' */
+    private static int endOfStartTag(String xml, int tagStart) {
+        char quote = 0;
+        for (int i = tagStart + 1; i < xml.length(); i++) {
+            char c = xml.charAt(i);
+            if (quote != 0) {
+                if (c == quote) {
+                    quote = 0;
+                }
+            } else if (c == '"' || c == '\'') {
+                quote = c;
+            } else if (c == '>') {
+                return i + 1;
+            }
+        }
+        return xml.length();
+    }
+}
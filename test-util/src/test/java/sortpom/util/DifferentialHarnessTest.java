@@ -0,0 +1,143 @@
+package sortpom.util;
+
+import org.junit.Test;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class DifferentialHarnessTest {
+    private static final SortEngine IDENTITY_ENGINE = new SortEngine() {
+        //@Override
+        public String sort(String xml, SortConfiguration configuration) {
+            return xml;
+        }
+    };
+
+    /** Differs from the identity engine for test scoped dependencies, but only in mode b */
+    private static final SortEngine TEST_SCOPE_ENGINE = new SortEngine() {
+        //@Override
+        public String sort(String xml, SortConfiguration configuration) {
+            if ("b".equals(configuration.get("mode")) && xml.contains("<scope>test</scope>")) {
+                return xml + "<!-- changed -->";
+            }
+            return xml;
+        }
+    };
+
+    private final SortConfigurationSpace configurationSpace = new SortConfigurationSpace()
+            .addOption("mode", "a", "b")
+            .addOption("indent", "2", "4", "-1");
+
+    @Test
+    public void configurationSpaceShouldContainEveryCombination() throws Exception {
+        List<SortConfiguration> combinations = configurationSpace.getAllCombinations();
+
+        assertEquals(6, configurationSpace.size());
+        assertEquals(6, new HashSet<SortConfiguration>(combinations).size());
+        assertEquals("mode=a, indent=2", combinations.get(0).toString());
+        assertEquals("mode=b, indent=-1", combinations.get(5).toString());
+        assertEquals(-1, combinations.get(5).getInt("indent"));
+    }
+
+    @Test
+    public void sameEnginesShouldNotDiverge() throws Exception {
+        DifferentialHarness harness = new DifferentialHarness(IDENTITY_ENGINE, IDENTITY_ENGINE, configurationSpace)
+                .addGeneratedPoms(10, 1);
+
+        assertEquals(60, harness.getNrOfComparisons());
+        assertTrue(harness.run().isEmpty());
+    }
+
+    @Test
+    public void divergingPomShouldBeShrunkToMinimalPom() throws Exception {
+        String pom = new PomGenerator(7).setNrOfDependencies(6).setNrOfProfiles(0).setBlankLineDensity(0.3).generate();
+        DifferentialHarness harness = new DifferentialHarness(IDENTITY_ENGINE, TEST_SCOPE_ENGINE, configurationSpace)
+                .addPom("pom7", pom);
+
+        List<Divergence> divergences = harness.run();
+
+        assertEquals(1, divergences.size());
+        Divergence divergence = divergences.get(0);
+        assertEquals("pom7", divergence.getPomName());
+        assertEquals("b", divergence.getConfiguration().get("mode"));
+        assertEquals(pom, divergence.getOriginalXml());
+        assertEquals("<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n" +
+                "<project xmlns=\"http://maven.apache.org/POM/4.0.0\">\n" +
+                "\n" +
+                "  <dependencies>\n" +
+                "    <dependency>\n" +
+                "      <scope>test</scope>\n" +
+                "    </dependency>\n" +
+                "  </dependencies>\n" +
+                "</project>\n", divergence.getMinimalXml());
+        assertEquals(divergence.getMinimalXml() + "<!-- changed -->", divergence.getCandidateResult());
+    }
+
+    @Test
+    public void combinationsShouldBeSpreadOverPoms() throws Exception {
+        final Set<SortConfiguration> usedConfigurations = new HashSet<SortConfiguration>();
+        SortEngine recordingEngine = new SortEngine() {
+            //@Override
+            public String sort(String xml, SortConfiguration configuration) {
+                usedConfigurations.add(configuration);
+                return xml;
+            }
+        };
+        DifferentialHarness harness = new DifferentialHarness(IDENTITY_ENGINE, recordingEngine, configurationSpace)
+                .addGeneratedPoms(3, 1)
+                .setCombinationsPerPom(2);
+
+        assertTrue(harness.run().isEmpty());
+
+        assertEquals(6, harness.getNrOfComparisons());
+        assertEquals(6, usedConfigurations.size());
+    }
+
+    @Test
+    public void sameExceptionTypeShouldNotDiverge() throws Exception {
+        SortEngine failingEngine = new SortEngine() {
+            //@Override
+            public String sort(String xml, SortConfiguration configuration) {
+                throw new IllegalArgumentException(xml);
+            }
+        };
+
+        assertTrue(new DifferentialHarness(failingEngine, failingEngine, configurationSpace)
+                .addGeneratedPoms(2, 1).run().isEmpty());
+        assertFalse(new DifferentialHarness(IDENTITY_ENGINE, failingEngine, configurationSpace)
+                .addGeneratedPoms(2, 1).run().isEmpty());
+    }
+
+    @Test
+    public void assertNoDivergenceShouldDescribeDivergence() throws Exception {
+        DifferentialHarness harness = new DifferentialHarness(IDENTITY_ENGINE, TEST_SCOPE_ENGINE, configurationSpace)
+                .addGeneratedPoms(3, 1);
+        try {
+            harness.assertNoDivergence();
+            fail();
+        } catch (AssertionError e) {
+            assertTrue(e.getMessage(), e.getMessage().contains("The engines diverge for generated-1 with configuration [mode=b, indent=2]"));
+            assertTrue(e.getMessage(), e.getMessage().contains("<scope>test</scope>"));
+        }
+    }
+
+    @Test
+    public void shrinkerShouldRemoveCommentsAndKeepRootElement() throws Exception {
+        String xml = "<?xml version=\"1.0\"?>\n<!-- top -->\n<a x='>'>\n  <!-- c -->\n  <b/>\n  <c><d>1</d><![CDATA[<e>]]></c>\n</a>\n";
+
+        String shrunk = new XmlShrinker(100).shrink(xml, new XmlShrinker.Condition() {
+            //@Override
+            public boolean holds(String shrunkXml) {
+                return shrunkXml.contains("<d>");
+            }
+        });
+
+        assertEquals("<?xml version=\"1.0\"?>\n<!-- top -->\n<a x='>'>\n  <c><d>1</d></c>\n</a>\n", shrunk);
+    }
+}
@@ -0,0 +1,60 @@
+package sortpom.util;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.Charset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Reads the real world pom files in the corpus directory. The corpus is packaged in the test jar of this
+ * module, so that other modules can run their tests and benchmarks on it.
+ */
+public final class PomCorpus {
+    private static final String CORPUS_DIRECTORY = "/corpus/";
+    private static final Pattern ENCODING_PATTERN = Pattern.compile("<\\?xml[^>]*encoding=[\"']([^\"']+)[\"']");
+
+    private PomCorpus() {
+    }
+
+    /** The file names of all poms in the corpus, in alphabetical order */
+    public static List<String> getNames() throws IOException {
+        String index = new String(getBytes("index.txt"), "UTF-8");
+        List<String> names = new ArrayList<String>();
+        for (String name : index.split("\n")) {
+            if (name.trim().length() > 0) {
+                names.add(name.trim());
+            }
+        }
+        return names;
+    }
+
+    /** The unchanged content of a pom in the corpus */
+    public static byte[] getBytes(String name) throws IOException {
+        InputStream inputStream = PomCorpus.class.getResourceAsStream(CORPUS_DIRECTORY + name);
+        if (inputStream == null) {
+            throw new IllegalArgumentException("Cannot find the pom corpus file " + name);
+        }
+        try {
+            ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+            byte[] buffer = new byte[8192];
+            int length;
+            while ((length = inputStream.read(buffer)) != -1) {
+                outputStream.write(buffer, 0, length);
+            }
+            return outputStream.toByteArray();
+        } finally {
+            inputStream.close();
+        }
+    }
+
+    /** The encoding in the xml declaration of the pom, or UTF-8 if the declaration has no encoding */
+    public static String getEncoding(byte[] pomBytes) {
+        String start = new String(pomBytes, 0, Math.min(pomBytes.length, 200), Charset.forName("US-ASCII"));
+        Matcher matcher = ENCODING_PATTERN.matcher(start);
+        return matcher.find() ? matcher.group(1) : "UTF-8";
+    }
+}
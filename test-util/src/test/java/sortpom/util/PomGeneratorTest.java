@@ -0,0 +1,82 @@
+package sortpom.util;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class PomGeneratorTest {
+
+    @Test
+    public void sameSeedShouldGiveSamePom() throws Exception {
+        String pom1 = createGenerator(42).generate();
+        String pom2 = createGenerator(42).generate();
+
+        assertEquals(pom1, pom2);
+        assertFalse(pom1.equals(createGenerator(43).generate()));
+    }
+
+    @Test
+    public void pomShouldContainConfiguredNumberOfElements() throws Exception {
+        String pom = new PomGenerator(1)
+                .setNrOfDependencies(25)
+                .setNrOfPlugins(7)
+                .setNrOfProfiles(3)
+                .setNrOfProperties(11)
+                .setConfigurationDepth(3)
+                .generate();
+
+        // Each profile has two dependencies and three properties of its own
+        assertEquals(25 + 3 * 2, count(pom, "<dependency>"));
+        assertEquals(7, count(pom, "<plugin>"));
+        assertEquals(3, count(pom, "<profile>"));
+        assertEquals(11, count(pom, "<property."));
+        assertEquals(7, count(pom, "<nested1>"));
+        assertEquals(0, count(pom, "<nested0>"));
+    }
+
+    @Test
+    public void noDisorderShouldPlaceElementsInOrder() throws Exception {
+        String pom = new PomGenerator(1).setNrOfProperties(3).generate();
+
+        assertTrue(pom.indexOf("<modelVersion>") < pom.indexOf("<groupId>"));
+        assertTrue(pom.indexOf("<property.0000000>") < pom.indexOf("<property.0000001>"));
+        assertTrue(pom.indexOf("<property.0000001>") < pom.indexOf("<property.0000002>"));
+    }
+
+    @Test
+    public void disorderShouldKeepTheSameElements() throws Exception {
+        String orderedPom = createGenerator(7).setDisorder(0).generate();
+        String disorderedPom = createGenerator(7).setDisorder(1).generate();
+
+        assertFalse(orderedPom.equals(disorderedPom));
+        assertEquals(orderedPom.length(), disorderedPom.length());
+    }
+
+    @Test
+    public void blankLineDensityShouldAddBlankLines() throws Exception {
+        assertEquals(0, count(createGenerator(3).generate(), "\n\n"));
+        assertTrue(count(createGenerator(3).setBlankLineDensity(0.5).generate(), "\n\n") > 10);
+    }
+
+    @Test
+    public void approximateSizeShouldBeWithinFactorTwo() throws Exception {
+        for (long size : new long[]{10000, 100000, 1000000}) {
+            int length = PomGenerator.withApproximateSize(1, size).generate().length();
+            assertTrue("Size " + size + " gave " + length, length > size / 2 && length < size * 2);
+        }
+    }
+
+    private PomGenerator createGenerator(long seed) {
+        return new PomGenerator(seed).setDisorder(0.5);
+    }
+
+    private int count(String text, String part) {
+        int count = 0;
+        for (int index = text.indexOf(part); index != -1; index = text.indexOf(part, index + 1)) {
+            count++;
+        }
+        return count;
+    }
+}